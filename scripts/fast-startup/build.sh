@@ -0,0 +1,22 @@
+#!/usr/bin/env bash
+# 빠른 시작용 빌드 : AOT 처리한 jar 를 풀어 놓고(target/fast-startup) CDS 아카이브를 만드는 training run 까지 실행
+#   scripts/fast-startup/build.sh [애플리케이션 인자...]
+# training run 은 컨텍스트 refresh 직후 종료하므로(spring.context.exit=onRefresh) DB 연결 없이도 실행됩니다.
+# 인자는 training run 에 그대로 전달됩니다. (예: 로컬 H2 로 실행할 때의 datasource 설정)
+set -euo pipefail
+
+cd "$(dirname "$0")/../.."
+OUT=target/fast-startup
+
+sh ./mvnw -B -q -Pfast-startup -DskipTests package
+
+rm -rf "$OUT"
+java -Djarmode=tools -jar target/MySpringBootLab-*.jar extract --destination "$OUT"
+
+cd "$OUT"
+java -XX:ArchiveClassesAtExit=application.jsa \
+     -Dspring.aot.enabled=true \
+     -Dspring.context.exit=onRefresh \
+     -jar MySpringBootLab-*.jar "$@"
+
+echo "CDS archive: $OUT/application.jsa"
@@ -0,0 +1,58 @@
+#!/usr/bin/env bash
+# 시작 시간 측정 : JVM 시작부터 첫 요청 응답까지(time-to-first-request)를 RUNS 번 측정해서 중앙값을 출력
+#   scripts/fast-startup/measure-startup.sh fast|plain [애플리케이션 인자...]
+#   - fast  : build.sh 결과(target/fast-startup)를 AOT + CDS 로 실행
+#   - plain : target/MySpringBootLab-*.jar 를 그대로 실행
+# 환경변수 : RUNS (기본 5), PORT (기본 8080), URL (기본 /api/books), JAVA_OPTS
+# 응답 코드와 관계없이 HTTP 응답이 오면 요청을 처리할 수 있는 것으로 봅니다.
+# 앱이 남기는 "Time to first request" 로그(FirstRequestTimer)도 함께 출력합니다.
+set -euo pipefail
+
+cd "$(dirname "$0")/../.."
+MODE=${1:?usage: measure-startup.sh fast|plain [app args...]}
+shift
+RUNS=${RUNS:-5}
+PORT=${PORT:-8080}
+URL=${URL:-http://localhost:$PORT/api/books}
+
+case "$MODE" in
+  fast)
+    DIR=target/fast-startup
+    JAR=$(ls "$DIR"/MySpringBootLab-*.jar)
+    JVM_ARGS="-XX:SharedArchiveFile=$DIR/application.jsa -Dspring.aot.enabled=true"
+    ;;
+  plain)
+    JAR=$(ls target/MySpringBootLab-*.jar)
+    JVM_ARGS=""
+    ;;
+  *)
+    echo "unknown mode: $MODE" >&2
+    exit 1
+    ;;
+esac
+
+LOG=$(mktemp)
+trap 'rm -f "$LOG"' EXIT
+results=()
+for run in $(seq "$RUNS"); do
+  start=$(date +%s%N)
+  # shellcheck disable=SC2086
+  java $JVM_ARGS ${JAVA_OPTS:-} -jar "$JAR" --server.port="$PORT" "$@" > "$LOG" 2>&1 &
+  pid=$!
+  until [ "$(curl -s -o /dev/null -w '%{http_code}' "$URL" || true)" != "000" ]; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "application exited, see log:" >&2
+      cat "$LOG" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  results+=("$elapsed")
+  echo "run $run: ${elapsed} ms | $(grep -o 'Started MySpringBootLabApplication in [0-9.]* seconds' "$LOG" || true) | $(grep -o 'Time to first request: [0-9]* ms' "$LOG" || true)"
+done
+
+sorted=($(printf '%s\n' "${results[@]}" | sort -n))
+echo "$MODE: median time-to-first-request ${sorted[$(( RUNS / 2 ))]} ms (min ${sorted[0]}, max ${sorted[$(( RUNS - 1 ))]}, runs $RUNS)"
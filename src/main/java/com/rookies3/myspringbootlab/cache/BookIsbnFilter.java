@@ -0,0 +1,218 @@
+package com.rookies3.myspringbootlab.cache;
+
+import com.rookies3.myspringbootlab.datasource.ReplicaRoutingDataSource;
+import com.rookies3.myspringbootlab.event.BookChangedEvent;
+import com.rookies3.myspringbootlab.event.BookSnapshot;
+import com.rookies3.myspringbootlab.property.BookIsbnFilterProperties;
+import com.rookies3.myspringbootlab.repository.BookRepository;
+import com.rookies3.myspringbootlab.validation.Isbn;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+/**
+ * 저장된 모든 ISBN(isbn13)의 cuckoo filter : 없는 ISBN 의 조회(GET /isbn, If-None-Match, _mget)를 DB 없이 끝냅니다.
+ * - 이 인스턴스에서 커밋된 변경만 바로 반영하므로, 여러 인스턴스가 같은 DB 에 쓰는 배포에서는
+ *   다른 인스턴스가 등록한 도서가 다음 구축까지 404 가 됩니다. 이 경우 book.isbn-filter.enabled=false 로 끕니다.
+ * - 등록/수정의 중복 확인은 필터와 관계없이 항상 DB 로 확인합니다. (그래도 경합하면 uk_books_isbn13 위반 -> 409)
+ * - mightContain 이 false 이면 확실히 없는 ISBN, true 이면 DB 로 확인 (구축 전이거나 비활성화된 경우 항상 true)
+ * - 시작 시 BookRepository 로 만들고 BookChangedEvent 로 등록/ISBN 변경/삭제를 반영하며, rebuildInterval 마다 새로 만들어 교체합니다.
+ * - 구축 중에 커밋된 등록은 구축이 끝난 뒤 새 필터에도 추가하고, 삭제는 새 필터에 반영하지 않습니다.
+ *   (스트림에 포함되지 않은 키를 삭제하면 다른 키가 지워질 수 있으므로, 남은 fingerprint 는 다음 구축에서 정리)
+ * - 적재율이 높아지거나 overflow 가 생기면 도서 수에 맞춰 더 큰 필터를 다시 만듭니다.
+ * 메트릭 : book.isbn.filter.size / memory / expected.fpp / observed.fpp, book.isbn.filter.negatives / false.positives
+ */
+@Component
+@Slf4j
+public class BookIsbnFilter {
+
+    private final BookRepository bookRepository;
+    private final BookIsbnFilterProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter negatives;
+    private final Counter falsePositives;
+
+    private volatile IsbnCuckooFilter filter;
+    // 구축 중에 커밋된 등록 (구축 중이 아니면 null)
+    private List<Long> pendingAdds;
+    private final Object changeLock = new Object();
+    private final Object rebuildLock = new Object();
+    private final AtomicBoolean growing = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "isbn-filter-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BookIsbnFilter(BookRepository bookRepository, BookIsbnFilterProperties properties,
+                          PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.bookRepository = bookRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.negatives = Counter.builder("book.isbn.filter.negatives")
+                .description("ISBN lookups answered as definite misses without the database")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("book.isbn.filter.false.positives")
+                .description("ISBN lookups the filter passed but the database did not find")
+                .register(meterRegistry);
+        Gauge.builder("book.isbn.filter.size", this, f -> f.current(IsbnCuckooFilter::size))
+                .description("ISBNs in the filter")
+                .register(meterRegistry);
+        Gauge.builder("book.isbn.filter.memory", this, f -> f.current(IsbnCuckooFilter::memoryBytes))
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("book.isbn.filter.expected.fpp", this, f -> f.current(IsbnCuckooFilter::expectedFalsePositiveRate))
+                .description("False positive probability for the current load factor")
+                .register(meterRegistry);
+        Gauge.builder("book.isbn.filter.observed.fpp", this, BookIsbnFilter::observedFalsePositiveRate)
+                .description("Share of lookups for missing ISBNs that still reached the database")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void build() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        rebuild();
+        long interval = properties.getRebuildInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::rebuildQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * DB 의 ISBN 으로 새 필터를 만들어 교체합니다.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (changeLock) {
+                pendingAdds = new ArrayList<>();
+            }
+            long start = System.nanoTime();
+            // 구축 이후의 변경만 pendingAdds 로 반영하므로 복제 지연이 없는 primary 에서 읽음
+            IsbnCuckooFilter next = ReplicaRoutingDataSource.callOnPrimary(() -> transactionTemplate.execute(status -> {
+                long capacity = Math.max((long) (bookRepository.count() * properties.getHeadroom()),
+                        properties.getMinimumCapacity());
+                IsbnCuckooFilter built = new IsbnCuckooFilter(capacity);
+                try (Stream<Long> isbns = bookRepository.streamAllIsbn13()) {
+                    isbns.forEach(built::add);
+                }
+                return built;
+            }));
+            synchronized (changeLock) {
+                pendingAdds.forEach(next::add);
+                pendingAdds = null;
+                filter = next;
+            }
+            log.info("ISBN filter built: {} isbns, {} KB, load {}, expected fpp {} in {} ms",
+                    next.size(), next.memoryBytes() / 1024, String.format("%.2f", next.loadFactor()),
+                    String.format("%.6f", next.expectedFalsePositiveRate()), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * false 이면 저장되지 않은 ISBN (확실), true 이면 저장되어 있을 수 있음
+     */
+    public boolean mightContain(long isbn13) {
+        if (isbn13 == Isbn.INVALID) {
+            negatives.increment();
+            return false;
+        }
+        IsbnCuckooFilter current = filter;
+        if (current == null || current.mightContain(isbn13)) {
+            return true;
+        }
+        negatives.increment();
+        return false;
+    }
+
+    /**
+     * mightContain 을 통과했지만 DB 에 없던 ISBN 수
+     */
+    public void recordFalsePositives(int count) {
+        if (count > 0 && filter != null) {
+            falsePositives.increment(count);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        long removed = isbn13(event.before());
+        long added = isbn13(event.after());
+        if (removed == added) {
+            // 상세정보만 수정되었거나 ISBN 이 바뀌지 않은 경우
+            return;
+        }
+        IsbnCuckooFilter current;
+        synchronized (changeLock) {
+            current = filter;
+            if (current != null) {
+                if (removed != Isbn.INVALID) {
+                    current.remove(removed);
+                }
+                if (added != Isbn.INVALID) {
+                    current.add(added);
+                }
+            }
+            if (pendingAdds != null && added != Isbn.INVALID) {
+                pendingAdds.add(added);
+            }
+        }
+        if (current != null && current.needsGrowth() && growing.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                try {
+                    rebuildQuietly();
+                } finally {
+                    growing.set(false);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // 실패하면 기존 필터를 계속 사용
+            log.warn("ISBN filter rebuild failed", e);
+        }
+    }
+
+    private double current(ToDoubleFunction<IsbnCuckooFilter> metric) {
+        IsbnCuckooFilter current = filter;
+        return current != null ? metric.applyAsDouble(current) : 0;
+    }
+
+    private double observedFalsePositiveRate() {
+        double misses = negatives.count() + falsePositives.count();
+        return misses == 0 ? 0 : falsePositives.count() / misses;
+    }
+
+    private static long isbn13(BookSnapshot snapshot) {
+        return snapshot != null ? Isbn.normalize(snapshot.isbn()) : Isbn.INVALID;
+    }
+}
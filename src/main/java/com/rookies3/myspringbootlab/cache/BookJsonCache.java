@@ -0,0 +1,234 @@
+package com.rookies3.myspringbootlab.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rookies3.myspringbootlab.datasource.ReplicaRoutingDataSource;
+import com.rookies3.myspringbootlab.event.BookChangedEvent;
+import com.rookies3.myspringbootlab.property.BookJsonCacheProperties;
+import com.rookies3.myspringbootlab.property.BookSingleFlightProperties;
+import com.rookies3.myspringbootlab.validation.Isbn;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 직렬화된 JSON 응답(byte[]) 캐시
+ * 조회 API 가 캐시 hit 인 경우 DTO 생성과 Jackson 직렬화 없이 저장된 바이트를 그대로 응답 스트림에 씁니다.
+ * - 단건(book:id) : 쓰기 이벤트에서 해당 도서 키를 제거하고, ISBN 조회는 idByIsbn(정규화된 ISBN-13 -> id) 으로 같은 항목을 공유합니다.
+ * - 목록/검색(list:...) : 저장 시점의 generation 을 함께 보관하고, 어떤 도서든 쓰기가 커밋되면 generation 이 올라가
+ *   이전 항목은 모두 무효가 됩니다. (제거는 다음 조회 시 덮어쓰거나 용량/TTL 로 정리)
+ * 항목 수가 아닌 바이트 합계(maximumWeight)로 제한하므로 응답 크기와 관계없이 메모리 사용량이 일정합니다.
+ *
+ * 조회와 쓰기의 경합은 BookResponseCache 와 같은 방식으로 처리합니다. (저장 후 generation 재확인)
+ * 쓰기 직후의 캐시 miss 는 ReplicaRoutingDataSource 가 replicaLag 동안 primary 에서 읽으므로
+ * 지연된 replica 의 값이 새 generation 으로 저장되지 않습니다.
+ *
+ * 캐시에 없는 같은 키의 동시 조회는 SingleFlight 로 합쳐서 DB 조회와 직렬화를 한 번만 합니다. (인기 도서, 같은 검색어)
+ * 합치는 키에 generation 과 primary 고정 여부를 포함하므로, 쓰기가 커밋된 뒤 들어온 요청이나
+ * 자기 쓰기를 읽어야 하는 요청(ReadYourWritesFilter)이 그 전에 시작한 replica 조회 결과를 받지 않습니다.
+ */
+@Component
+public class BookJsonCache {
+
+    private static final String BOOK_KEY = "book:";
+    private static final String LIST_KEY = "list:";
+    private static final String ISBN_KEY = "isbn:";
+
+    private final ObjectMapper objectMapper;
+    private final long maximumEntrySize;
+    private final long gzipMinSize;
+    private final Cache<String, Entry> entries;
+    private final Cache<Long, Long> idByIsbn;
+    private final AtomicLong generation = new AtomicLong();
+    private final SingleFlight<FlightKey, CachedJson> flights;
+
+    private record Entry(CachedJson value, long generation) {
+    }
+
+    private record FlightKey(String key, long generation, boolean primary) {
+    }
+
+    public BookJsonCache(ObjectMapper objectMapper, BookJsonCacheProperties properties,
+                         BookSingleFlightProperties singleFlightProperties, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.maximumEntrySize = properties.getMaximumEntrySize().toBytes();
+        this.gzipMinSize = properties.getGzipMinSize().toBytes();
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumSize().toBytes())
+                .weigher((String key, Entry entry) -> key.length() + entry.value().weight())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        this.idByIsbn = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(properties.getTtl())
+                .build();
+        this.flights = new SingleFlight<>("books.json", singleFlightProperties.isEnabled(),
+                singleFlightProperties.getTimeout(), meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "books.json");
+    }
+
+    /**
+     * 저장된 단건 응답 (없으면 null)
+     */
+    public CachedJson findById(Long id) {
+        Entry entry = entries.getIfPresent(BOOK_KEY + id);
+        return entry != null ? entry.value() : null;
+    }
+
+    public CachedJson findByIsbn(String isbn) {
+        Long id = idByIsbn.getIfPresent(Isbn.normalize(isbn));
+        return id != null ? findById(id) : null;
+    }
+
+    public CachedJson getById(Long id, Supplier<CachedJson> loader) {
+        CachedJson cached = findById(id);
+        if (cached != null) {
+            return cached;
+        }
+        long observed = generation.get();
+        return flights.execute(flightKey(BOOK_KEY + id, observed), () -> {
+            CachedJson loaded = loader.get();
+            storeBook(loaded, Isbn.INVALID, observed);
+            return loaded;
+        });
+    }
+
+    public CachedJson getByIsbn(String isbn, Supplier<CachedJson> loader) {
+        CachedJson cached = findByIsbn(isbn);
+        if (cached != null) {
+            return cached;
+        }
+        long isbn13 = Isbn.normalize(isbn);
+        long observed = generation.get();
+        // 형식이 다른 같은 ISBN 도 하나로 합침
+        return flights.execute(flightKey(ISBN_KEY + isbn13, observed), () -> {
+            CachedJson loaded = loader.get();
+            storeBook(loaded, isbn13, observed);
+            return loaded;
+        });
+    }
+
+    /**
+     * 목록/검색 응답 : 마지막 쓰기 이후에 저장된 항목만 사용합니다.
+     *
+     * @param key 요청 파라미터로 만든 키 (같은 응답을 만드는 요청은 같은 키)
+     */
+    public CachedJson getList(String key, Supplier<CachedJson> loader) {
+        CachedJson cached = findList(key);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = stamp();
+        return flights.execute(flightKey(LIST_KEY + key, stamp), () -> putList(key, stamp, loader.get()));
+    }
+
+    /**
+     * 마지막 쓰기 이후에 저장된 목록 응답 (없으면 null)
+     */
+    public CachedJson findList(String key) {
+        Entry entry = entries.getIfPresent(LIST_KEY + key);
+        return entry != null && entry.generation() == generation.get() ? entry.value() : null;
+    }
+
+    /**
+     * 목록을 만들기 전에 받아 두었다가 {@link #putList} 에 넘기는 값
+     * 조회 도중에 쓰기가 커밋되면 generation 이 달라져서 저장한 항목은 다음 조회에서 무시됩니다.
+     */
+    public long stamp() {
+        return generation.get();
+    }
+
+    public CachedJson putList(String key, long stamp, CachedJson value) {
+        if (isCacheable(value)) {
+            entries.put(LIST_KEY + key, new Entry(value, stamp));
+        }
+        return value;
+    }
+
+    /**
+     * 응답 본문을 JSON 으로 직렬화하고, gzipMinSize 이상이면 gzip 본도 함께 만듭니다.
+     */
+    public CachedJson render(Object body, Long bookId, String eTag, Instant lastModified) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new CachedJson(bookId, eTag, lastModified, json, json.length >= gzipMinSize ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize response", e);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        generation.incrementAndGet();
+        entries.invalidate(BOOK_KEY + event.bookId());
+        if (event.before() != null) {
+            idByIsbn.invalidate(Isbn.normalize(event.before().isbn()));
+        }
+        if (event.after() != null) {
+            idByIsbn.invalidate(Isbn.normalize(event.after().isbn()));
+        }
+    }
+
+    /**
+     * 목록/검색 응답만 무효화 (단건 응답은 유지)
+     * 도서 쓰기 없이 목록 결과가 바뀐 경우에 사용합니다. (예: 패싯 집계를 DB 로 다시 만들어 값이 달라진 경우)
+     */
+    public void invalidateLists() {
+        generation.incrementAndGet();
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.invalidateAll();
+        idByIsbn.invalidateAll();
+    }
+
+    // isbn13 : ISBN 으로 조회한 경우의 키 (id 로 조회한 경우 Isbn.INVALID)
+    private void storeBook(CachedJson value, long isbn13, long observed) {
+        if (!isCacheable(value)) {
+            return;
+        }
+        String key = BOOK_KEY + value.bookId();
+        entries.put(key, new Entry(value, observed));
+        if (isbn13 != Isbn.INVALID) {
+            idByIsbn.put(isbn13, value.bookId());
+        }
+        if (generation.get() != observed) {
+            // DB 조회 중에 쓰기가 커밋되었으므로 방금 저장한 값은 오래된 값일 수 있습니다.
+            entries.invalidate(key);
+            if (isbn13 != Isbn.INVALID) {
+                idByIsbn.invalidate(isbn13);
+            }
+        }
+    }
+
+    private static FlightKey flightKey(String key, long generation) {
+        return new FlightKey(key, generation, ReplicaRoutingDataSource.isPinnedToPrimary());
+    }
+
+    private boolean isCacheable(CachedJson value) {
+        return value.weight() <= maximumEntrySize;
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
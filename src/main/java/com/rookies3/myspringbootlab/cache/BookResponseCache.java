@@ -0,0 +1,103 @@
+package com.rookies3.myspringbootlab.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rookies3.myspringbootlab.controller.dto.BookDTO;
+import com.rookies3.myspringbootlab.event.BookChangedEvent;
+import com.rookies3.myspringbootlab.property.BookCacheProperties;
+import com.rookies3.myspringbootlab.validation.Isbn;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 단건 조회(id, ISBN)용 read-through 캐시
+ * - byId : book_id -> 응답 DTO, idByIsbn : 정규화된 ISBN-13 -> book_id (ISBN 조회도 같은 응답 객체를 공유)
+ * - 항목 수(maximumSize)와 TTL 로 제거되며 hit/miss/eviction 통계는 /actuator/metrics 의 cache.* 로 노출됩니다.
+ * - 쓰기는 커밋 이후 BookChangedEvent 로 무효화하고, ISBN 이 바뀐 경우 이전/이후 ISBN 키를 모두 제거합니다.
+ *
+ * 조회와 쓰기가 경합하는 경우 : 커밋 전에 DB 에서 읽은 값을 무효화 이후에 저장하면 오래된 값이 되살아납니다.
+ * 이를 막기 위해 무효화할 때마다 generation 을 올리고, 조회 쪽은 저장한 뒤 generation 이 바뀌었으면 다시 제거합니다.
+ * (무효화: generation 증가 -> 제거, 조회: generation 확인 -> DB 조회 -> 저장 -> generation 재확인)
+ */
+@Component
+public class BookResponseCache {
+
+    private final Cache<Long, BookDTO.Response> byId;
+    private final Cache<Long, Long> idByIsbn;
+    private final AtomicLong generation = new AtomicLong();
+
+    public BookResponseCache(BookCacheProperties properties, MeterRegistry meterRegistry) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        this.idByIsbn = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "books.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, idByIsbn, "books.byIsbn");
+    }
+
+    public BookDTO.Response getById(Long id, Supplier<BookDTO.Response> loader) {
+        BookDTO.Response cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        long observed = generation.get();
+        BookDTO.Response loaded = loader.get();
+        store(loaded, Isbn.normalize(loaded.getIsbn()), observed);
+        return loaded;
+    }
+
+    public BookDTO.Response getByIsbn(String isbn, Supplier<BookDTO.Response> loader) {
+        long isbn13 = Isbn.normalize(isbn);
+        Long id = idByIsbn.getIfPresent(isbn13);
+        if (id != null) {
+            BookDTO.Response cached = byId.getIfPresent(id);
+            // id 항목만 먼저 교체된 경우를 대비해 ISBN 이 여전히 같은지 확인
+            if (cached != null && Isbn.normalize(cached.getIsbn()) == isbn13) {
+                return cached;
+            }
+        }
+        long observed = generation.get();
+        BookDTO.Response loaded = loader.get();
+        store(loaded, isbn13, observed);
+        return loaded;
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        generation.incrementAndGet();
+        byId.invalidate(event.bookId());
+        if (event.before() != null) {
+            idByIsbn.invalidate(Isbn.normalize(event.before().isbn()));
+        }
+        if (event.after() != null) {
+            idByIsbn.invalidate(Isbn.normalize(event.after().isbn()));
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        byId.invalidateAll();
+        idByIsbn.invalidateAll();
+    }
+
+    private void store(BookDTO.Response response, long isbn13, long observed) {
+        byId.put(response.getId(), response);
+        idByIsbn.put(isbn13, response.getId());
+        if (generation.get() != observed) {
+            // DB 조회 중에 쓰기가 커밋되었으므로 방금 저장한 값은 오래된 값일 수 있습니다.
+            byId.invalidate(response.getId());
+            idByIsbn.invalidate(isbn13);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.rookies3.myspringbootlab.cache;
+
+import java.time.Instant;
+
+/**
+ * 직렬화가 끝난 응답 본문
+ *
+ * @param bookId       단건 응답이면 도서 id (목록/검색은 null)
+ * @param eTag         응답 ETag (없으면 null)
+ * @param lastModified 응답 Last-Modified (없으면 null)
+ * @param json         UTF-8 JSON
+ * @param gzip         json 의 gzip 압축본 (작은 응답은 null)
+ */
+public record CachedJson(Long bookId, String eTag, Instant lastModified, byte[] json, byte[] gzip) {
+
+    // 배열 외 객체/헤더 문자열 등 대략적인 고정 비용
+    private static final int OVERHEAD_BYTES = 128;
+
+    public int weight() {
+        return OVERHEAD_BYTES + json.length + (gzip != null ? gzip.length : 0);
+    }
+}
@@ -0,0 +1,191 @@
+package com.rookies3.myspringbootlab.cache;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 정규화된 ISBN-13(long) 용 cuckoo filter
+ * 버킷당 16비트 fingerprint 4개, 키마다 후보 버킷 2개 (i2 = i1 ^ hash(fingerprint) 이므로 fingerprint 만으로 다른 버킷을 구함)
+ * - 추가한 키는 항상 true (false negative 없음), 없는 키가 true 일 확률은 약 2 * 4 * 적재율 / 65536 (최대 약 0.012%)
+ * - 삭제는 추가했던 키에만 호출해야 합니다. (추가하지 않은 키를 삭제하면 fingerprint 가 같은 다른 키가 지워질 수 있음)
+ * - 자리를 찾지 못한 키가 생기면(overflow) 그 이후로는 모든 키에 true 를 반환하므로 다시 만들어야 합니다.
+ * 쓰기는 write lock, 조회는 낙관적 읽기(StampedLock)로 락 없이 처리합니다.
+ */
+final class IsbnCuckooFilter {
+
+    static final int BUCKET_SIZE = 4;
+    // 적재율이 이보다 높으면 삽입 시 자리 이동(kick)이 길어지고 overflow 가능성이 커짐
+    static final double MAX_LOAD_FACTOR = 0.9;
+    private static final int MAX_BUCKETS = 1 << 28;
+    private static final int MAX_KICKS = 500;
+    private static final int FINGERPRINT_VALUES = 1 << 16;
+
+    private final short[] slots;
+    private final int bucketMask;
+    private final StampedLock lock = new StampedLock();
+    private int size;
+    private boolean overflowed;
+    private long kickRandom = 0x9E3779B97F4A7C15L;
+
+    /**
+     * @param capacity 저장할 키 수 (적재율 MAX_LOAD_FACTOR 이하가 되도록 버킷 수를 2의 거듭제곱으로 맞춤)
+     */
+    IsbnCuckooFilter(long capacity) {
+        long buckets = (long) Math.ceil(Math.max(capacity, 1) / (BUCKET_SIZE * MAX_LOAD_FACTOR));
+        int bucketCount = (int) Math.min(MAX_BUCKETS, Long.highestOneBit(Math.max(buckets - 1, 1)) << 1);
+        this.slots = new short[bucketCount * BUCKET_SIZE];
+        this.bucketMask = bucketCount - 1;
+    }
+
+    void add(long key) {
+        long hash = mix(key);
+        short fingerprint = fingerprint(hash);
+        int index = (int) hash & bucketMask;
+        long stamp = lock.writeLock();
+        try {
+            size++;
+            if (insert(index, fingerprint) || insert(alternate(index, fingerprint), fingerprint)) {
+                return;
+            }
+            // 두 버킷이 모두 차 있으면 임의의 fingerprint 를 다른 후보 버킷으로 옮기면서 자리를 만듦
+            if (nextRandom() % 2 == 0) {
+                index = alternate(index, fingerprint);
+            }
+            for (int kick = 0; kick < MAX_KICKS; kick++) {
+                int slot = index * BUCKET_SIZE + (int) (nextRandom() & (BUCKET_SIZE - 1));
+                short evicted = slots[slot];
+                slots[slot] = fingerprint;
+                fingerprint = evicted;
+                index = alternate(index, fingerprint);
+                if (insert(index, fingerprint)) {
+                    return;
+                }
+            }
+            overflowed = true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    boolean remove(long key) {
+        long hash = mix(key);
+        short fingerprint = fingerprint(hash);
+        int index = (int) hash & bucketMask;
+        long stamp = lock.writeLock();
+        try {
+            if (delete(index, fingerprint) || delete(alternate(index, fingerprint), fingerprint)) {
+                size--;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    boolean mightContain(long key) {
+        long hash = mix(key);
+        short fingerprint = fingerprint(hash);
+        int index = (int) hash & bucketMask;
+        long stamp = lock.tryOptimisticRead();
+        boolean found = overflowed || contains(index, fingerprint) || contains(alternate(index, fingerprint), fingerprint);
+        if (lock.validate(stamp)) {
+            return found;
+        }
+        // 조회 도중 fingerprint 가 이동한 경우
+        stamp = lock.readLock();
+        try {
+            return overflowed || contains(index, fingerprint) || contains(alternate(index, fingerprint), fingerprint);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    long memoryBytes() {
+        return (long) slots.length * Short.BYTES;
+    }
+
+    double loadFactor() {
+        return (double) size / slots.length;
+    }
+
+    boolean isOverflowed() {
+        return overflowed;
+    }
+
+    /**
+     * 현재 적재율에서 없는 키를 있다고 할 확률 (두 버킷의 fingerprint 8개 중 하나와 우연히 같을 확률)
+     */
+    double expectedFalsePositiveRate() {
+        if (overflowed) {
+            return 1.0;
+        }
+        return 1.0 - Math.pow(1.0 - 1.0 / (FINGERPRINT_VALUES - 1), 2.0 * BUCKET_SIZE * Math.min(loadFactor(), 1.0));
+    }
+
+    boolean needsGrowth() {
+        return overflowed || loadFactor() > MAX_LOAD_FACTOR;
+    }
+
+    private boolean insert(int bucket, short fingerprint) {
+        int base = bucket * BUCKET_SIZE;
+        for (int i = base; i < base + BUCKET_SIZE; i++) {
+            if (slots[i] == 0) {
+                slots[i] = fingerprint;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean delete(int bucket, short fingerprint) {
+        int base = bucket * BUCKET_SIZE;
+        for (int i = base; i < base + BUCKET_SIZE; i++) {
+            if (slots[i] == fingerprint) {
+                slots[i] = 0;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean contains(int bucket, short fingerprint) {
+        int base = bucket * BUCKET_SIZE;
+        return slots[base] == fingerprint || slots[base + 1] == fingerprint
+                || slots[base + 2] == fingerprint || slots[base + 3] == fingerprint;
+    }
+
+    private int alternate(int bucket, short fingerprint) {
+        return (bucket ^ (int) mix(fingerprint)) & bucketMask;
+    }
+
+    // 0 은 빈 칸을 뜻하므로 사용하지 않음
+    private static short fingerprint(long hash) {
+        short fingerprint = (short) (hash >>> 48);
+        return fingerprint == 0 ? 1 : fingerprint;
+    }
+
+    private long nextRandom() {
+        kickRandom ^= kickRandom << 13;
+        kickRandom ^= kickRandom >>> 7;
+        kickRandom ^= kickRandom << 17;
+        return kickRandom & Long.MAX_VALUE;
+    }
+
+    // MurmurHash3 fmix64
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,103 @@
+package com.rookies3.myspringbootlab.cache;
+
+import com.rookies3.myspringbootlab.exception.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키의 동시 조회를 하나로 합칩니다. (single flight)
+ * - 처음 들어온 요청(leader)이 자기 스레드에서 loader 를 실행하고, 그동안 들어온 같은 키의 요청은 그 결과를 기다립니다.
+ * - loader 의 예외는 기다리던 요청에도 그대로 전달되고, timeout 안에 끝나지 않으면 기다리던 요청만 503 으로 끝납니다.
+ * - 진행 중인 키는 ConcurrentHashMap 에 CompletableFuture 로 보관하며, 이미 진행 중인 키는 락 없는 get 으로 찾습니다.
+ *   loader 가 끝나면 바로 제거되므로 결과를 보관하지는 않습니다. (캐시는 호출하는 쪽에서 처리)
+ * loader 안에서 같은 키로 다시 호출하면 자기 결과를 기다리게 되므로 호출하지 않아야 합니다.
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final long timeoutNanos;
+    private final Counter coalesced;
+    private final Counter timeouts;
+
+    SingleFlight(String name, boolean enabled, Duration timeout, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.timeoutNanos = timeout.toNanos();
+        this.coalesced = Counter.builder("book.single.flight.coalesced")
+                .tag("name", name)
+                .description("Lookups that waited for an identical in-flight lookup instead of loading")
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("book.single.flight.timeouts")
+                .tag("name", name)
+                .description("Waiting lookups that gave up before the in-flight lookup finished")
+                .register(meterRegistry);
+        Gauge.builder("book.single.flight.in.flight", inFlight, ConcurrentHashMap::size)
+                .tag("name", name)
+                .description("Keys currently being loaded")
+                .register(meterRegistry);
+    }
+
+    V execute(K key, Supplier<V> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        CompletableFuture<V> flight = inFlight.get(key);
+        if (flight == null) {
+            CompletableFuture<V> created = new CompletableFuture<>();
+            flight = inFlight.putIfAbsent(key, created);
+            if (flight == null) {
+                return load(key, created, loader);
+            }
+        }
+        coalesced.increment();
+        return await(flight);
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private V load(K key, CompletableFuture<V> flight, Supplier<V> loader) {
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private V await(CompletableFuture<V> flight) {
+        try {
+            return flight.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            // leader 가 던진 예외를 그대로 전달 (404 등)
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            throw new BusinessException("Timed out waiting for a concurrent lookup", HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Interrupted while waiting for a concurrent lookup", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+}
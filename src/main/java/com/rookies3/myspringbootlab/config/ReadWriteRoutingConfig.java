@@ -0,0 +1,77 @@
+package com.rookies3.myspringbootlab.config;
+
+import com.rookies3.myspringbootlab.datasource.ReadYourWritesFilter;
+import com.rookies3.myspringbootlab.datasource.ReplicaRoutingDataSource;
+import com.rookies3.myspringbootlab.property.BookDataSourceRoutingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 읽기/쓰기 분리 (book.datasource.routing.enabled=true 인 경우만)
+ * - primary  : spring.datasource.* (+ spring.datasource.hikari.*)
+ * - replicas : book.datasource.routing.replicas[n].*
+ * LazyConnectionDataSourceProxy 는 실제 커넥션을 첫 SQL 실행 시점에 가져오므로, 그 전에 트랜잭션이 커넥션에 설정한
+ * readOnly 여부를 보고 readOnly 이면 ReplicaRoutingDataSource, 아니면 primary 커넥션을 사용합니다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "book.datasource.routing", name = "enabled", havingValue = "true")
+public class ReadWriteRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaDataSource(HikariDataSource primaryDataSource,
+                                                      BookDataSourceRoutingProperties properties,
+                                                      ObjectProvider<MeterRegistry> meterRegistry) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (BookDataSourceRoutingProperties.Replica replica : properties.getReplicas()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + (replicas.size() + 1));
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername());
+            dataSource.setPassword(replica.getPassword());
+            if (replica.getDriverClassName() != null) {
+                dataSource.setDriverClassName(replica.getDriverClassName());
+            }
+            dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            meterRegistry.ifAvailable(registry -> dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(dataSource);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, properties.getReplicaLag());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(BookDataSourceRoutingProperties properties) {
+        return new ReadYourWritesFilter(properties.getStickyWindow());
+    }
+}
@@ -1,72 +1,288 @@
 package com.rookies3.myspringbootlab.controller;
 
 import com.rookies3.myspringbootlab.controller.dto.BookDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.rookies3.myspringbootlab.cache.BookJsonCache;
+import com.rookies3.myspringbootlab.cache.CachedJson;
+import com.rookies3.myspringbootlab.metrics.SqlBudget;
+import com.rookies3.myspringbootlab.popularity.BookPopularity;
+import com.rookies3.myspringbootlab.repository.projection.BookVersion;
+import com.rookies3.myspringbootlab.repository.projection.CatalogVersion;
+import com.rookies3.myspringbootlab.search.BookFacet;
+import com.rookies3.myspringbootlab.service.BookBulkService;
+import com.rookies3.myspringbootlab.service.BookPatchService;
 import com.rookies3.myspringbootlab.service.BookService;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/books")
 @RequiredArgsConstructor
 public class BookController {
 
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     private final BookService bookService;
+    private final BookBulkService bookBulkService;
+    private final BookPatchService bookPatchService;
+    private final BookJsonCache bookJsonCache;
+    private final BookPopularity bookPopularity;
 
+    // 목록/페이지는 카탈로그 버전을 ETag 로 사용하고, 직렬화된 응답을 쓰기가 있을 때까지 재사용
     @GetMapping
-    public ResponseEntity<List<BookDTO.Response>> getAllBooks() {
-        List<BookDTO.Response> books = bookService.getAllBooks();
-        return ResponseEntity.ok(books);
+    public ResponseEntity<byte[]> getAllBooks(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return catalogResponse("all", bookService::getAllBooks, ifNoneMatch, acceptEncoding);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<byte[]> getBookPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + BookService.DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        String key = "page:" + cursor + ":" + size + ":" + sort + ":" + direction;
+        return catalogResponse(key, () -> bookService.getBookPage(cursor, size, sort, direction),
+                ifNoneMatch, acceptEncoding);
+    }
+
+    // 전체 카탈로그를 한 줄에 도서 하나씩 스트리밍 (nightly export 용)
+    @GetMapping(value = "/export.ndjson", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportBooks(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"books.ndjson\"");
+        bookService.exportBooks(response.getOutputStream());
+    }
+
+    // 조건 조합 조회 : title, author, minPrice, maxPrice, publishedFrom, publishedTo(yyyy-MM-dd), language, publisher
+    @GetMapping("/query")
+    public ResponseEntity<byte[]> queryBooks(
+            @ModelAttribute BookDTO.QueryFilter filter,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "" + BookService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        String key = "query:" + filter + ":" + sort + ":" + direction + ":" + limit;
+        CachedJson books = bookJsonCache.getList(key,
+                () -> bookJsonCache.render(bookService.queryBooks(filter, sort, direction, limit), null, null, null));
+        return CachedJsonResponses.of(books, null, acceptEncoding);
+    }
+
+    // 출판사/언어/가격 구간/출간 연도별 도서 수 (q 는 /search 와 같은 조건, 나머지는 선택한 패싯 값)
+    @GetMapping("/facets")
+    public ResponseEntity<byte[]> getFacets(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String publisher,
+            @RequestParam(required = false) String language,
+            @RequestParam(required = false) String price,
+            @RequestParam(required = false) String year,
+            @RequestParam(defaultValue = "" + BookService.DEFAULT_FACET_SIZE) int size,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Map<BookFacet, String> selected = new EnumMap<>(BookFacet.class);
+        putIfPresent(selected, BookFacet.PUBLISHER, publisher);
+        putIfPresent(selected, BookFacet.LANGUAGE, language);
+        putIfPresent(selected, BookFacet.PRICE, price);
+        putIfPresent(selected, BookFacet.YEAR, year);
+        CachedJson facets = bookJsonCache.getList("facets:" + size + ":" + selected + ":" + q,
+                () -> bookJsonCache.render(bookService.getFacets(q, selected, size), null, null, null));
+        return CachedJsonResponses.of(facets, null, acceptEncoding);
     }
 
+    // 조회 기간(1h, 24h) 동안 많이 조회된 도서 (단건 조회 요청 수 기준)
+    @GetMapping("/popular")
+    public ResponseEntity<BookDTO.PopularResponse> getPopularBooks(
+            @RequestParam(defaultValue = "1h") String window,
+            @RequestParam(defaultValue = "" + BookService.DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(bookService.getPopularBooks(window, limit));
+    }
+
+    // 캐시에 없을 때 If-None-Match 가 있으면 version 만 조회해서 같으면 304 (본문/상세정보를 읽거나 직렬화하지 않음)
     @GetMapping("/{id}")
-    public ResponseEntity<BookDTO.Response> getBookById(@PathVariable Long id) {
-        BookDTO.Response book = bookService.getBookById(id);
-        return ResponseEntity.ok(book);
+    public ResponseEntity<byte[]> getBookById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (ifNoneMatch != null && bookJsonCache.findById(id) == null) {
+            Optional<BookVersion> version = bookService.getBookVersion(id);
+            if (version.isPresent() && ETags.matches(ifNoneMatch, ETags.of(version.get().version()))) {
+                recordView(id);
+                return notModified(ETags.of(version.get().version()), version.get().updatedAt());
+            }
+        }
+        CachedJson book = bookJsonCache.getById(id, () -> renderBook(bookService.getBookById(id)));
+        recordView(book.bookId());
+        return CachedJsonResponses.of(book, ifNoneMatch, acceptEncoding);
     }
 
     @GetMapping("/isbn/{isbn}")
-    public ResponseEntity<BookDTO.Response> getBookByIsbn(@PathVariable String isbn) {
-        BookDTO.Response book = bookService.getBookByIsbn(isbn);
-        return ResponseEntity.ok(book);
+    public ResponseEntity<byte[]> getBookByIsbn(
+            @PathVariable String isbn,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (ifNoneMatch != null && bookJsonCache.findByIsbn(isbn) == null) {
+            Optional<BookVersion> version = bookService.getBookVersionByIsbn(isbn);
+            if (version.isPresent() && ETags.matches(ifNoneMatch, ETags.of(version.get().version()))) {
+                recordView(version.get().id());
+                return notModified(ETags.of(version.get().version()), version.get().updatedAt());
+            }
+        }
+        CachedJson book = bookJsonCache.getByIsbn(isbn, () -> renderBook(bookService.getBookByIsbn(isbn)));
+        recordView(book.bookId());
+        return CachedJsonResponses.of(book, ifNoneMatch, acceptEncoding);
     }
 
     @GetMapping("/search/author")
-    public ResponseEntity<List<BookDTO.Response>> getBooksByAuthor(@RequestParam String author) {
-        List<BookDTO.Response> books = bookService.getBooksByAuthor(author);
-        return ResponseEntity.ok(books);
+    public ResponseEntity<byte[]> getBooksByAuthor(
+            @RequestParam String author,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CachedJson books = bookJsonCache.getList("author:" + author,
+                () -> bookJsonCache.render(bookService.getBooksByAuthor(author), null, null, null));
+        return CachedJsonResponses.of(books, null, acceptEncoding);
     }
 
     @GetMapping("/search/title")
-    public ResponseEntity<List<BookDTO.Response>> getBooksByTitle(@RequestParam String title) {
-        List<BookDTO.Response> books = bookService.getBooksByTitle(title);
-        return ResponseEntity.ok(books);
+    public ResponseEntity<byte[]> getBooksByTitle(
+            @RequestParam String title,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CachedJson books = bookJsonCache.getList("title:" + title,
+                () -> bookJsonCache.render(bookService.getBooksByTitle(title), null, null, null));
+        return CachedJsonResponses.of(books, null, acceptEncoding);
+    }
+
+    // 제목/저자 통합 검색 (관련도 순)
+    @GetMapping("/search")
+    public ResponseEntity<byte[]> searchBooks(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "" + BookService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CachedJson books = bookJsonCache.getList("search:" + limit + ":" + q,
+                () -> bookJsonCache.render(bookService.searchBooks(q, limit), null, null, null));
+        return CachedJsonResponses.of(books, null, acceptEncoding);
     }
 
     @PostMapping
     public ResponseEntity<BookDTO.Response> createBook(@Valid @RequestBody BookDTO.Request request) {
         BookDTO.Response createdBook = bookService.createBook(request);
-        return new ResponseEntity<>(createdBook, HttpStatus.CREATED);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(createdBook.getVersion())).body(createdBook);
+    }
+
+    // 항목별 검증 결과를 돌려주므로 요청 전체에 @Valid 를 적용하지 않습니다.
+    // 배치 INSERT 와 시퀀스 조회가 요청 크기에 비례하므로 문장 수 예산을 적용하지 않습니다.
+    @PostMapping("/_bulk")
+    @SqlBudget(SqlBudget.UNLIMITED)
+    public ResponseEntity<BookDTO.BulkResponse> createBooks(@RequestBody List<BookDTO.Request> requests) {
+        BookDTO.BulkResponse response = bookBulkService.createBooks(requests);
+        return ResponseEntity.ok(response);
+    }
+
+    // 여러 도서를 id/ISBN 목록으로 한 번에 조회 (요청 순서 유지, 없는 항목은 found=false)
+    @PostMapping("/_mget")
+    public ResponseEntity<BookDTO.MultiGetResponse> getBooks(@RequestBody BookDTO.MultiGetRequest request) {
+        BookDTO.MultiGetResponse response = bookService.getBooks(request);
+        return ResponseEntity.ok(response);
     }
 
+    // If-Match 로 ETag 를 보내면 그 사이 다른 수정이 있었던 경우 412 (낙관적 잠금)
     @PutMapping("/{id}")
     public ResponseEntity<BookDTO.Response> updateBook(
             @PathVariable Long id,
-            @Valid @RequestBody BookDTO.Request request) {
-        BookDTO.Response updatedBook = bookService.updateBook(id, request);
-        return ResponseEntity.ok(updatedBook);
+            @Valid @RequestBody BookDTO.Request request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        BookDTO.Response updatedBook = bookService.updateBook(id, request, ETags.expectedVersion(ifMatch));
+        return ok(ETags.of(updatedBook.getVersion()), updatedBook.getUpdatedAt()).body(updatedBook);
+    }
+
+    // JSON Merge Patch : 보낸 필드만 수정 (Prefer: return=minimal 이면 204 응답, 가능한 경우 SELECT 없이 UPDATE)
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<BookDTO.Response> patchBook(
+            @PathVariable Long id,
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = "Prefer", required = false) String prefer,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = ETags.expectedVersion(ifMatch);
+        if ("return=minimal".equalsIgnoreCase(prefer)) {
+            bookPatchService.patchBookWithoutRead(id, patch, expectedVersion);
+            return ResponseEntity.noContent().build();
+        }
+        BookDTO.Response patchedBook = bookPatchService.patchBook(id, patch, expectedVersion);
+        return ok(ETags.of(patchedBook.getVersion()), patchedBook.getUpdatedAt()).body(patchedBook);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteBook(@PathVariable Long id) {
-        bookService.deleteBook(id);
+    public ResponseEntity<Void> deleteBook(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        bookService.deleteBook(id, ETags.expectedVersion(ifMatch));
         return ResponseEntity.noContent().build();
     }
+
+    // 조회수는 응답을 보낼 때(304 포함) 메모리에서만 증가 (BookPopularity)
+    // 워밍업(BookWarmup)처럼 HTTP 요청 없이 직접 호출한 경우는 세지 않음
+    private void recordView(Long id) {
+        if (RequestContextHolder.getRequestAttributes() != null) {
+            bookPopularity.record(id);
+        }
+    }
+
+    /**
+     * 카탈로그 버전을 ETag 로 쓰는 목록 응답
+     * 캐시에 없으면 (목록보다 먼저) 카탈로그 버전을 조회해서 If-None-Match 와 같으면 목록을 읽지 않고 304 를 보냅니다.
+     */
+    private ResponseEntity<byte[]> catalogResponse(String key, Supplier<?> loader,
+                                                   String ifNoneMatch, String acceptEncoding) {
+        CachedJson cached = bookJsonCache.findList(key);
+        if (cached == null) {
+            long stamp = bookJsonCache.stamp();
+            CatalogVersion catalog = bookService.getCatalogVersion();
+            String eTag = ETags.of(catalog);
+            if (ETags.matches(ifNoneMatch, eTag)) {
+                return notModified(eTag, catalog.lastModified());
+            }
+            cached = bookJsonCache.putList(key, stamp,
+                    bookJsonCache.render(loader.get(), null, eTag, catalog.lastModified()));
+        }
+        return CachedJsonResponses.of(cached, ifNoneMatch, acceptEncoding);
+    }
+
+    private static void putIfPresent(Map<BookFacet, String> selected, BookFacet facet, String value) {
+        if (value != null && !value.isBlank()) {
+            selected.put(facet, value);
+        }
+    }
+
+    private CachedJson renderBook(BookDTO.Response book) {
+        return bookJsonCache.render(book, book.getId(), ETags.of(book.getVersion()), book.getUpdatedAt());
+    }
+
+    private static ResponseEntity.BodyBuilder ok(String eTag, Instant lastModified) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(eTag);
+        return lastModified != null ? builder.lastModified(lastModified) : builder;
+    }
+
+    private static <T> ResponseEntity<T> notModified(String eTag, Instant lastModified) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag);
+        return lastModified != null ? builder.lastModified(lastModified).build() : builder.build();
+    }
 }
\ No newline at end of file
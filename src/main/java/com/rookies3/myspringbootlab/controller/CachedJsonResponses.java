@@ -0,0 +1,68 @@
+package com.rookies3.myspringbootlab.controller;
+
+import com.rookies3.myspringbootlab.cache.CachedJson;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * 직렬화된 JSON 을 그대로 응답으로 보냅니다.
+ * byte[] 본문은 ByteArrayHttpMessageConverter 가 응답 스트림에 바로 복사하므로 Jackson 을 거치지 않습니다.
+ */
+final class CachedJsonResponses {
+
+    private static final String GZIP = "gzip";
+
+    private CachedJsonResponses() {
+    }
+
+    static ResponseEntity<byte[]> of(CachedJson cached, String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = cached.gzip() != null && acceptsGzip(acceptEncoding);
+        // 인코딩이 다르면 다른 표현이므로 강한 ETag 도 구분 (비교할 때는 같은 버전으로 취급)
+        String eTag = cached.eTag() != null && gzip ? ETags.gzip(cached.eTag()) : cached.eTag();
+
+        if (eTag != null && ETags.matches(ifNoneMatch, eTag)) {
+            ResponseEntity.BodyBuilder builder = headers(ResponseEntity.status(HttpStatus.NOT_MODIFIED), cached, eTag);
+            return builder.build();
+        }
+        ResponseEntity.BodyBuilder builder = headers(ResponseEntity.ok(), cached, eTag)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, GZIP).body(cached.gzip());
+        }
+        return builder.body(cached.json());
+    }
+
+    private static ResponseEntity.BodyBuilder headers(ResponseEntity.BodyBuilder builder, CachedJson cached, String eTag) {
+        if (eTag != null) {
+            builder.eTag(eTag);
+        }
+        if (cached.lastModified() != null) {
+            builder.lastModified(cached.lastModified());
+        }
+        if (cached.gzip() != null) {
+            builder.varyBy(HttpHeaders.ACCEPT_ENCODING);
+        }
+        return builder;
+    }
+
+    // Accept-Encoding: gzip, deflate / gzip;q=0.8 / * 등 (q=0 은 거부)
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.trim().split(";");
+            String coding = parts[0].trim();
+            if (!coding.equalsIgnoreCase(GZIP) && !coding.equals("*")) {
+                continue;
+            }
+            boolean rejected = parts.length > 1 && parts[1].trim().replace(" ", "").matches("q=0(\\.0{0,3})?");
+            if (!rejected) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,73 @@
+package com.rookies3.myspringbootlab.controller;
+
+import com.rookies3.myspringbootlab.exception.BusinessException;
+import com.rookies3.myspringbootlab.repository.projection.CatalogVersion;
+import org.springframework.http.HttpStatus;
+
+/**
+ * 도서 ETag 생성/비교
+ * 도서는 Book.version 을, 목록은 카탈로그 버전을 강한(strong) ETag 로 사용합니다.
+ */
+final class ETags {
+
+    private static final String GZIP_SUFFIX = "-gzip";
+
+    private ETags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    static String of(CatalogVersion catalog) {
+        return "\"c" + catalog.version() + "\"";
+    }
+
+    // gzip 으로 보낸 응답의 ETag : "5" -> "5-gzip"
+    static String gzip(String eTag) {
+        return eTag.substring(0, eTag.length() - 1) + GZIP_SUFFIX + "\"";
+    }
+
+    /**
+     * If-None-Match 비교 (약한 비교 : W/ 접두어와 -gzip 접미어는 무시하고 여러 값 중 하나라도 같으면 일치)
+     */
+    static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String expected = identity(eTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || identity(tag.startsWith("W/") ? tag.substring(2) : tag).equals(expected)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * If-Match 에서 기대하는 도서 버전 (헤더가 없거나 * 이면 null)
+     * 강한 비교만 허용하므로 약한 ETag 나 알 수 없는 값은 어떤 버전과도 일치하지 않아 412 입니다.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = identity(ifMatch.trim());
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // 아래에서 412
+            }
+        }
+        throw new BusinessException("If-Match does not match the current version: " + ifMatch,
+                HttpStatus.PRECONDITION_FAILED);
+    }
+
+    private static String identity(String eTag) {
+        return eTag.endsWith(GZIP_SUFFIX + "\"")
+                ? eTag.substring(0, eTag.length() - GZIP_SUFFIX.length() - 1) + "\""
+                : eTag;
+    }
+}
@@ -1,11 +1,19 @@
 package com.rookies3.myspringbootlab.controller.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.rookies3.myspringbootlab.entity.Book;
+import com.rookies3.myspringbootlab.entity.BookDetail;
+import com.rookies3.myspringbootlab.repository.projection.BookRow;
+import com.rookies3.myspringbootlab.validation.ValidIsbn;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.springframework.format.annotation.DateTimeFormat;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 
 public class BookDTO {
 
@@ -20,9 +28,9 @@ public class BookDTO {
         @NotBlank(message = "Author name is required")
         private String author;
 
+        // ISBN-10/13 체크섬까지 확인 (정규식 대신 한 번 순회하는 IsbnValidator)
         @NotBlank(message = "ISBN is required")
-        @Pattern(regexp = "^(?=(?:\\D*\\d){10}(?:(?:\\D*\\d){3})?$)[\\d-]+$",
-                message = "ISBN must be valid (10 or 13 digits, with or without hyphens)")
+        @ValidIsbn
         private String isbn;
 
         @PositiveOrZero(message = "Price must be positive or zero")
@@ -33,6 +41,58 @@ public class BookDTO {
 
         @Valid
         private BookDetailDTO detailRequest;
+
+        public Book toEntity() {
+            Book book = Book.builder()
+                    .title(title)
+                    .author(author)
+                    .isbn(isbn)
+                    .price(price)
+                    .publishDate(publishDate)
+                    .build();
+
+            if (detailRequest != null) {
+                BookDetail detail = detailRequest.toEntity();
+                // 양방향 연관관계 설정
+                detail.setBook(book);
+                book.setBookDetail(detail);
+            }
+            return book;
+        }
+
+        public static Request fromEntity(Book book) {
+            return Request.builder()
+                    .title(book.getTitle())
+                    .author(book.getAuthor())
+                    .isbn(book.getIsbn())
+                    .price(book.getPrice())
+                    .publishDate(book.getPublishDate())
+                    .detailRequest(book.getBookDetail() != null ? BookDetailDTO.fromEntity(book.getBookDetail()) : null)
+                    .build();
+        }
+
+        /**
+         * 요청 값을 영속 상태의 엔티티에 반영합니다. (detailRequest 가 null 이면 상세정보는 그대로 둡니다)
+         * 같은 값을 다시 set 해도 변경감지 대상이 아니므로 실제로 바뀐 컬럼만 UPDATE 됩니다.
+         */
+        public void applyTo(Book book) {
+            book.setTitle(title);
+            book.setAuthor(author);
+            book.setIsbn(isbn);
+            book.setPrice(price);
+            book.setPublishDate(publishDate);
+
+            if (detailRequest != null) {
+                BookDetail detail = book.getBookDetail();
+                if (detail == null) {
+                    detail = detailRequest.toEntity();
+                    detail.setBook(book);
+                    book.setBookDetail(detail);
+                } else {
+                    detailRequest.applyTo(detail);
+                }
+            }
+        }
     }
 
     @Data
@@ -46,6 +106,37 @@ public class BookDTO {
         private String publisher;
         private String coverImageUrl;
         private String edition;
+
+        public BookDetail toEntity() {
+            return BookDetail.builder()
+                    .description(description)
+                    .language(language)
+                    .pageCount(pageCount)
+                    .publisher(publisher)
+                    .coverImageUrl(coverImageUrl)
+                    .edition(edition)
+                    .build();
+        }
+
+        public static BookDetailDTO fromEntity(BookDetail detail) {
+            return BookDetailDTO.builder()
+                    .description(detail.getDescription())
+                    .language(detail.getLanguage())
+                    .pageCount(detail.getPageCount())
+                    .publisher(detail.getPublisher())
+                    .coverImageUrl(detail.getCoverImageUrl())
+                    .edition(detail.getEdition())
+                    .build();
+        }
+
+        public void applyTo(BookDetail detail) {
+            detail.setDescription(description);
+            detail.setLanguage(language);
+            detail.setPageCount(pageCount);
+            detail.setPublisher(publisher);
+            detail.setCoverImageUrl(coverImageUrl);
+            detail.setEdition(edition);
+        }
     }
 
     @Data
@@ -60,6 +151,11 @@ public class BookDTO {
         private Integer price;
         private LocalDate publishDate;
         private BookDetailResponse detail;
+        // 본문 대신 ETag / Last-Modified 헤더로 전달
+        @JsonIgnore
+        private Long version;
+        @JsonIgnore
+        private Instant updatedAt;
 
         public static Response fromEntity(Book book) {
             BookDetailResponse detailResponse = book.getBookDetail() != null
@@ -82,6 +178,34 @@ public class BookDTO {
                     .price(book.getPrice())
                     .publishDate(book.getPublishDate())
                     .detail(detailResponse)
+                    .version(book.getVersion())
+                    .updatedAt(book.getUpdatedAt())
+                    .build();
+        }
+
+        public static Response fromRow(BookRow row) {
+            BookDetailResponse detailResponse = row.detailId() != null
+                    ? BookDetailResponse.builder()
+                    .id(row.detailId())
+                    .description(row.description())
+                    .language(row.language())
+                    .pageCount(row.pageCount())
+                    .publisher(row.publisher())
+                    .coverImageUrl(row.coverImageUrl())
+                    .edition(row.edition())
+                    .build()
+                    : null;
+
+            return Response.builder()
+                    .id(row.id())
+                    .title(row.title())
+                    .author(row.author())
+                    .isbn(row.isbn())
+                    .price(row.price())
+                    .publishDate(row.publishDate())
+                    .detail(detailResponse)
+                    .version(row.version())
+                    .updatedAt(row.updatedAt())
                     .build();
         }
     }
@@ -99,4 +223,136 @@ public class BookDTO {
         private String coverImageUrl;
         private String edition;
     }
-}
\ No newline at end of file
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PageResponse {
+        private List<Response> content;
+        private int size;
+        private boolean hasNext;
+        // 다음 페이지 조회 시 cursor 파라미터로 그대로 전달하는 불투명(opaque) 값
+        private String next;
+    }
+
+    public enum BulkStatus {
+        CREATED, INVALID, DUPLICATE
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class BulkItemResult {
+        // 요청 배열에서의 위치 (0부터 시작)
+        private int index;
+        private BulkStatus status;
+        private Long id;
+        private String isbn;
+        private String message;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class BulkResponse {
+        private int requested;
+        private int created;
+        private int failed;
+        private List<BulkItemResult> results;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class MultiGetRequest {
+        private List<Long> ids;
+        private List<String> isbns;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class MultiGetItem {
+        // 요청한 키 (id 또는 isbn 중 하나)
+        private Long id;
+        private String isbn;
+        private boolean found;
+        private Response book;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class MultiGetResponse {
+        private int requested;
+        private int found;
+        // ids 를 요청 순서대로, 이어서 isbns 를 요청 순서대로
+        private List<MultiGetItem> items;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PopularItem {
+        // 1부터 시작
+        private int rank;
+        private long views;
+        private Response book;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PopularResponse {
+        private String window;
+        // 조회수가 많은 순
+        private List<PopularItem> items;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class FacetCount {
+        private String value;
+        private int count;
+    }
+
+    // GET /api/books/facets 응답
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class FacetResponse {
+        // 검색어와 선택한 값을 모두 만족하는 도서 수
+        private int total;
+        // 패싯(publisher, language, price, year) -> 값별 도서 수 (각 패싯은 자기 패싯을 제외한 선택 값으로만 좁힘)
+        private Map<String, List<FacetCount>> facets;
+    }
+
+    // GET /api/books/query 조건 (주어진 값만 AND 로 조합, 범위는 양 끝 포함)
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class QueryFilter {
+        private String title;
+        private String author;
+        private Integer minPrice;
+        private Integer maxPrice;
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        private LocalDate publishedFrom;
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        private LocalDate publishedTo;
+        private String language;
+        private String publisher;
+    }
+}
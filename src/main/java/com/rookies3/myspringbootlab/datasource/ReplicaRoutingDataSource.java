@@ -0,0 +1,118 @@
+package com.rookies3.myspringbootlab.datasource;
+
+import com.rookies3.myspringbootlab.event.BookChangedEvent;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * readOnly 커넥션을 replica 풀들에 돌아가며(round-robin) 나눠 주는 DataSource
+ * LazyConnectionDataSourceProxy 의 readOnlyDataSource 로 사용하므로 @Transactional(readOnly = true) 트랜잭션만 여기로 옵니다.
+ * 다음 경우에는 replica 대신 primary 를 사용합니다.
+ * - 현재 스레드가 primary 에 고정(pin)된 경우 (방금 쓰기를 한 클라이언트의 요청, 메모리 인덱스/필터 구축)
+ * - 이 인스턴스에서 도서 쓰기가 커밋된 뒤 replicaLag 가 지나기 전 (모든 클라이언트)
+ *   쓰기 이후 다른 클라이언트의 캐시 miss 를 지연된 replica 로 채우면, 오래된 값이 새 generation 으로 저장되어
+ *   복제 지연이 아니라 TTL 이나 다음 쓰기까지 남기 때문입니다. (JSON/응답 캐시, Hibernate 2차 캐시 모두 해당)
+ * replica 가 없으면 항상 primary 를 사용합니다.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final HikariDataSource primary;
+    private final List<HikariDataSource> replicas;
+    private final long replicaLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    // 이 시각(epoch millis)까지는 모든 readOnly 커넥션을 primary 에서 가져옴
+    private volatile long primaryUntil;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, Duration replicaLag) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.replicaLagMillis = replicaLag.toMillis();
+    }
+
+    /**
+     * 현재 스레드의 readOnly 트랜잭션도 primary 를 사용하도록 고정 (ReadYourWritesFilter 가 요청 단위로 사용)
+     */
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get() != null;
+    }
+
+    /**
+     * action 안의 readOnly 트랜잭션을 primary 에서 실행 (이미 고정된 경우 그대로 실행)
+     * 커넥션은 첫 SQL 에서 가져오므로 readOnly 트랜잭션 안에서 호출해도 됩니다.
+     */
+    public static <T> T callOnPrimary(Supplier<T> action) {
+        if (isPinnedToPrimary()) {
+            return action.get();
+        }
+        pinToPrimary();
+        try {
+            return action.get();
+        } finally {
+            unpin();
+        }
+    }
+
+    public static void runOnPrimary(Runnable action) {
+        callOnPrimary(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * 도서 쓰기가 커밋되기 직전에 replicaLag 동안 모든 조회를 primary 로 보냄
+     * (커밋 이후 캐시 무효화보다 먼저 적용되어야 하므로 BEFORE_COMMIT)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onBookChanged(BookChangedEvent event) {
+        primaryUntil = System.currentTimeMillis() + replicaLagMillis;
+    }
+
+    /**
+     * 최근 쓰기의 복제 지연 구간이라 replica 를 사용하지 않는 중이면 true
+     */
+    public boolean isWithinReplicaLag() {
+        return System.currentTimeMillis() < primaryUntil;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return select().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return select().getConnection(username, password);
+    }
+
+    private HikariDataSource select() {
+        if (replicas.isEmpty() || isPinnedToPrimary() || isWithinReplicaLag()) {
+            return primary;
+        }
+        return replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+}
@@ -1,13 +1,31 @@
 package com.rookies3.myspringbootlab.entity;
 
+import com.rookies3.myspringbootlab.validation.Isbn;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 
+// 변경된 컬럼만 UPDATE 문에 포함 (PATCH 등 부분 수정 시 쓰기량 감소)
+// 2차 캐시 : id -> books, ISBN(isbn13) -> books-isbn region (application.conf)
+// 가격/출간일 인덱스는 범위 조건(GET /query)과 정렬/keyset 페이지(정렬키, book_id)에 함께 사용
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_updated_at", columnList = "updated_at"),
+        @Index(name = "uk_books_isbn13", columnList = "isbn13", unique = true),
+        @Index(name = "idx_books_price_id", columnList = "price, book_id"),
+        @Index(name = "idx_books_publish_date_id", columnList = "publish_date, book_id")})
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "books")
+@NaturalIdCache(region = "books-isbn")
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -15,8 +33,11 @@ import java.time.LocalDate;
 @Setter
 public class Book {
 
+    // IDENTITY 는 insert 마다 생성된 키를 받아와야 해서 JDBC batch insert 가 비활성화됩니다.
+    // 시퀀스에서 allocationSize 만큼 미리 할당받아(pooled) batch_size 단위로 insert 합니다.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "books_seq", allocationSize = 50)
     @Column(name = "book_id")
     private Long id;
 
@@ -26,15 +47,66 @@ public class Book {
     @Column(nullable = false)
     private String author;
 
-    @Column(unique = true, nullable = false)
+    // 요청한 형식 그대로 저장 (하이픈 포함 여부 등), 중복 확인과 조회는 isbn13 으로 합니다.
+    @Column(nullable = false)
     private String isbn;
 
+    // 정규화된 ISBN-13 (Isbn.normalize) : setIsbn / persist 시 isbn 에서 계산
+    // PUT/PATCH 로 ISBN 을 바꿀 수 있으므로 mutable
+    @NaturalId(mutable = true)
+    @Column(name = "isbn13", nullable = false)
+    private Long isbn13;
+
     private Integer price;
 
     private LocalDate publishDate;
 
+    // ETag / If-Match 용 낙관적 잠금 버전 : 상세정보만 바뀐 경우에도 touch() 로 함께 올라갑니다.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Last-Modified 값 (DB 컬럼 정밀도에 맞춰 마이크로초 단위)
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    // bookDetail 을 null 로 바꾸면 book_details 행도 삭제됩니다. (PATCH 의 "detailRequest": null)
     @OneToOne(mappedBy = "book",
             cascade = CascadeType.ALL,
+            orphanRemoval = true,
             fetch = FetchType.LAZY)
     private BookDetail bookDetail;
-}
\ No newline at end of file
+
+    public void setIsbn(String isbn) {
+        this.isbn = isbn;
+        this.isbn13 = isbn13(isbn);
+    }
+
+    private static Long isbn13(String isbn) {
+        long isbn13 = Isbn.normalize(isbn);
+        if (isbn13 == Isbn.INVALID) {
+            throw new IllegalArgumentException("Not an ISBN-10/13: " + isbn);
+        }
+        return isbn13;
+    }
+
+    /**
+     * 도서 또는 상세정보가 바뀌었음을 기록합니다.
+     * updatedAt 이 바뀌므로 Book 이 dirty 상태가 되어 version 도 함께 증가합니다.
+     */
+    public void touch() {
+        this.updatedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    @PrePersist
+    void onCreate() {
+        if (updatedAt == null) {
+            touch();
+        }
+        // builder 로 만든 경우
+        if (isbn13 == null) {
+            isbn13 = isbn13(isbn);
+        }
+    }
+}
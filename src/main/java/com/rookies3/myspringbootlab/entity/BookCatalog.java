@@ -0,0 +1,28 @@
+package com.rookies3.myspringbootlab.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// 목록/페이지 ETag 용 카탈로그 버전 (한 행) : 도서를 쓰는 트랜잭션이 커밋 직전에 version 을 올립니다. (BookCatalogService)
+// 요청마다 books 전체를 집계하지 않고 이 행만 읽습니다.
+@Entity
+@Table(name = "book_catalog")
+@NoArgsConstructor
+@Getter
+public class BookCatalog {
+
+    public static final int ID = 1;
+
+    @Id
+    @Column(name = "catalog_id")
+    private Integer id;
+
+    @Column(nullable = false)
+    private long version;
+
+    // 마지막으로 version 을 올린 시각 (Last-Modified 값)
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
@@ -2,9 +2,19 @@ package com.rookies3.myspringbootlab.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
+// description(TEXT) 가 바뀌지 않았다면 UPDATE 문에 포함하지 않도록 변경된 컬럼만 갱신
+// 언어(+출판사), 출판사 조건(GET /query) 인덱스 : book_id 는 unique 제약으로 인덱스가 있음
 @Entity
-@Table(name = "book_details")
+@Table(name = "book_details", indexes = {
+        @Index(name = "idx_book_details_language_publisher", columnList = "language, publisher"),
+        @Index(name = "idx_book_details_publisher", columnList = "publisher")})
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book-details")
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -13,7 +23,8 @@ import lombok.*;
 public class BookDetail {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_detail_seq")
+    @SequenceGenerator(name = "book_detail_seq", sequenceName = "book_details_seq", allocationSize = 50)
     @Column(name = "book_detail_id")
     private Long id;
     
@@ -34,6 +45,11 @@ public class BookDetail {
     
     @Column(name = "edition")
     private String edition;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
     
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "book_id", unique = true)
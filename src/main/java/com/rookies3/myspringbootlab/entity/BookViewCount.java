@@ -0,0 +1,37 @@
+package com.rookies3.myspringbootlab.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+// 도서별 조회수 (bucket_start 부터 bucket-size 동안) : 인스턴스마다 모은 증가분을 UPSERT 로 더합니다. (BookPopularity)
+// 조회 기간(1h/24h) 합계와 오래된 bucket 삭제는 bucket_start 범위로 조회
+@Entity
+@Table(name = "book_view_counts", indexes = @Index(name = "idx_book_view_counts_bucket", columnList = "bucket_start"))
+@IdClass(BookViewCount.Key.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+public class BookViewCount {
+
+    @Id
+    @Column(name = "book_id")
+    private Long bookId;
+
+    // bucket 시작 시각 (epoch 초)
+    @Id
+    @Column(name = "bucket_start")
+    private Long bucketStart;
+
+    @Column(nullable = false)
+    private long views;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long bookId;
+        private Long bucketStart;
+    }
+}
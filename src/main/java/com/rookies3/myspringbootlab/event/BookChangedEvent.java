@@ -0,0 +1,35 @@
+package com.rookies3.myspringbootlab.event;
+
+import com.rookies3.myspringbootlab.entity.Book;
+
+/**
+ * 도서 등록/수정/삭제 이벤트
+ * BookService 가 발행하며 인덱스/캐시 등은 @TransactionalEventListener 로 커밋 이후에만 반영합니다.
+ *
+ * @param before 변경 전 값 (CREATED 인 경우 null)
+ * @param after  변경 후 값 (DELETED 인 경우 null)
+ */
+public record BookChangedEvent(Type type, Long bookId, BookSnapshot before, BookSnapshot after) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED,
+        // 스냅샷에 포함되지 않는 상세정보 컬럼만 SELECT 없이 수정된 경우 (before/after 모두 null)
+        DETAIL_UPDATED
+    }
+
+    public static BookChangedEvent created(Book book) {
+        return new BookChangedEvent(Type.CREATED, book.getId(), null, BookSnapshot.of(book));
+    }
+
+    public static BookChangedEvent updated(BookSnapshot before, Book book) {
+        return new BookChangedEvent(Type.UPDATED, book.getId(), before, BookSnapshot.of(book));
+    }
+
+    public static BookChangedEvent detailUpdated(Long bookId) {
+        return new BookChangedEvent(Type.DETAIL_UPDATED, bookId, null, null);
+    }
+
+    public static BookChangedEvent deleted(BookSnapshot before) {
+        return new BookChangedEvent(Type.DELETED, before.id(), before, null);
+    }
+}
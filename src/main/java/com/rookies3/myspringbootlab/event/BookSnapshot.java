@@ -0,0 +1,22 @@
+package com.rookies3.myspringbootlab.event;
+
+import com.rookies3.myspringbootlab.entity.Book;
+import com.rookies3.myspringbootlab.entity.BookDetail;
+
+import java.time.LocalDate;
+
+/**
+ * 변경 이벤트에 담기는 도서의 불변 사본
+ * 트랜잭션이 끝난 뒤에 처리되는 리스너가 영속성 컨텍스트(지연 로딩)에 의존하지 않도록 값만 복사합니다.
+ */
+public record BookSnapshot(Long id, String title, String author, String isbn,
+                           Integer price, LocalDate publishDate, String language, String publisher) {
+
+    public static BookSnapshot of(Book book) {
+        BookDetail detail = book.getBookDetail();
+        return new BookSnapshot(book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn(),
+                book.getPrice(), book.getPublishDate(),
+                detail != null ? detail.getLanguage() : null,
+                detail != null ? detail.getPublisher() : null);
+    }
+}
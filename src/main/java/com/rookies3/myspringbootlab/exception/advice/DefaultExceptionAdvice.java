@@ -5,6 +5,10 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +20,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 @RestControllerAdvice
@@ -56,6 +61,37 @@ public class DefaultExceptionAdvice {
         return new ResponseEntity<>(result, HttpStatus.BAD_REQUEST);
     }
 
+    //동시에 같은 도서를 수정하여 @Version 확인에 실패한 경우 (나중에 커밋한 쪽)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    protected ResponseEntity<ErrorObject> handleException(OptimisticLockingFailureException e) {
+        ErrorObject errorObject = new ErrorObject();
+        errorObject.setStatusCode(HttpStatus.CONFLICT.value());
+        errorObject.setMessage("The book was modified concurrently, reload and retry");
+
+        log.error(e.getMessage(), e);
+
+        return new ResponseEntity<ErrorObject>(errorObject, HttpStatus.CONFLICT);
+    }
+
+    //중복 확인 이후 다른 요청(인스턴스)이 같은 ISBN 을 먼저 저장한 경우 (uk_books_isbn13 위반)
+    //bulk 처럼 EntityManager.flush 에서 발생하면 변환되지 않은 Hibernate 예외로 전달됩니다.
+    @ExceptionHandler({DataIntegrityViolationException.class, ConstraintViolationException.class})
+    public ResponseEntity<ErrorObject> handleIntegrityViolation(RuntimeException e) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+        boolean duplicateIsbn = cause.getMessage() != null
+                && cause.getMessage().toLowerCase(Locale.ROOT).contains("uk_books_isbn13");
+        if (!duplicateIsbn) {
+            return handleException(e);
+        }
+        ErrorObject errorObject = new ErrorObject();
+        errorObject.setStatusCode(HttpStatus.CONFLICT.value());
+        errorObject.setMessage("Book already exists with this ISBN");
+
+        log.error(e.getMessage(), e);
+
+        return new ResponseEntity<ErrorObject>(errorObject, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     protected ResponseEntity<ErrorObject> handleException(RuntimeException e) {
         ErrorObject errorObject = new ErrorObject();
@@ -0,0 +1,152 @@
+package com.rookies3.myspringbootlab.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /actuator/bookperf : 도서 API 의 지연시간을 구간별로 한 번에 보여주는 요약
+ * - endpoints    : 컨트롤러 메서드별 (http.server.requests, /api/books 하위만)
+ * - repositories : repository 메서드별 (spring.data.repository.invocations)
+ * - sqlStatements : 요청당 SQL 문장 수 분포와 예산 초과/N+1 의심 횟수 (SqlStatementBudgetFilter)
+ * - hibernate    : SQL 문장 수, 엔티티 로드, 2차/natural id/쿼리 캐시 hit/miss 등 Hibernate Statistics 누적값
+ * - connectionPool : HikariCP 커넥션 획득 대기 시간 (hikaricp.connections.acquire)
+ * 값은 이미 기록된 meter 를 읽기만 하므로 요청 처리 경로에는 비용이 없습니다.
+ * percentile 은 application.properties 의 management.metrics.distribution.percentiles 로 켜진 meter 만 표시됩니다.
+ */
+@Component
+@Endpoint(id = "bookperf")
+@RequiredArgsConstructor
+public class BookPerfEndpoint {
+
+    private static final String API_PREFIX = "/api/books";
+
+    private final MeterRegistry meterRegistry;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public record TimerSummary(String name, long count, double meanMs, double maxMs, Map<String, Double> percentilesMs) {
+    }
+
+    public record StatementSummary(String name, long count, double mean, double max,
+                                   long budgetExceeded, long repeatedStatements) {
+    }
+
+    public record BookPerf(List<TimerSummary> endpoints, List<TimerSummary> repositories,
+                           List<StatementSummary> sqlStatements,
+                           Map<String, Long> hibernate, Map<String, Object> connectionPool) {
+    }
+
+    @ReadOperation
+    public BookPerf summary() {
+        return new BookPerf(endpoints(), repositories(), sqlStatements(), hibernate(), connectionPool());
+    }
+
+    private List<TimerSummary> endpoints() {
+        return meterRegistry.find("http.server.requests").timers().stream()
+                .filter(timer -> {
+                    String uri = timer.getId().getTag("uri");
+                    return uri != null && uri.startsWith(API_PREFIX);
+                })
+                .map(timer -> summarize(timer.getId().getTag("method") + " " + timer.getId().getTag("uri")
+                        + " " + timer.getId().getTag("status"), timer))
+                .sorted(Comparator.comparing(TimerSummary::name))
+                .toList();
+    }
+
+    private List<TimerSummary> repositories() {
+        return meterRegistry.find("spring.data.repository.invocations").timers().stream()
+                .map(timer -> summarize(timer.getId().getTag("repository") + "." + timer.getId().getTag("method")
+                        + " " + timer.getId().getTag("state"), timer))
+                .sorted(Comparator.comparing(TimerSummary::name))
+                .toList();
+    }
+
+    private List<StatementSummary> sqlStatements() {
+        return meterRegistry.find("book.sql.statements").summaries().stream()
+                .map(summary -> {
+                    String method = summary.getId().getTag("method");
+                    String uri = summary.getId().getTag("uri");
+                    return new StatementSummary(method + " " + uri, summary.count(), summary.mean(), summary.max(),
+                            counted("book.sql.budget.exceeded", method, uri),
+                            counted("book.sql.repeated.statements", method, uri));
+                })
+                .sorted(Comparator.comparing(StatementSummary::name))
+                .toList();
+    }
+
+    private long counted(String meterName, String method, String uri) {
+        Counter counter = meterRegistry.find(meterName).tags("method", method, "uri", uri).counter();
+        return counter != null ? (long) counter.count() : 0L;
+    }
+
+    private Map<String, Long> hibernate() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Long> result = new LinkedHashMap<>();
+        result.put("statisticsEnabled", statistics.isStatisticsEnabled() ? 1L : 0L);
+        result.put("preparedStatements", statistics.getPrepareStatementCount());
+        result.put("queryExecutions", statistics.getQueryExecutionCount());
+        result.put("queryExecutionMaxMs", statistics.getQueryExecutionMaxTime());
+        result.put("entityLoads", statistics.getEntityLoadCount());
+        result.put("entityFetches", statistics.getEntityFetchCount());
+        result.put("entityInserts", statistics.getEntityInsertCount());
+        result.put("entityUpdates", statistics.getEntityUpdateCount());
+        result.put("entityDeletes", statistics.getEntityDeleteCount());
+        result.put("secondLevelCacheHits", statistics.getSecondLevelCacheHitCount());
+        result.put("secondLevelCacheMisses", statistics.getSecondLevelCacheMissCount());
+        result.put("secondLevelCachePuts", statistics.getSecondLevelCachePutCount());
+        result.put("naturalIdCacheHits", statistics.getNaturalIdCacheHitCount());
+        result.put("naturalIdCacheMisses", statistics.getNaturalIdCacheMissCount());
+        result.put("queryCacheHits", statistics.getQueryCacheHitCount());
+        result.put("queryCacheMisses", statistics.getQueryCacheMissCount());
+        result.put("queryCachePuts", statistics.getQueryCachePutCount());
+        result.put("transactions", statistics.getTransactionCount());
+        result.put("optimisticFailures", statistics.getOptimisticFailureCount());
+        return result;
+    }
+
+    private Map<String, Object> connectionPool() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").timer();
+        if (acquire != null) {
+            result.put("acquire", summarize(acquire.getId().getTag("pool"), acquire));
+        }
+        putGauge(result, "active", "hikaricp.connections.active");
+        putGauge(result, "idle", "hikaricp.connections.idle");
+        putGauge(result, "pending", "hikaricp.connections.pending");
+        putGauge(result, "max", "hikaricp.connections.max");
+        return result;
+    }
+
+    private void putGauge(Map<String, Object> result, String key, String meterName) {
+        Gauge gauge = meterRegistry.find(meterName).gauge();
+        if (gauge != null) {
+            result.put(key, (long) gauge.value());
+        }
+    }
+
+    private static TimerSummary summarize(String name, Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            percentiles.put("p" + Math.round(value.percentile() * 100), value.value(TimeUnit.MILLISECONDS));
+        }
+        return new TimerSummary(name, snapshot.count(), snapshot.mean(TimeUnit.MILLISECONDS),
+                snapshot.max(TimeUnit.MILLISECONDS), percentiles);
+    }
+}
@@ -0,0 +1,52 @@
+package com.rookies3.myspringbootlab.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * JVM 시작부터 첫 요청 응답까지 걸린 시간 (time-to-first-request)
+ * "Started ... in N seconds" 로그와 달리 지연 초기화(lazy-initialization, deferred JPA bootstrap)로 미뤄진 비용까지 포함합니다.
+ * 한 번만 기록하며 로그와 book.startup.first.request 게이지로 남깁니다. (scripts/fast-startup/measure-startup.sh 가 로그를 읽음)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FirstRequestTimer extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean recorded = new AtomicBoolean();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return recorded.get();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (recorded.compareAndSet(false, true)) {
+                long elapsed = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+                TimeGauge.builder("book.startup.first.request", () -> elapsed, TimeUnit.MILLISECONDS)
+                        .description("Time from JVM start to the first completed request")
+                        .register(meterRegistry);
+                log.info("Time to first request: {} ms ({} {})", elapsed, request.getMethod(), request.getRequestURI());
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.rookies3.myspringbootlab.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 컨트롤러 메서드별 SQL 문장 수 예산 (book.sql-budget.max-statements 대신 사용)
+ * UNLIMITED 이면 문장 수만 기록하고 예산 초과/반복 문장 경고는 하지 않습니다. (대량 등록처럼 배치로 많은 문장을 쓰는 API)
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+
+    int UNLIMITED = Integer.MAX_VALUE;
+
+    int value();
+}
@@ -0,0 +1,111 @@
+package com.rookies3.myspringbootlab.metrics;
+
+import com.rookies3.myspringbootlab.property.BookSqlBudgetProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 요청마다 실행된 SQL 문장 수를 세는 필터
+ * - book.sql.statements          : 요청당 문장 수 분포 (method, uri 태그)
+ * - book.sql.budget.exceeded     : 예산(book.sql-budget.max-statements 또는 @SqlBudget)을 넘은 요청 수
+ * - book.sql.repeated.statements : 같은 SELECT 형태가 repeat-threshold 번 이상 반복된(N+1 의심) 요청 수
+ * 초과/반복이 있으면 어떤 문장이 몇 번 실행되었는지 WARN 로그로 남깁니다.
+ * (spring.jpa.show-sql 처럼 모든 문장을 출력하지 않고 문제가 있는 요청만 기록)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final BookSqlBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+    // method + uri 별 meter (요청마다 meter id 를 새로 만들지 않도록 보관)
+    private final Map<String, RequestMeters> meters = new ConcurrentHashMap<>();
+
+    private record RequestMeters(DistributionSummary statements, Counter exceeded, Counter repeated) {
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementScope scope = SqlStatementScope.open();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scope.close();
+            report(request, scope);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatementScope scope) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+        RequestMeters requestMeters = meters.computeIfAbsent(request.getMethod() + " " + uri,
+                key -> register(request.getMethod(), uri));
+        int count = scope.count();
+        requestMeters.statements().record(count);
+
+        int budget = budget(request);
+        if (budget == SqlBudget.UNLIMITED) {
+            return;
+        }
+        if (count > budget) {
+            requestMeters.exceeded().increment();
+            log.warn("SQL budget exceeded: {} {} executed {} statements (budget {})",
+                    request.getMethod(), request.getRequestURI(), count, budget);
+        }
+        Map<String, Integer> repeated = scope.repeatedSelects(properties.getRepeatThreshold());
+        if (!repeated.isEmpty()) {
+            requestMeters.repeated().increment();
+            repeated.forEach((sql, times) -> log.warn("Possible N+1: {} {} executed the same statement {} times: {}",
+                    request.getMethod(), request.getRequestURI(), times, sql));
+        }
+    }
+
+    private int budget(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod handlerMethod) {
+            SqlBudget sqlBudget = handlerMethod.getMethodAnnotation(SqlBudget.class);
+            if (sqlBudget != null) {
+                return sqlBudget.value();
+            }
+        }
+        return properties.getMaxStatements();
+    }
+
+    private RequestMeters register(String method, String uri) {
+        return new RequestMeters(
+                DistributionSummary.builder("book.sql.statements")
+                        .description("SQL statements executed per request")
+                        .tags("method", method, "uri", uri)
+                        .register(meterRegistry),
+                Counter.builder("book.sql.budget.exceeded")
+                        .tags("method", method, "uri", uri)
+                        .register(meterRegistry),
+                Counter.builder("book.sql.repeated.statements")
+                        .tags("method", method, "uri", uri)
+                        .register(meterRegistry));
+    }
+}
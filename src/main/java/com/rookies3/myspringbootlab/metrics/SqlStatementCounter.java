@@ -0,0 +1,17 @@
+package com.rookies3.myspringbootlab.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate 가 JDBC 문장을 준비할 때마다 현재 스레드의 SqlStatementScope 에 기록합니다.
+ * 열린 스코프가 없으면 ThreadLocal 조회만 하고 끝나므로 비용이 거의 없습니다.
+ * (hibernate.session_factory.statement_inspector 로 등록, SQL 은 변경하지 않음)
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementScope.record(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,91 @@
+package com.rookies3.myspringbootlab.metrics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 현재 스레드에서 실행된 SQL 문장 수와 문장 형태(바인드 전 SQL 문자열)별 횟수
+ * HTTP 요청(SqlStatementBudgetFilter)이나 테스트 메서드(QueryCountExtension) 단위로 열고 닫습니다.
+ * 스코프는 중첩될 수 있고, 안쪽에서 실행된 문장은 바깥 스코프에도 함께 집계됩니다.
+ * 문장은 SqlStatementCounter(Hibernate StatementInspector)가 기록합니다.
+ */
+public final class SqlStatementScope implements AutoCloseable {
+
+    private static final ThreadLocal<SqlStatementScope> CURRENT = new ThreadLocal<>();
+
+    private final SqlStatementScope parent;
+    private final Map<String, Integer> shapes = new HashMap<>();
+    private int count;
+    private boolean closed;
+
+    private SqlStatementScope(SqlStatementScope parent) {
+        this.parent = parent;
+    }
+
+    public static SqlStatementScope open() {
+        SqlStatementScope scope = new SqlStatementScope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * 현재 스레드에 열린 스코프 (없으면 null)
+     */
+    public static SqlStatementScope current() {
+        return CURRENT.get();
+    }
+
+    static void record(String sql) {
+        for (SqlStatementScope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.count++;
+            scope.shapes.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * threshold 번 이상 반복된 SELECT 형태와 횟수 (같은 쿼리를 id 만 바꿔 반복하는 N+1 패턴)
+     * INSERT/UPDATE 는 JDBC 배치로 같은 문장이 반복되는 것이 정상이므로 제외합니다.
+     */
+    public Map<String, Integer> repeatedSelects(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        shapes.forEach((sql, times) -> {
+            if (times >= threshold && sql.regionMatches(true, 0, "select", 0, 6)) {
+                repeated.put(sql, times);
+            }
+        });
+        return repeated;
+    }
+
+    /**
+     * 실행된 문장 형태 (바인드 전 SQL 문자열)
+     */
+    public Set<String> statements() {
+        return Collections.unmodifiableSet(shapes.keySet());
+    }
+
+    // 테스트에서 준비(given) 단계의 문장을 빼고 세고 싶을 때 사용
+    public void reset() {
+        count = 0;
+        shapes.clear();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (parent != null) {
+            CURRENT.set(parent);
+        } else {
+            CURRENT.remove();
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.rookies3.myspringbootlab.popularity;
+
+import com.rookies3.myspringbootlab.event.BookChangedEvent;
+import com.rookies3.myspringbootlab.property.BookPopularityProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 도서 조회수 집계와 조회 기간별 인기 도서 목록
+ * - 조회 요청은 도서별 LongAdder 를 증가시키기만 하고 (스레드별 cell 로 나뉘어 경합이 적음) DB 에는 쓰지 않습니다.
+ * - flushInterval 마다 별도 스레드에서 증가분을 꺼내(sumThenReset) book_view_counts 의 현재 bucket 에 batch UPSERT 로 더합니다.
+ *   한 flush 간격 동안 조회가 없던 도서는 pending 에서 제거하므로 pending 크기는 최근에 조회된 도서 수를 넘지 않습니다.
+ *   제거 직전에 LongAdder 를 가져간 조회 요청이 제거 뒤에 더할 수 있으므로 제거한 LongAdder 는 다음 flush 에서 한 번 더 꺼냅니다.
+ *   여러 인스턴스가 같은 행에 더하므로 합계는 모든 인스턴스의 조회수이고, 저장에 실패한 증가분은 다음 flush 에 다시 더합니다.
+ * - flush 뒤에 rankingInterval 이 지난 조회 기간만 DB 에서 상위 topK 건을 합산해서(ORDER BY ... LIMIT) 다시 읽습니다.
+ *   (popular 요청은 이 목록을 그대로 사용하며, 다른 인스턴스의 조회수는 다음 계산부터 반영)
+ * - 조회 기간은 bucket 단위이므로 최대 bucketSize 만큼 더 포함될 수 있고, 가장 긴 기간이 지난 bucket 은 삭제합니다.
+ * 메트릭 : book.popularity.pending (flush 대기 중인 도서 수), book.popularity.flushed (저장한 조회수), book.popularity.flush (소요 시간)
+ */
+@Component
+@Slf4j
+public class BookPopularity {
+
+    private static final String UPSERT_MARIADB = "INSERT INTO book_view_counts (book_id, bucket_start, views) " +
+            "VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE views = views + VALUES(views)";
+    private static final String UPSERT_H2 = "MERGE INTO book_view_counts t " +
+            "USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT))) s (book_id, bucket_start, views) " +
+            "ON t.book_id = s.book_id AND t.bucket_start = s.bucket_start " +
+            "WHEN MATCHED THEN UPDATE SET views = t.views + s.views " +
+            "WHEN NOT MATCHED THEN INSERT (book_id, bucket_start, views) VALUES (s.book_id, s.bucket_start, s.views)";
+    private static final String UPSERT_STANDARD = "INSERT INTO book_view_counts (book_id, bucket_start, views) " +
+            "VALUES (?, ?, ?) ON CONFLICT (book_id, bucket_start) DO UPDATE SET views = book_view_counts.views + EXCLUDED.views";
+    private static final String TOP_SINCE = "SELECT book_id, SUM(views) FROM book_view_counts " +
+            "WHERE bucket_start >= ? GROUP BY book_id ORDER BY SUM(views) DESC, book_id LIMIT ?";
+    private static final String DELETE_BEFORE = "DELETE FROM book_view_counts WHERE bucket_start < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BookPopularityProperties properties;
+    private final long bucketSeconds;
+    private final Counter flushed;
+    private final Timer flushTimer;
+
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private volatile Map<PopularityWindow, List<PopularBook>> rankings = emptyRankings();
+    // 아래 필드는 flushLock 을 잡고 사용
+    private List<Map.Entry<Long, LongAdder>> detached = new ArrayList<>();
+    private final Map<PopularityWindow, Long> rankedAt = new EnumMap<>(PopularityWindow.class);
+    private String upsert;
+    private long purgedBefore;
+    private final Object flushLock = new Object();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "popularity-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BookPopularity(JdbcTemplate jdbcTemplate, BookPopularityProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.bucketSeconds = Math.max(properties.getBucketSize().toSeconds(), 1);
+        this.flushed = Counter.builder("book.popularity.flushed")
+                .description("Views added to book_view_counts")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("book.popularity.flush")
+                .description("Time to write pending views and recompute the rankings")
+                .register(meterRegistry);
+        Gauge.builder("book.popularity.pending", pending, Map::size)
+                .description("Books with views counted since the last flush")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long interval = properties.getFlushInterval().toMillis();
+        scheduler.execute(this::flushQuietly);
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 조회 1건 (요청 스레드에서 호출, DB 를 사용하지 않음)
+     */
+    public void record(long bookId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LongAdder views = pending.get(bookId);
+        if (views == null) {
+            views = pending.computeIfAbsent(bookId, id -> new LongAdder());
+        }
+        views.increment();
+    }
+
+    /**
+     * 조회 기간의 인기 도서 (조회수가 많은 순, 최대 topK)
+     */
+    public List<PopularBook> top(PopularityWindow window, int limit) {
+        List<PopularBook> ranking = rankings.get(window);
+        return ranking.subList(0, Math.min(Math.max(limit, 0), ranking.size()));
+    }
+
+    /**
+     * 모은 조회수를 저장하고 모든 조회기간의 인기 도서 목록을 바로 다시 계산합니다.
+     * 시작 직후 첫 flush 가 끝나기 전에도 저장된 조회수로 인기 도서 목록을 사용할 수 있도록 합니다. (워밍업용)
+     */
+    public void loadRankings() {
+        if (properties.isEnabled()) {
+            flush(true);
+        }
+    }
+
+    /**
+     * 모은 조회수를 저장하고 rankingInterval 이 지난 조회 기간의 인기 도서 목록을 다시 계산합니다.
+     */
+    public void flush() {
+        flush(false);
+    }
+
+    private void flush(boolean rankAll) {
+        synchronized (flushLock) {
+            flushTimer.record(() -> {
+                long now = Instant.now().getEpochSecond();
+                long bucket = now - Math.floorMod(now, bucketSeconds);
+                writePending(bucket);
+                purge(bucket);
+                rankings = computeRankings(now, rankAll);
+            });
+        }
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.type() == BookChangedEvent.Type.DELETED) {
+            pending.remove(event.bookId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        if (properties.isEnabled()) {
+            // 종료 전에 남은 조회수 저장
+            flushQuietly();
+        }
+    }
+
+    private void writePending(long bucket) {
+        Map<Long, Long> deltas = new HashMap<>();
+        // 지난 flush 에서 제거한 LongAdder 에 그 뒤에 더해진 조회수 (제거 전에 LongAdder 를 가져간 요청)
+        List<Map.Entry<Long, LongAdder>> removed = detached;
+        detached = new ArrayList<>();
+        removed.forEach(entry -> deltas.merge(entry.getKey(), entry.getValue().sumThenReset(), Long::sum));
+        // 꺼내는 도중의 증가분은 다음 flush 에 포함됨 (sumThenReset 은 cell 별로 getAndSet)
+        pending.forEach((bookId, views) -> {
+            long delta = views.sumThenReset();
+            if (delta == 0 && pending.remove(bookId, views)) {
+                // 지난 flush 이후 조회가 없던 도서는 제거하고, 제거 전후에 더해진 조회수는 다음 flush 에서 저장
+                detached.add(Map.entry(bookId, views));
+            }
+            deltas.merge(bookId, delta, Long::sum);
+        });
+        List<Object[]> rows = new ArrayList<>();
+        deltas.forEach((bookId, delta) -> {
+            if (delta > 0) {
+                rows.add(new Object[]{bookId, bucket, delta});
+            }
+        });
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(upsertSql(), rows);
+        } catch (RuntimeException e) {
+            // 저장하지 못한 증가분을 되돌려 두고 다음 flush 에서 다시 저장
+            rows.forEach(row -> pending.computeIfAbsent((Long) row[0], id -> new LongAdder()).add((Long) row[2]));
+            throw e;
+        }
+        rows.forEach(row -> flushed.increment((Long) row[2]));
+    }
+
+    // bucket 이 바뀐 뒤 처음 flush 할 때만 삭제
+    private void purge(long bucket) {
+        long before = bucket - PopularityWindow.longest().toSeconds() - bucketSeconds;
+        if (before > purgedBefore) {
+            jdbcTemplate.update(DELETE_BEFORE, before);
+            purgedBefore = before;
+        }
+    }
+
+    // DB 가 합산/정렬해서 상위 k 건만 돌려주므로 전송량과 메모리는 도서 수와 관계없이 O(k)
+    private Map<PopularityWindow, List<PopularBook>> computeRankings(long now, boolean rankAll) {
+        Map<PopularityWindow, List<PopularBook>> computed = new EnumMap<>(rankings);
+        int k = Math.max(properties.getTopK(), 1);
+        for (PopularityWindow window : PopularityWindow.values()) {
+            Long last = rankedAt.get(window);
+            long interval = properties.getRankingInterval().getOrDefault(window, properties.getFlushInterval()).toSeconds();
+            if (!rankAll && last != null && now - last < interval) {
+                continue;
+            }
+            long since = now - window.getDuration().toSeconds();
+            since -= Math.floorMod(since, bucketSeconds);
+            List<PopularBook> ranking = jdbcTemplate.query(TOP_SINCE,
+                    (rs, rowNum) -> new PopularBook(rs.getLong(1), rs.getLong(2)), since, k);
+            computed.put(window, List.copyOf(ranking));
+            rankedAt.put(window, now);
+        }
+        return computed;
+    }
+
+    private String upsertSql() {
+        if (upsert == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            upsert = switch (product == null ? "" : product) {
+                case "MariaDB", "MySQL" -> UPSERT_MARIADB;
+                case "H2" -> UPSERT_H2;
+                default -> UPSERT_STANDARD;
+            };
+        }
+        return upsert;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush book views", e);
+        }
+    }
+
+    private static Map<PopularityWindow, List<PopularBook>> emptyRankings() {
+        Map<PopularityWindow, List<PopularBook>> empty = new EnumMap<>(PopularityWindow.class);
+        for (PopularityWindow window : PopularityWindow.values()) {
+            empty.put(window, List.of());
+        }
+        return empty;
+    }
+}
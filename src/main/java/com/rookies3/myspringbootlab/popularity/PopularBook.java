@@ -0,0 +1,13 @@
+package com.rookies3.myspringbootlab.popularity;
+
+import java.util.Comparator;
+
+/**
+ * 조회 기간 동안의 도서 조회수 (모든 인스턴스 합계)
+ */
+public record PopularBook(long bookId, long views) {
+
+    // 조회수가 많은 순, 같으면 book_id 가 작은 순
+    static final Comparator<PopularBook> RANKING = Comparator.comparingLong(PopularBook::views).reversed()
+            .thenComparingLong(PopularBook::bookId);
+}
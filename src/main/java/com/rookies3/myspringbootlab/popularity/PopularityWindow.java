@@ -0,0 +1,35 @@
+package com.rookies3.myspringbootlab.popularity;
+
+import com.rookies3.myspringbootlab.exception.BusinessException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/**
+ * 인기 도서 조회 기간 (GET /api/books/popular?window=1h|24h)
+ * 가장 긴 기간이 지난 bucket 은 book_view_counts 에서 삭제됩니다.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum PopularityWindow {
+    ONE_HOUR("1h", Duration.ofHours(1)),
+    ONE_DAY("24h", Duration.ofHours(24));
+
+    private final String value;
+    private final Duration duration;
+
+    public static PopularityWindow from(String value) {
+        for (PopularityWindow window : values()) {
+            if (window.value.equalsIgnoreCase(value)) {
+                return window;
+            }
+        }
+        throw new BusinessException("Unsupported window: " + value, HttpStatus.BAD_REQUEST);
+    }
+
+    public static Duration longest() {
+        return ONE_DAY.duration;
+    }
+}
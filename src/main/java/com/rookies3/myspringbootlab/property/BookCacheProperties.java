@@ -0,0 +1,19 @@
+package com.rookies3.myspringbootlab.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties("book.cache")
+@Getter
+@Setter
+public class BookCacheProperties {
+    // id, ISBN 캐시 각각의 최대 항목 수
+    private long maximumSize = 10_000;
+    // 저장 후 만료 시간
+    private Duration ttl = Duration.ofMinutes(10);
+}
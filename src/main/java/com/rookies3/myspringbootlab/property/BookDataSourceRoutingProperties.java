@@ -0,0 +1,36 @@
+package com.rookies3.myspringbootlab.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties("book.datasource.routing")
+@Getter
+@Setter
+public class BookDataSourceRoutingProperties {
+    // true 이면 readOnly 트랜잭션을 replicas 로 보냄 (false 이면 spring.datasource 하나만 사용)
+    private boolean enabled = false;
+    // 쓰기 요청 이후 같은 클라이언트의 조회를 primary 로 보내는 시간 (replica 복제 지연 대비)
+    private Duration stickyWindow = Duration.ofSeconds(5);
+    // 이 인스턴스에서 쓰기가 커밋된 뒤 모든 클라이언트의 조회를 primary 로 보내는 시간 (replica 최대 복제 지연)
+    // 그 사이 캐시 miss 를 replica 로 채우면 오래된 값이 캐시에 남으므로 복제 지연보다 길게 설정합니다.
+    private Duration replicaLag = Duration.ofSeconds(5);
+    // replica 커넥션 풀마다의 최대 커넥션 수
+    private int maximumPoolSize = 10;
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+    }
+}
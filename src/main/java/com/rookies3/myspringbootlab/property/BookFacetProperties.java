@@ -0,0 +1,22 @@
+package com.rookies3.myspringbootlab.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+@Component
+@ConfigurationProperties("book.facets")
+@Getter
+@Setter
+public class BookFacetProperties {
+    // false 이면 GET /api/books/facets 는 503
+    private boolean enabled = true;
+    // DB 로 다시 만들어서 이벤트로 유지한 집계와 비교/교체하는 주기
+    private Duration reconcileInterval = Duration.ofMinutes(10);
+    // 가격 구간 경계 (오름차순) : 10000,20000 이면 0-9999, 10000-19999, 20000+
+    private List<Integer> priceBuckets = List.of(10_000, 20_000, 30_000, 50_000);
+}
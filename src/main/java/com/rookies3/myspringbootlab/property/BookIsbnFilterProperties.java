@@ -0,0 +1,23 @@
+package com.rookies3.myspringbootlab.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties("book.isbn-filter")
+@Getter
+@Setter
+public class BookIsbnFilterProperties {
+    // false 이면 모든 ISBN 조회가 DB 를 조회
+    // 필터는 이 인스턴스의 쓰기만 바로 반영하므로 (다른 인스턴스의 등록은 다음 구축까지 404) 단일 인스턴스에서만 true
+    private boolean enabled = false;
+    // 다시 만드는 주기 (삭제되지 않고 남은 fingerprint 정리, 다른 인스턴스에서 등록된 도서 반영)
+    private Duration rebuildInterval = Duration.ofMinutes(30);
+    // 만들 때의 용량 = max(도서 수 x headroom, minimumCapacity), 적재율이 90% 를 넘으면 바로 다시 만듦
+    private double headroom = 2.0;
+    private long minimumCapacity = 10_000;
+}
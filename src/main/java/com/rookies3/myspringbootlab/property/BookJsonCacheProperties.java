@@ -0,0 +1,24 @@
+package com.rookies3.myspringbootlab.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties("book.json-cache")
+@Getter
+@Setter
+public class BookJsonCacheProperties {
+    // 저장된 JSON(+gzip) 바이트의 합계 상한
+    private DataSize maximumSize = DataSize.ofMegabytes(64);
+    // 이보다 큰 응답은 저장하지 않음 (전체 목록 등)
+    private DataSize maximumEntrySize = DataSize.ofMegabytes(1);
+    // 이 크기 이상인 응답만 gzip 본을 함께 저장
+    private DataSize gzipMinSize = DataSize.ofKilobytes(1);
+    // 저장 후 만료 시간
+    private Duration ttl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,31 @@
+package com.rookies3.myspringbootlab.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.rookies3.myspringbootlab.popularity.PopularityWindow;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties("book.popularity")
+@Getter
+@Setter
+public class BookPopularityProperties {
+    // false 이면 조회수를 세지 않고 인기 도서 목록은 비어 있음
+    private boolean enabled = true;
+    // 모은 조회수를 book_view_counts 에 더하는 주기
+    private Duration flushInterval = Duration.ofSeconds(10);
+    // 조회 기간별로 인기 도서 목록을 다시 계산하는 주기 (기간 전체를 합산하므로 flush 보다 길게, 없는 기간은 flushInterval)
+    private Map<PopularityWindow, Duration> rankingInterval = new EnumMap<>(Map.of(
+            PopularityWindow.ONE_HOUR, Duration.ofMinutes(1),
+            PopularityWindow.ONE_DAY, Duration.ofMinutes(15)));
+    // 조회수를 모으는 시간 단위 (조회 기간의 오차 범위)
+    private Duration bucketSize = Duration.ofMinutes(5);
+    // 조회 기간별로 유지하는 인기 도서 수 (popular 의 limit 상한)
+    private int topK = 100;
+}
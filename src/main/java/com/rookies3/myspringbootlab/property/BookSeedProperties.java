@@ -0,0 +1,31 @@
+package com.rookies3.myspringbootlab.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties("book.seed")
+@Getter
+@Setter
+public class BookSeedProperties {
+    // false 이면 BookDataInsertRunner 가 등록되지 않음
+    private boolean enabled = true;
+    // 생성할 도서 수 (0 이면 직접 작성한 샘플 14권만 저장, 용량 테스트는 1000000 이상)
+    private long count = 0;
+    // 같은 seed 와 count 이면 같은 데이터(id, ISBN, 제목 ...)를 생성
+    private long seed = 20240601L;
+    // BookDetail 을 함께 생성하는 비율 (0.0 ~ 1.0)
+    private double detailRatio = 0.7;
+    // 한글 제목/저자 비율 (나머지는 영문)
+    private double koreanRatio = 0.5;
+    // ISBN-10 형식으로 생성하는 비율 (나머지는 ISBN-13)
+    private double isbn10Ratio = 0.2;
+    // 동시에 생성/저장하는 스레드 수 (커넥션 풀 크기보다 작게)
+    private int producers = Math.min(4, Runtime.getRuntime().availableProcessors());
+    // 한 트랜잭션에서 저장하는 행 수 (이 단위로 JDBC batch 를 실행하고 커밋)
+    private int batchSize = 1_000;
+    // 이 행 수마다 진행률과 rows/sec 를 로그로 남김
+    private long progressInterval = 100_000;
+}
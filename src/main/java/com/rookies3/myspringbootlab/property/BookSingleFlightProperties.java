@@ -0,0 +1,19 @@
+package com.rookies3.myspringbootlab.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties("book.single-flight")
+@Getter
+@Setter
+public class BookSingleFlightProperties {
+    // false 이면 같은 키의 동시 조회도 각자 DB 를 조회
+    private boolean enabled = true;
+    // 먼저 시작한 조회를 기다리는 최대 시간 (넘으면 503)
+    private Duration timeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,19 @@
+package com.rookies3.myspringbootlab.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties("book.sql-budget")
+@Getter
+@Setter
+public class BookSqlBudgetProperties {
+    // 요청마다 SQL 문장 수를 세고 기록할지 여부
+    private boolean enabled = true;
+    // 요청 하나가 이보다 많은 문장을 실행하면 경고 (@SqlBudget 으로 메서드별 변경)
+    private int maxStatements = 10;
+    // 같은 SELECT 형태가 이 횟수 이상 반복되면 N+1 로 경고
+    private int repeatThreshold = 5;
+}
@@ -0,0 +1,29 @@
+package com.rookies3.myspringbootlab.property;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties("book.warmup")
+@Getter
+@Setter
+public class BookWarmupProperties {
+    // 시작 직후 readiness 를 ACCEPTING_TRAFFIC 으로 바꾸기 전에 워밍업을 실행할지 여부
+    private boolean enabled = true;
+    // 워밍업 전체 제한 시간 (넘으면 남은 단계를 건너뛰고 트래픽을 받음)
+    private Duration timeout = Duration.ofSeconds(30);
+    // 미리 캐시에 올릴 도서 ISBN (비어 있으면 최근 24시간 조회수 순, 모자라면 최근 변경 순으로 hotBooks 권)
+    private List<String> isbns = new ArrayList<>();
+    // 미리 캐시에 올릴 도서 수
+    private int hotBooks = 100;
+    // JIT 단계 한 라운드의 DTO 변환/직렬화 반복 횟수
+    private int iterationsPerRound = 2_000;
+    // JIT 컴파일 시간이 늘지 않는 라운드가 이 횟수만큼 이어지면 안정된 것으로 보고 종료
+    private int stableRounds = 3;
+}
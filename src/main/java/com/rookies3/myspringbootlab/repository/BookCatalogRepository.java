@@ -0,0 +1,28 @@
+package com.rookies3.myspringbootlab.repository;
+
+import com.rookies3.myspringbootlab.entity.BookCatalog;
+import com.rookies3.myspringbootlab.repository.projection.CatalogVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+// 선언한 조회 메서드도 readOnly 트랜잭션으로 실행 (읽기/쓰기 분리 시 replica 로 라우팅)
+@Repository
+@Transactional(readOnly = true)
+public interface BookCatalogRepository extends JpaRepository<BookCatalog, Integer> {
+
+    @Query("SELECT new com.rookies3.myspringbootlab.repository.projection.CatalogVersion(c.version, c.updatedAt) " +
+            "FROM BookCatalog c WHERE c.id = " + BookCatalog.ID)
+    Optional<CatalogVersion> findVersion();
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE BookCatalog c SET c.version = c.version + 1, c.updatedAt = :updatedAt WHERE c.id = " + BookCatalog.ID)
+    int bump(@Param("updatedAt") Instant updatedAt);
+}
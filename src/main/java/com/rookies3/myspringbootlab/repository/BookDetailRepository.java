@@ -1,15 +1,21 @@
 package com.rookies3.myspringbootlab.repository;
 
 import com.rookies3.myspringbootlab.entity.BookDetail;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
+// 선언한 조회 메서드도 readOnly 트랜잭션으로 실행 (읽기/쓰기 분리 시 replica 로 라우팅)
 @Repository
+@Transactional(readOnly = true)
 public interface BookDetailRepository extends JpaRepository<BookDetail, Long> {
     
     Optional<BookDetail> findByBookId(Long bookId);
@@ -17,6 +23,8 @@ public interface BookDetailRepository extends JpaRepository<BookDetail, Long> {
     @Query("SELECT bd FROM BookDetail bd JOIN FETCH bd.book WHERE bd.id = :id")
     Optional<BookDetail> findByIdWithBook(@Param("id") Long id);
     
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = BookRepository.QUERY_CACHE_REGION)})
     @Query("SELECT bd FROM BookDetail bd WHERE bd.publisher = :publisher")
     List<BookDetail> findByPublisher(@Param("publisher") String publisher);
 }
\ No newline at end of file
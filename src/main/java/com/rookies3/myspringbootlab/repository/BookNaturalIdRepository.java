@@ -0,0 +1,15 @@
+package com.rookies3.myspringbootlab.repository;
+
+import com.rookies3.myspringbootlab.entity.Book;
+
+import java.util.Optional;
+
+/**
+ * ISBN(natural id) 조회 : 쿼리 메서드 대신 Hibernate natural id API 로 조회해서
+ * books-isbn(ISBN -> id), books(id -> 엔티티) 2차 캐시를 차례로 사용합니다.
+ * ISBN 은 정규화된 ISBN-13(isbn13) 으로 바꿔서 조회하므로 하이픈 포함 여부, ISBN-10/13 과 관계없이 같은 도서를 찾습니다.
+ */
+public interface BookNaturalIdRepository {
+
+    Optional<Book> findByIsbn(String isbn);
+}
@@ -0,0 +1,29 @@
+package com.rookies3.myspringbootlab.repository;
+
+import com.rookies3.myspringbootlab.entity.Book;
+import com.rookies3.myspringbootlab.validation.Isbn;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+// Session 을 꺼내 쓰므로 트랜잭션 밖에서 호출되어도 같은 EntityManager 를 쓰도록 readOnly 트랜잭션 안에서 실행
+@Transactional(readOnly = true)
+class BookNaturalIdRepositoryImpl implements BookNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Book> findByIsbn(String isbn) {
+        long isbn13 = Isbn.normalize(isbn);
+        if (isbn13 == Isbn.INVALID) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Book.class)
+                .loadOptional(isbn13);
+    }
+}
@@ -0,0 +1,21 @@
+package com.rookies3.myspringbootlab.repository;
+
+import com.rookies3.myspringbootlab.entity.Book;
+import com.rookies3.myspringbootlab.repository.projection.BookRow;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * 조건을 조합하는 조회 (Criteria API) : 결과는 BookRow 프로젝션으로 Book LEFT JOIN BookDetail 한 번에 읽습니다.
+ */
+public interface BookQueryRepository {
+
+    /**
+     * @param spec  조회 조건 (null 이면 전체)
+     * @param sort  정렬 (id, price, publishDate), 정렬키가 null 인 행은 방향과 관계없이 마지막
+     * @param limit 최대 행 수
+     */
+    List<BookRow> findRows(Specification<Book> spec, Sort sort, int limit);
+}
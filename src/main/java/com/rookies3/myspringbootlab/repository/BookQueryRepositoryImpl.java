@@ -0,0 +1,57 @@
+package com.rookies3.myspringbootlab.repository;
+
+import com.rookies3.myspringbootlab.entity.Book;
+import com.rookies3.myspringbootlab.entity.BookDetail;
+import com.rookies3.myspringbootlab.repository.projection.BookRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Transactional(readOnly = true)
+class BookQueryRepositoryImpl implements BookQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookRow> findRows(Specification<Book> spec, Sort sort, int limit) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookRow> query = cb.createQuery(BookRow.class);
+        Root<Book> b = query.from(Book.class);
+        // 조건을 먼저 만들어야 상세정보 조건이 만든 INNER JOIN 을 select 에서도 사용
+        Predicate where = spec != null ? spec.toPredicate(b, query, cb) : null;
+        if (where != null) {
+            query.where(where);
+        }
+        Join<Book, BookDetail> d = BookSpecifications.detail(b, JoinType.LEFT);
+        query.select(cb.construct(BookRow.class,
+                b.get("id"), b.get("title"), b.get("author"), b.get("isbn"), b.get("price"), b.get("publishDate"),
+                b.get("version"), b.get("updatedAt"),
+                d.get("id"), d.get("description"), d.get("language"), d.get("pageCount"), d.get("publisher"),
+                d.get("coverImageUrl"), d.get("edition")));
+
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            orders.add(order.isAscending()
+                    ? cb.asc(b.get(order.getProperty()), false)
+                    : cb.desc(b.get(order.getProperty()), false));
+        }
+        query.orderBy(orders);
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
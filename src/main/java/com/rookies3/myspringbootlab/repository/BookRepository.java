@@ -1,29 +1,174 @@
 package com.rookies3.myspringbootlab.repository;
 
 import com.rookies3.myspringbootlab.entity.Book;
+import com.rookies3.myspringbootlab.event.BookSnapshot;
+import com.rookies3.myspringbootlab.repository.projection.BookRow;
+import com.rookies3.myspringbootlab.repository.projection.BookVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+// 선언한 조회 메서드도 readOnly 트랜잭션으로 실행 (읽기/쓰기 분리 시 replica 로 라우팅)
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+@Transactional(readOnly = true)
+public interface BookRepository extends JpaRepository<Book, Long>, BookNaturalIdRepository, BookQueryRepository {
 
-    Optional<Book> findByIsbn(String isbn);
+    // 조회 전용 프로젝션 : Book 과 BookDetail 을 한 번의 LEFT JOIN 으로 BookRow 에 바로 담습니다.
+    String SELECT_BOOK_ROW = "SELECT new com.rookies3.myspringbootlab.repository.projection.BookRow(" +
+            "b.id, b.title, b.author, b.isbn, b.price, b.publishDate, b.version, b.updatedAt, " +
+            "d.id, d.description, d.language, d.pageCount, d.publisher, d.coverImageUrl, d.edition) " +
+            "FROM Book b LEFT JOIN b.bookDetail d ";
+
+    // 검색 결과 쿼리 캐시 region (application.conf) : books/book_details 에 쓰기가 커밋되면 무효
+    String QUERY_CACHE_REGION = "books-queries";
+
+    // findByIsbn 은 BookNaturalIdRepository (natural id 캐시) 에서 구현
+    // 조건 조합 조회(findRows)는 BookQueryRepository (Criteria API) 에서 구현
+    // ISBN 조건은 모두 정규화된 isbn13 (Isbn.normalize) 으로 비교합니다.
+
+    List<Book> findByAuthor(String author);
 
     // Containing => like '% param %'
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)})
     List<Book> findByAuthorContainingIgnoreCase(String author);
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)})
     List<Book> findByTitleContainingIgnoreCase(String title);
 
     @Query("SELECT b FROM Book b LEFT JOIN FETCH b.bookDetail WHERE b.id = :id")
     Optional<Book> findByIdWithBookDetail(@Param("id") Long id);
 
-    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.bookDetail WHERE b.isbn = :isbn")
-    Optional<Book> findByIsbnWithBookDetail(@Param("isbn") String isbn);
+    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.bookDetail WHERE b.isbn13 = :isbn13")
+    Optional<Book> findByIsbnWithBookDetail(@Param("isbn13") long isbn13);
+
+    @Query(SELECT_BOOK_ROW + "ORDER BY b.id")
+    List<BookRow> findAllRows();
+
+    @Query(SELECT_BOOK_ROW + "WHERE b.id = :id")
+    Optional<BookRow> findRowById(@Param("id") Long id);
+
+    @Query(SELECT_BOOK_ROW + "WHERE b.isbn13 = :isbn13")
+    Optional<BookRow> findRowByIsbn(@Param("isbn13") long isbn13);
+
+    @Query(SELECT_BOOK_ROW + "WHERE b.id IN :ids")
+    List<BookRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_BOOK_ROW + "WHERE b.isbn13 IN :isbn13s")
+    List<BookRow> findRowsByIsbnIn(@Param("isbn13s") Collection<Long> isbn13s);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)})
+    @Query(SELECT_BOOK_ROW + "WHERE LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%')) ORDER BY b.id")
+    List<BookRow> findRowsByTitleContaining(@Param("title") String title);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)})
+    @Query(SELECT_BOOK_ROW + "WHERE LOWER(b.author) LIKE LOWER(CONCAT('%', :author, '%')) ORDER BY b.id")
+    List<BookRow> findRowsByAuthorContaining(@Param("author") String author);
+
+    @Query("SELECT COUNT(b) > 0 FROM Book b WHERE b.isbn13 = :isbn13")
+    boolean existsByIsbn(@Param("isbn13") long isbn13);
+
+    // ETag 확인용 : books 테이블만 읽습니다.
+    @Query("SELECT new com.rookies3.myspringbootlab.repository.projection.BookVersion(b.id, b.version, b.updatedAt) " +
+            "FROM Book b WHERE b.id = :id")
+    Optional<BookVersion> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT new com.rookies3.myspringbootlab.repository.projection.BookVersion(b.id, b.version, b.updatedAt) " +
+            "FROM Book b WHERE b.isbn13 = :isbn13")
+    Optional<BookVersion> findVersionByIsbn(@Param("isbn13") long isbn13);
+
+    // 엔티티를 읽지 않고 Book.touch() 와 같은 효과를 냅니다. (version 이 null 이면 버전 확인 없이 갱신)
+    @Modifying
+    @Transactional
+    @Query("UPDATE Book b SET b.version = b.version + 1, b.updatedAt = :updatedAt " +
+            "WHERE b.id = :id AND (:version IS NULL OR b.version = :version)")
+    int touch(@Param("id") Long id, @Param("version") Long version, @Param("updatedAt") Instant updatedAt);
+
+    @Query("SELECT b.isbn13 FROM Book b WHERE b.isbn13 IN :isbn13s")
+    List<Long> findExistingIsbns(@Param("isbn13s") Collection<Long> isbn13s);
+
+    // 워밍업 대상 : 최근에 변경된 도서 (BookPopularity 의 조회수 순위로 hotBooks 권을 채우지 못한 경우에 사용)
+    @Query("SELECT b.id FROM Book b ORDER BY b.updatedAt DESC NULLS LAST, b.id DESC")
+    List<Long> findRecentlyUpdatedIds(Pageable limit);
+
+    @Query("SELECT b.id FROM Book b WHERE b.isbn13 IN :isbn13s")
+    List<Long> findIdsByIsbnIn(@Param("isbn13s") Collection<Long> isbn13s);
+
+    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.bookDetail WHERE b.id IN :ids")
+    List<Book> findAllWithBookDetailByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Keyset(seek) 페이지네이션 => WHERE (정렬키, book_id) > (:key, :lastId) ORDER BY 정렬키, book_id
+    // Pageable 은 LIMIT 용도로만 사용하며 항상 첫 페이지(offset 0)를 전달합니다.
+    @Query(SELECT_BOOK_ROW + "WHERE b.id > :lastId ORDER BY b.id ASC")
+    List<BookRow> findPageByIdAsc(@Param("lastId") Long lastId, Pageable limit);
+
+    @Query(SELECT_BOOK_ROW + "WHERE b.id < :lastId ORDER BY b.id DESC")
+    List<BookRow> findPageByIdDesc(@Param("lastId") Long lastId, Pageable limit);
+
+    @Query(SELECT_BOOK_ROW +
+            "WHERE b.price > :price OR (b.price = :price AND b.id > :lastId) " +
+            "ORDER BY b.price ASC, b.id ASC")
+    List<BookRow> findPageByPriceAsc(@Param("price") Integer price, @Param("lastId") Long lastId, Pageable limit);
+
+    @Query(SELECT_BOOK_ROW +
+            "WHERE b.price < :price OR (b.price = :price AND b.id < :lastId) " +
+            "ORDER BY b.price DESC, b.id DESC")
+    List<BookRow> findPageByPriceDesc(@Param("price") Integer price, @Param("lastId") Long lastId, Pageable limit);
+
+    @Query(SELECT_BOOK_ROW +
+            "WHERE b.publishDate > :publishDate OR (b.publishDate = :publishDate AND b.id > :lastId) " +
+            "ORDER BY b.publishDate ASC, b.id ASC")
+    List<BookRow> findPageByPublishDateAsc(@Param("publishDate") LocalDate publishDate,
+                                        @Param("lastId") Long lastId, Pageable limit);
+
+    @Query(SELECT_BOOK_ROW +
+            "WHERE b.publishDate < :publishDate OR (b.publishDate = :publishDate AND b.id < :lastId) " +
+            "ORDER BY b.publishDate DESC, b.id DESC")
+    List<BookRow> findPageByPublishDateDesc(@Param("publishDate") LocalDate publishDate,
+                                         @Param("lastId") Long lastId, Pageable limit);
+
+    // 정렬키가 null 인 행은 정렬 방향과 관계없이 마지막에 book_id 순으로 조회
+    @Query(SELECT_BOOK_ROW +
+            "WHERE b.price IS NULL AND b.id > :lastId ORDER BY b.id ASC")
+    List<BookRow> findPageByNullPrice(@Param("lastId") Long lastId, Pageable limit);
+
+    @Query(SELECT_BOOK_ROW +
+            "WHERE b.publishDate IS NULL AND b.id > :lastId ORDER BY b.id ASC")
+    List<BookRow> findPageByNullPublishDate(@Param("lastId") Long lastId, Pageable limit);
+
+    // 대용량 export 용 : 결과 전체를 List 로 올리지 않고 JDBC 커서로 fetchSize 만큼씩 읽어 옵니다.
+    // 프로젝션이므로 영속성 컨텍스트에 쌓이지 않습니다.
+    // 반드시 트랜잭션 안에서 사용하고 try-with-resources 로 닫아야 합니다.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_BOOK_ROW + "ORDER BY b.id")
+    Stream<BookRow> streamAllRows();
+
+    // ISBN 필터 구축용
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT b.isbn13 FROM Book b")
+    Stream<Long> streamAllIsbn13();
 
-    boolean existsByIsbn(String isbn);
-}
\ No newline at end of file
+    // 메모리 인덱스 구축용 : 엔티티 대신 필요한 컬럼만 읽어서 스냅샷으로 변환
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.rookies3.myspringbootlab.event.BookSnapshot(" +
+            "b.id, b.title, b.author, b.isbn, b.price, b.publishDate, d.language, d.publisher) " +
+            "FROM Book b LEFT JOIN b.bookDetail d")
+    Stream<BookSnapshot> streamAllSnapshots();
+}
@@ -0,0 +1,92 @@
+package com.rookies3.myspringbootlab.repository;
+
+import com.rookies3.myspringbootlab.entity.Book;
+import com.rookies3.myspringbootlab.entity.BookDetail;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * 도서 조회 조건 (GET /api/books/query)
+ * 값이 null 이면 조건을 만들지 않으므로(null Specification) 주어진 조건만 AND 로 묶입니다.
+ * - 가격/출간일 범위는 idx_books_price_id / idx_books_publish_date_id 를 사용
+ * - 언어/출판사는 정확히 일치하는 값으로 비교해서 idx_book_details_language_publisher / idx_book_details_publisher 를 사용
+ *   (상세정보가 없는 도서는 어차피 제외되므로 INNER JOIN 으로 만들어서 book_details 부터 인덱스로 읽을 수 있게 함)
+ * - 제목/저자는 기존 검색과 같은 부분 일치(대소문자 무시)라 인덱스를 사용하지 않으므로 다른 조건과 함께 쓰는 것이 좋습니다.
+ */
+public final class BookSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private BookSpecifications() {
+    }
+
+    public static Specification<Book> titleContains(String title) {
+        return isBlank(title) ? null
+                : (root, query, cb) -> cb.like(cb.lower(root.get("title")), containsPattern(title), LIKE_ESCAPE);
+    }
+
+    public static Specification<Book> authorContains(String author) {
+        return isBlank(author) ? null
+                : (root, query, cb) -> cb.like(cb.lower(root.get("author")), containsPattern(author), LIKE_ESCAPE);
+    }
+
+    public static Specification<Book> priceBetween(Integer min, Integer max) {
+        if (min == null && max == null) {
+            return null;
+        }
+        return (root, query, cb) -> min == null ? cb.le(root.get("price"), max)
+                : max == null ? cb.ge(root.get("price"), min)
+                : cb.between(root.get("price"), min, max);
+    }
+
+    public static Specification<Book> publishedBetween(LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        return (root, query, cb) -> from == null ? cb.lessThanOrEqualTo(root.get("publishDate"), to)
+                : to == null ? cb.greaterThanOrEqualTo(root.get("publishDate"), from)
+                : cb.between(root.get("publishDate"), from, to);
+    }
+
+    public static Specification<Book> language(String language) {
+        return isBlank(language) ? null
+                : (root, query, cb) -> cb.equal(detail(root, JoinType.INNER).get("language"), language);
+    }
+
+    public static Specification<Book> publisher(String publisher) {
+        return isBlank(publisher) ? null
+                : (root, query, cb) -> cb.equal(detail(root, JoinType.INNER).get("publisher"), publisher);
+    }
+
+    /**
+     * 이미 만든 bookDetail join 을 재사용하고, 없으면 joinType 으로 만듦
+     * (조건이 먼저 INNER JOIN 을 만들고, BookQueryRepositoryImpl 은 조건이 만들지 않은 경우에만 LEFT JOIN 으로 BookRow 를 채움)
+     */
+    @SuppressWarnings("unchecked")
+    static Join<Book, BookDetail> detail(Root<Book> root, JoinType joinType) {
+        for (Join<Book, ?> join : root.getJoins()) {
+            if (join.getAttribute().getName().equals("bookDetail")) {
+                return (Join<Book, BookDetail>) join;
+            }
+        }
+        return root.join("bookDetail", joinType);
+    }
+
+    private static String containsPattern(String value) {
+        // 기본 Locale 과 관계없이 변환 (tr 에서 "I" 는 점 없는 i 가 됨)
+        String escaped = value.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
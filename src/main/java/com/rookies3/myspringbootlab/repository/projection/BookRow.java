@@ -0,0 +1,16 @@
+package com.rookies3.myspringbootlab.repository.projection;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * 조회 전용 평면(flat) 모델
+ * Book LEFT JOIN BookDetail 한 번으로 채우는 생성자 프로젝션이므로
+ * 엔티티 생성/영속성 컨텍스트 등록/스냅샷 없이, 연관관계 지연 로딩(N+1) 없이 읽을 수 있습니다.
+ * BookDetail 이 없는 도서는 detail 관련 필드가 모두 null 입니다.
+ */
+public record BookRow(Long id, String title, String author, String isbn, Integer price, LocalDate publishDate,
+                      Long version, Instant updatedAt,
+                      Long detailId, String description, String language, Integer pageCount,
+                      String publisher, String coverImageUrl, String edition) {
+}
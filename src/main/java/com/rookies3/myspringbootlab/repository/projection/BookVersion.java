@@ -0,0 +1,10 @@
+package com.rookies3.myspringbootlab.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * 조건부 요청(If-None-Match) 확인용 프로젝션
+ * books 테이블의 version/updated_at 만 읽고 BookDetail(description TEXT) 은 조인하지 않습니다.
+ */
+public record BookVersion(Long id, Long version, Instant updatedAt) {
+}
@@ -0,0 +1,12 @@
+package com.rookies3.myspringbootlab.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * 전체 목록(카탈로그)의 버전 (book_catalog 행)
+ * 도서 등록/수정/삭제와 상세정보 수정이 커밋될 때마다 version 이 올라가므로 같으면 목록 내용도 같다고 봅니다.
+ *
+ * @param lastModified 마지막으로 version 이 올라간 시각 (아직 쓰기가 없으면 null)
+ */
+public record CatalogVersion(Long version, Instant lastModified) {
+}
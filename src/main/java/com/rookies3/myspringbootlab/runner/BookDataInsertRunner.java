@@ -2,35 +2,47 @@ package com.rookies3.myspringbootlab.runner;
 
 import com.rookies3.myspringbootlab.entity.Book;
 import com.rookies3.myspringbootlab.entity.BookDetail;
+import com.rookies3.myspringbootlab.property.BookSeedProperties;
 import com.rookies3.myspringbootlab.repository.BookRepository;
+import com.rookies3.myspringbootlab.seed.SyntheticBookGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
 
 /**
  * 어플리케이션 시작 시 Book과 BookDetail 샘플 데이터를 자동으로 생성하는 러너 클래스
+ * book.seed.enabled=false 로 설정하면 등록되지 않습니다.
+ * book.seed.count 가 0보다 크면 직접 작성한 샘플 대신 SyntheticBookGenerator 로 count 권을 생성합니다. (용량 테스트용)
  */
 @Component
+@ConditionalOnProperty(prefix = "book.seed", name = "enabled", havingValue = "true", matchIfMissing = true)
 @Order(1)
 @RequiredArgsConstructor
 @Slf4j
 public class BookDataInsertRunner implements CommandLineRunner {
 
     private final BookRepository bookRepository;
+    private final BookSeedProperties properties;
+    private final SyntheticBookGenerator syntheticBookGenerator;
 
     /**
      * 어플리케이션 시작 시 실행되는 메서드
      * Book과 BookDetail 샘플 데이터를 생성합니다.
+     * 가상 데이터는 여러 스레드가 각자 트랜잭션으로 저장하므로 이 메서드는 트랜잭션 없이 실행합니다. (saveAll 은 자체 트랜잭션)
      */
     @Override
-    @Transactional
     public void run(String... args) throws Exception {
+        if (properties.getCount() > 0) {
+            syntheticBookGenerator.generate(properties.getCount());
+            return;
+        }
+
         log.info("Starting Book-only data initialization...");
 
         // 기존 데이터가 있는지 확인 (Publisher 없는 Book이 있는지)
@@ -0,0 +1,102 @@
+package com.rookies3.myspringbootlab.runner;
+
+import com.rookies3.myspringbootlab.validation.Isbn;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * isbn13 컬럼이 추가되기 전에 저장된 도서의 isbn13 채우기
+ * ddl-auto=update 로 NOT NULL 컬럼이 추가되면 기존 행은 0 이 되므로 uk_books_isbn13 생성이 실패합니다.
+ * isbn 에서 다시 계산해서 채운 뒤, 인덱스가 없으면 여기서 만듭니다. (다음 시작까지 중복이 허용되지 않도록)
+ * 다음 경우는 자동으로 고칠 수 없으므로 시작을 중단합니다. (수정 또는 삭제 후 다시 시작)
+ * - ISBN-10/13 으로 읽을 수 없는 isbn
+ * - 형식만 다른 같은 ISBN (예: 하이픈 포함/미포함) 이 여러 행에 있어 isbn13 이 겹치는 경우
+ * 채울 행이 없고 인덱스도 있으면 조회 두 번으로 끝납니다.
+ */
+@Component
+@Order(0)
+@RequiredArgsConstructor
+@Slf4j
+public class BookIsbnBackfillRunner implements CommandLineRunner {
+
+    static final String INDEX_NAME = "uk_books_isbn13";
+    // 오류 메시지에 보여줄 최대 행 수
+    private static final int REPORT_LIMIT = 20;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        List<Object[]> updates = new ArrayList<>();
+        List<String> invalid = new ArrayList<>();
+        jdbcTemplate.query("SELECT book_id, isbn FROM books WHERE isbn13 IS NULL OR isbn13 = 0", rs -> {
+            long isbn13 = Isbn.normalize(rs.getString("isbn"));
+            if (isbn13 == Isbn.INVALID) {
+                invalid.add("book_id=" + rs.getLong("book_id") + " isbn='" + rs.getString("isbn") + "'");
+            } else {
+                updates.add(new Object[]{isbn13, rs.getLong("book_id")});
+            }
+        });
+        if (!invalid.isEmpty()) {
+            throw new IllegalStateException("Cannot fill isbn13 for " + invalid.size()
+                    + " books with an invalid ISBN, fix or delete them: " + report(invalid));
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE books SET isbn13 = ? WHERE book_id = ?", updates);
+            log.info("Filled isbn13 for {} books", updates.size());
+        }
+
+        if (hasUniqueIndex()) {
+            return;
+        }
+        List<String> duplicates = jdbcTemplate.query(
+                "SELECT isbn13, COUNT(*) AS books, MIN(book_id) AS first_id, MAX(book_id) AS last_id "
+                        + "FROM books GROUP BY isbn13 HAVING COUNT(*) > 1",
+                (rs, rowNum) -> "isbn13=" + rs.getLong("isbn13") + " (" + rs.getLong("books") + " books, book_id "
+                        + rs.getLong("first_id") + ".." + rs.getLong("last_id") + ")");
+        if (!duplicates.isEmpty()) {
+            throw new IllegalStateException("Cannot create " + INDEX_NAME + ", " + duplicates.size()
+                    + " ISBNs are stored more than once in different formats, merge them: " + report(duplicates));
+        }
+        // Hibernate 가 @Index(unique = true) 로 만드는 것과 같은 unique 제약조건
+        jdbcTemplate.execute("ALTER TABLE books ADD CONSTRAINT " + INDEX_NAME + " UNIQUE (isbn13)");
+        log.info("Created {}", INDEX_NAME);
+    }
+
+    // isbn13 하나로 된 unique 인덱스가 있는지 (H2 는 제약조건의 인덱스 이름이 uk_books_isbn13_index_n)
+    private boolean hasUniqueIndex() {
+        Boolean found = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String table = metaData.storesUpperCaseIdentifiers() ? "BOOKS" : "books";
+            Map<String, List<String>> columns = new HashMap<>();
+            try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), null, table, true, false)) {
+                while (indexes.next()) {
+                    if (indexes.getString("INDEX_NAME") != null && indexes.getString("COLUMN_NAME") != null) {
+                        columns.computeIfAbsent(indexes.getString("INDEX_NAME"), name -> new ArrayList<>())
+                                .add(indexes.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            return columns.containsValue(List.of("isbn13"));
+        });
+        return Boolean.TRUE.equals(found);
+    }
+
+    private static String report(List<String> rows) {
+        List<String> shown = rows.subList(0, Math.min(rows.size(), REPORT_LIMIT));
+        return String.join(", ", shown) + (rows.size() > REPORT_LIMIT ? ", ..." : "");
+    }
+}
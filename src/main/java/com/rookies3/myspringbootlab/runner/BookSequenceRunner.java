@@ -0,0 +1,53 @@
+package com.rookies3.myspringbootlab.runner;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * books_seq, book_details_seq 를 저장된 최대 id 뒤로 이동
+ * IDENTITY 로 저장하던 DB 에 ddl-auto=update 로 시퀀스가 새로 만들어지면 1 부터 시작하므로 기존 id 와 겹칩니다.
+ * JDBC 로 직접 id 를 정해서 저장한 경우(SyntheticBookGenerator)에도 호출합니다.
+ * 시퀀스는 앞으로만 이동하므로 이미 충분히 앞에 있으면 그대로 둡니다.
+ */
+@Component
+@Order(0)
+@RequiredArgsConstructor
+@Slf4j
+public class BookSequenceRunner implements CommandLineRunner {
+
+    // Book, BookDetail 의 @SequenceGenerator 와 같은 값
+    private static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        advance("books_seq", "SELECT COALESCE(MAX(book_id), 0) FROM books");
+        advance("book_details_seq", "SELECT COALESCE(MAX(book_detail_id), 0) FROM book_details");
+    }
+
+    private void advance(String sequence, String maxIdQuery) {
+        long maxId = queryForLong(maxIdQuery);
+        if (maxId == 0) {
+            // 빈 테이블이면 시퀀스 값을 소비하지 않음 (id 가 1 부터 시작하도록)
+            return;
+        }
+        // pooled optimizer 는 시퀀스 값 v 를 받으면 (v - allocationSize, v] 범위의 id 를 사용
+        // 값을 하나 소비하므로 다음에 Hibernate 가 받는 값은 next + allocationSize 이상
+        long next = queryForLong("SELECT NEXT VALUE FOR " + sequence);
+        if (next >= maxId) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + ALLOCATION_SIZE));
+        log.info("Moved {} past max id {}", sequence, maxId);
+    }
+
+    private long queryForLong(String sql) {
+        Long value = jdbcTemplate.queryForObject(sql, Long.class);
+        return value != null ? value : 0L;
+    }
+}
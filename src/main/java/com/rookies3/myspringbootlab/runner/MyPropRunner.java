@@ -8,10 +8,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
+// 설정값 확인용 러너 : myprop.runner.enabled=false 이면 등록되지 않습니다. (fast-startup 프로필)
 @Component
+@ConditionalOnProperty(prefix = "myprop.runner", name = "enabled", havingValue = "true", matchIfMissing = true)
 public class MyPropRunner implements ApplicationRunner {
     @Value("${myprop.username}")
     private String username;
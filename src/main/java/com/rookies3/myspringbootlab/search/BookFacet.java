@@ -0,0 +1,21 @@
+package com.rookies3.myspringbootlab.search;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 패싯(facet) 종류 : 값별 도서 수를 GET /api/books/facets 로 제공
+ * 값이 없는(null) 도서는 해당 패싯에서 세지 않습니다.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum BookFacet {
+    PUBLISHER("publisher"),
+    LANGUAGE("language"),
+    // 가격 구간 (book.facets.price-buckets)
+    PRICE("price"),
+    // 출간 연도
+    YEAR("year");
+
+    private final String property;
+}
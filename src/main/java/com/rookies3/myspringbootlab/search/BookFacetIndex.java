@@ -0,0 +1,446 @@
+package com.rookies3.myspringbootlab.search;
+
+import com.rookies3.myspringbootlab.cache.BookJsonCache;
+import com.rookies3.myspringbootlab.datasource.ReplicaRoutingDataSource;
+import com.rookies3.myspringbootlab.event.BookChangedEvent;
+import com.rookies3.myspringbootlab.event.BookSnapshot;
+import com.rookies3.myspringbootlab.property.BookFacetProperties;
+import com.rookies3.myspringbootlab.repository.BookRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * 출판사/언어/가격 구간/출간 연도별 도서 수의 메모리 집계
+ * - 도서마다 재사용되는 순번(ordinal)을 주고, 패싯 값마다 해당 순번의 BitSet 과 도서 수를 유지합니다.
+ * - 시작 시 BookRepository 로 만들고 BookChangedEvent 로 등록/수정/삭제를 반영합니다. (값이 바뀌면 이전 값에서 빼고 새 값에 더함)
+ * - reconcileInterval 마다 DB 로 새로 만들어 교체하며, 이벤트로 유지한 값과 다른 도서 수를 drift 로 기록합니다.
+ *   drift 가 있으면 캐시된 패싯 응답(BookJsonCache 목록)도 무효화합니다.
+ *   (구축 중에 커밋된 변경은 구축이 끝난 뒤 새 집계에도 다시 적용)
+ * - 검색어/선택한 값으로 좁힐 때는 BitSet 교집합으로 좁힌 도서의 순번을 따라가며 도서별 값을 셉니다.
+ *   (값마다 BitSet 을 복사하지 않으므로 패싯 값 수와 관계없이 좁힌 도서 수에 비례) 각 패싯은 자기 패싯을 제외한 선택 값으로만 좁힙니다.
+ * 메트릭 : book.facets.books, book.facets.reconcile.drift
+ */
+@Component
+@Slf4j
+public class BookFacetIndex {
+
+    private static final BookFacet[] FACETS = BookFacet.values();
+
+    private final BookRepository bookRepository;
+    private final BookJsonCache bookJsonCache;
+    private final BookFacetProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter drift;
+    // 가격 구간 경계 (오름차순) 와 구간 이름
+    private final int[] priceBounds;
+    private final List<String> priceLabels;
+
+    private volatile FacetState state;
+    // 구축 중에 커밋된 변경 (구축 중이 아니면 null)
+    private List<BookChangedEvent> pendingChanges;
+    private final Object changeLock = new Object();
+    private final Object rebuildLock = new Object();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "facet-reconcile");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public record ValueCount(String value, int count) {
+    }
+
+    /**
+     * @param total  검색어와 선택한 값을 모두 만족하는 도서 수
+     * @param facets 패싯별 값과 도서 수 (BookFacet 순서)
+     */
+    public record Result(int total, Map<BookFacet, List<ValueCount>> facets) {
+    }
+
+    public BookFacetIndex(BookRepository bookRepository, BookJsonCache bookJsonCache, BookFacetProperties properties,
+                          PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.bookRepository = bookRepository;
+        this.bookJsonCache = bookJsonCache;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.priceBounds = properties.getPriceBuckets().stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+        this.priceLabels = priceLabels(priceBounds);
+        this.drift = Counter.builder("book.facets.reconcile.drift")
+                .description("Books whose incrementally maintained facet values differed from the database")
+                .register(meterRegistry);
+        Gauge.builder("book.facets.books", this, index -> {
+                    FacetState current = index.state;
+                    return current != null ? current.size() : 0;
+                })
+                .description("Books in the facet aggregates")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 첫 구축이 끝나기 전(또는 비활성화된 경우)에는 false
+     */
+    public boolean isReady() {
+        return state != null;
+    }
+
+    // 워밍업(BookWarmup) 보다 먼저 구축
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void build() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        reconcile();
+        long interval = properties.getReconcileInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::reconcileQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * DB 로 집계를 새로 만들어 교체합니다.
+     *
+     * @return 기존 집계와 값이 달랐던 도서 수 (첫 구축이면 0)
+     */
+    public int reconcile() {
+        synchronized (rebuildLock) {
+            synchronized (changeLock) {
+                pendingChanges = new ArrayList<>();
+            }
+            long start = System.nanoTime();
+            FacetState next = new FacetState();
+            // 구축 이후의 변경만 pendingChanges 로 반영하므로 복제 지연이 없는 primary 에서 읽음
+            ReplicaRoutingDataSource.runOnPrimary(() -> transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<BookSnapshot> snapshots = bookRepository.streamAllSnapshots()) {
+                    snapshots.forEach(snapshot -> next.put(snapshot.id(), values(snapshot)));
+                }
+            }));
+
+            FacetState previous;
+            synchronized (changeLock) {
+                pendingChanges.forEach(event -> apply(next, event));
+                pendingChanges = null;
+                previous = state;
+                state = next;
+            }
+            int drifted = previous != null ? previous.countDifferences(next) : 0;
+            if (drifted > 0) {
+                drift.increment(drifted);
+                // 이전 집계로 만든 응답이 캐시에 남지 않도록
+                bookJsonCache.invalidateLists();
+                log.warn("Facet aggregates drifted from the database for {} books, replaced", drifted);
+            }
+            log.info("Book facets built: {} books in {} ms", next.size(), (System.nanoTime() - start) / 1_000_000);
+            return drifted;
+        }
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.type() == BookChangedEvent.Type.DETAIL_UPDATED) {
+            // 집계하는 값(출판사/언어/가격/출간일)은 바뀌지 않았음
+            return;
+        }
+        synchronized (changeLock) {
+            FacetState current = state;
+            if (current != null) {
+                apply(current, event);
+            }
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+            }
+        }
+    }
+
+    /**
+     * @param ids      검색어와 일치하는 도서 id (null 이면 전체 도서)
+     * @param selected 패싯별로 선택한 값 (AND)
+     * @param size     패싯별 최대 값 수
+     */
+    public Result facets(Collection<Long> ids, Map<BookFacet, String> selected, int size) {
+        FacetState current = state;
+        if (current == null) {
+            throw new IllegalStateException("Facet aggregates are not built yet");
+        }
+        return current.query(ids, selected, size);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            // 실패하면 이벤트로 유지한 집계를 계속 사용
+            log.warn("Facet reconcile failed", e);
+        }
+    }
+
+    private void apply(FacetState target, BookChangedEvent event) {
+        if (event.after() != null) {
+            target.put(event.bookId(), values(event.after()));
+        } else {
+            target.remove(event.bookId());
+        }
+    }
+
+    /**
+     * 도서의 패싯 값 (BookFacet 순서, 값이 없으면 null)
+     */
+    private String[] values(BookSnapshot snapshot) {
+        String[] values = new String[FACETS.length];
+        values[BookFacet.PUBLISHER.ordinal()] = blankToNull(snapshot.publisher());
+        values[BookFacet.LANGUAGE.ordinal()] = blankToNull(snapshot.language());
+        values[BookFacet.PRICE.ordinal()] = snapshot.price() != null ? priceLabel(snapshot.price()) : null;
+        values[BookFacet.YEAR.ordinal()] = snapshot.publishDate() != null
+                ? String.valueOf(snapshot.publishDate().getYear()) : null;
+        return values;
+    }
+
+    private String priceLabel(int price) {
+        int bucket = 0;
+        while (bucket < priceBounds.length && price >= priceBounds[bucket]) {
+            bucket++;
+        }
+        return priceLabels.get(bucket);
+    }
+
+    // 10000,20000 -> 0-9999, 10000-19999, 20000+
+    private static List<String> priceLabels(int[] bounds) {
+        List<String> labels = new ArrayList<>(bounds.length + 1);
+        int lower = 0;
+        for (int bound : bounds) {
+            labels.add(lower + "-" + (bound - 1));
+            lower = bound;
+        }
+        labels.add(lower + "+");
+        return labels;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private Comparator<ValueCount> order(BookFacet facet) {
+        return switch (facet) {
+            // 가격은 구간 순서, 연도는 최근 순
+            case PRICE -> Comparator.comparingInt(count -> priceLabels.indexOf(count.value()));
+            case YEAR -> Comparator.comparing(ValueCount::value, Comparator.comparingInt(Integer::parseInt)).reversed();
+            default -> Comparator.comparingInt(ValueCount::count).reversed().thenComparing(ValueCount::value);
+        };
+    }
+
+    /**
+     * 한 번 구축된 집계 (reconcile 할 때마다 새로 만들어 교체)
+     * 삭제된 도서의 순번은 다시 사용하므로 BitSet 크기는 도서 수를 넘지 않습니다.
+     */
+    private final class FacetState {
+
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        // 순번 -> 패싯 값 (비어 있는 순번은 null)
+        private final List<String[]> bookValues = new ArrayList<>();
+        private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+        private final BitSet live = new BitSet();
+        private final Map<BookFacet, Map<String, BitSet>> postings = new EnumMap<>(BookFacet.class);
+        private final Map<BookFacet, Map<String, Integer>> counts = new EnumMap<>(BookFacet.class);
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        FacetState() {
+            for (BookFacet facet : FACETS) {
+                postings.put(facet, new HashMap<>());
+                counts.put(facet, new HashMap<>());
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return ordinals.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void put(Long id, String[] values) {
+            lock.writeLock().lock();
+            try {
+                Integer ordinal = ordinals.get(id);
+                if (ordinal != null) {
+                    String[] previous = bookValues.get(ordinal);
+                    if (Arrays.equals(previous, values)) {
+                        return;
+                    }
+                    // 바뀐 값만 이전 값에서 빼고 새 값에 더함 (예: 가격 구간, 출간 연도 이동)
+                    for (BookFacet facet : FACETS) {
+                        int i = facet.ordinal();
+                        if (!Objects.equals(previous[i], values[i])) {
+                            unindex(facet, previous[i], ordinal);
+                            index(facet, values[i], ordinal);
+                        }
+                    }
+                } else {
+                    ordinal = freeOrdinals.isEmpty() ? bookValues.size() : freeOrdinals.pop();
+                    if (ordinal == bookValues.size()) {
+                        bookValues.add(null);
+                    }
+                    ordinals.put(id, ordinal);
+                    live.set(ordinal);
+                    for (BookFacet facet : FACETS) {
+                        index(facet, values[facet.ordinal()], ordinal);
+                    }
+                }
+                bookValues.set(ordinal, values);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Long id) {
+            lock.writeLock().lock();
+            try {
+                Integer ordinal = ordinals.remove(id);
+                if (ordinal == null) {
+                    return;
+                }
+                String[] previous = bookValues.set(ordinal, null);
+                for (BookFacet facet : FACETS) {
+                    unindex(facet, previous[facet.ordinal()], ordinal);
+                }
+                live.clear(ordinal);
+                freeOrdinals.push(ordinal);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * 두 집계에서 패싯 값이 다르거나 한쪽에만 있는 도서 수
+         */
+        int countDifferences(FacetState other) {
+            lock.readLock().lock();
+            other.lock.readLock().lock();
+            try {
+                int differences = 0;
+                for (Map.Entry<Long, Integer> entry : ordinals.entrySet()) {
+                    Integer otherOrdinal = other.ordinals.get(entry.getKey());
+                    if (otherOrdinal == null
+                            || !Arrays.equals(bookValues.get(entry.getValue()), other.bookValues.get(otherOrdinal))) {
+                        differences++;
+                    }
+                }
+                for (Long id : other.ordinals.keySet()) {
+                    if (!ordinals.containsKey(id)) {
+                        differences++;
+                    }
+                }
+                return differences;
+            } finally {
+                other.lock.readLock().unlock();
+                lock.readLock().unlock();
+            }
+        }
+
+        Result query(Collection<Long> ids, Map<BookFacet, String> selected, int size) {
+            lock.readLock().lock();
+            try {
+                BitSet base;
+                if (ids == null) {
+                    base = (BitSet) live.clone();
+                } else {
+                    base = new BitSet();
+                    for (Long id : ids) {
+                        Integer ordinal = ordinals.get(id);
+                        if (ordinal != null) {
+                            base.set(ordinal);
+                        }
+                    }
+                }
+                Map<BookFacet, BitSet> selections = new EnumMap<>(BookFacet.class);
+                selected.forEach((facet, value) ->
+                        selections.put(facet, postings.get(facet).getOrDefault(value, new BitSet())));
+
+                BitSet all = (BitSet) base.clone();
+                selections.values().forEach(all::and);
+
+                Map<BookFacet, List<ValueCount>> facets = new EnumMap<>(BookFacet.class);
+                for (BookFacet facet : FACETS) {
+                    List<ValueCount> values = new ArrayList<>();
+                    if (ids == null && selections.keySet().stream().allMatch(facet::equals)) {
+                        // 좁히지 않으면 유지하고 있는 도서 수를 그대로 사용
+                        counts.get(facet).forEach((value, count) -> values.add(new ValueCount(value, count)));
+                    } else {
+                        BitSet mask = (BitSet) base.clone();
+                        selections.forEach((other, bits) -> {
+                            if (other != facet) {
+                                mask.and(bits);
+                            }
+                        });
+                        Map<String, Integer> hits = new HashMap<>();
+                        for (int ordinal = mask.nextSetBit(0); ordinal >= 0; ordinal = mask.nextSetBit(ordinal + 1)) {
+                            String value = bookValues.get(ordinal)[facet.ordinal()];
+                            if (value != null) {
+                                hits.merge(value, 1, Integer::sum);
+                            }
+                        }
+                        hits.forEach((value, count) -> values.add(new ValueCount(value, count)));
+                    }
+                    values.sort(order(facet));
+                    facets.put(facet, values.size() > size ? List.copyOf(values.subList(0, size)) : values);
+                }
+                return new Result(all.cardinality(), facets);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void index(BookFacet facet, String value, int ordinal) {
+            if (value == null) {
+                return;
+            }
+            postings.get(facet).computeIfAbsent(value, key -> new BitSet()).set(ordinal);
+            counts.get(facet).merge(value, 1, Integer::sum);
+        }
+
+        private void unindex(BookFacet facet, String value, int ordinal) {
+            if (value == null) {
+                return;
+            }
+            Map<String, BitSet> byValue = postings.get(facet);
+            BitSet bits = byValue.get(value);
+            bits.clear(ordinal);
+            if (bits.isEmpty()) {
+                byValue.remove(value);
+            }
+            counts.get(facet).compute(value, (key, count) -> count == null || count <= 1 ? null : count - 1);
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.rookies3.myspringbootlab.search;
+
+import com.rookies3.myspringbootlab.datasource.ReplicaRoutingDataSource;
+import com.rookies3.myspringbootlab.event.BookChangedEvent;
+import com.rookies3.myspringbootlab.event.BookSnapshot;
+import com.rookies3.myspringbootlab.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * 제목/저자 검색용 메모리 역색인(inverted index)
+ * 정규화(NFKC + 소문자)한 문자열을 1-gram/2-gram 으로 잘라 gram -> book_id 목록을 유지합니다.
+ * 한글은 음절 단위, 영문은 문자 단위 gram 이므로 별도 형태소 분석 없이 부분 문자열 검색이 가능합니다.
+ * 검색은 gram 목록의 교집합으로 후보를 구한 뒤 원문 포함 여부를 다시 확인하므로
+ * 결과는 기존 LIKE '%x%' 검색과 같고, 비용은 테이블 크기가 아닌 후보 수에 비례합니다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookSearchIndex {
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int AUTHOR_WEIGHT = 2;
+
+    private final BookRepository bookRepository;
+
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> titlePostings = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> authorPostings = new ConcurrentHashMap<>();
+
+    // 인덱스 구축 중에 커밋된 변경은 구축이 끝난 뒤 순서대로 다시 적용합니다.
+    private final Object buildLock = new Object();
+    private List<Runnable> pendingChanges;
+    private volatile boolean ready;
+
+    private record Document(String title, String author) {
+    }
+
+    /**
+     * 인덱스 구축이 끝나기 전에는 false 이며, 이때 호출자는 DB 검색으로 대체해야 합니다.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    // 워밍업(BookWarmup) 보다 먼저 구축
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    @Transactional(readOnly = true)
+    public void build() {
+        synchronized (buildLock) {
+            pendingChanges = new ArrayList<>();
+        }
+        long start = System.nanoTime();
+
+        // 구축 이후의 변경만 pendingChanges 로 반영하므로 복제 지연이 없는 primary 에서 읽음
+        // (커넥션은 첫 SQL 에서 가져오므로 트랜잭션 안에서 고정해도 됨)
+        ReplicaRoutingDataSource.runOnPrimary(() -> {
+            try (Stream<BookSnapshot> snapshots = bookRepository.streamAllSnapshots()) {
+                snapshots.forEach(this::put);
+            }
+        });
+
+        synchronized (buildLock) {
+            pendingChanges.forEach(Runnable::run);
+            pendingChanges = null;
+        }
+        ready = true;
+        log.info("Book search index built: {} books, {} title grams, {} author grams in {} ms",
+                documents.size(), titlePostings.size(), authorPostings.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.type() == BookChangedEvent.Type.DETAIL_UPDATED) {
+            // 색인하는 값(제목/저자 등)은 바뀌지 않았음
+            return;
+        }
+        Runnable change = event.after() != null
+                ? () -> put(event.after())
+                : () -> remove(event.bookId());
+        synchronized (buildLock) {
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+                return;
+            }
+        }
+        change.run();
+    }
+
+    /**
+     * 제목에 query 가 포함된 도서 id 목록 (id 오름차순)
+     */
+    public List<Long> searchTitle(String query) {
+        return match(titlePostings, Document::title, normalize(query));
+    }
+
+    /**
+     * 저자에 query 가 포함된 도서 id 목록 (id 오름차순)
+     */
+    public List<Long> searchAuthor(String query) {
+        return match(authorPostings, Document::author, normalize(query));
+    }
+
+    /**
+     * 제목/저자 통합 검색
+     * 공백으로 나눈 검색어마다 제목(가중치 3) 과 저자(가중치 2) 를 확인하고,
+     * 값 전체가 같으면 4배, 단어의 시작과 일치하면 2배의 점수를 줍니다.
+     *
+     * @return 점수 내림차순(동점이면 id 오름차순)으로 정렬된 최대 limit 개의 도서 id
+     */
+    public List<Long> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Integer> scores = new HashMap<>();
+        for (String term : new LinkedHashSet<>(List.of(normalized.split("\\s+")))) {
+            for (Long id : match(titlePostings, Document::title, term)) {
+                scores.merge(id, score(documents.get(id), Document::title, term, TITLE_WEIGHT), Integer::sum);
+            }
+            for (Long id : match(authorPostings, Document::author, term)) {
+                scores.merge(id, score(documents.get(id), Document::author, term, AUTHOR_WEIGHT), Integer::sum);
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * search 와 같은 조건(검색어 중 하나라도 제목 또는 저자에 포함)을 만족하는 모든 도서 id (순서 없음)
+     */
+    public Set<Long> matchingIds(String query) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<Long> ids = new HashSet<>();
+        for (String term : new LinkedHashSet<>(List.of(normalized.split("\\s+")))) {
+            ids.addAll(match(titlePostings, Document::title, term));
+            ids.addAll(match(authorPostings, Document::author, term));
+        }
+        return ids;
+    }
+
+    private void put(BookSnapshot snapshot) {
+        remove(snapshot.id());
+        Document document = new Document(normalize(snapshot.title()), normalize(snapshot.author()));
+        documents.put(snapshot.id(), document);
+        grams(document.title()).forEach(gram -> addPosting(titlePostings, gram, snapshot.id()));
+        grams(document.author()).forEach(gram -> addPosting(authorPostings, gram, snapshot.id()));
+    }
+
+    private void remove(Long id) {
+        Document document = documents.remove(id);
+        if (document != null) {
+            grams(document.title()).forEach(gram -> removePosting(titlePostings, gram, id));
+            grams(document.author()).forEach(gram -> removePosting(authorPostings, gram, id));
+        }
+    }
+
+    private List<Long> match(Map<String, Set<Long>> postings, Function<Document, String> field, String query) {
+        if (query.isEmpty()) {
+            return List.of();
+        }
+
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : queryGrams(query)) {
+            Set<Long> posting = postings.get(gram);
+            if (posting == null) {
+                return List.of();
+            }
+            lists.add(posting);
+        }
+        // 가장 짧은 목록을 기준으로 교집합을 구합니다.
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        List<Long> result = new ArrayList<>();
+        for (Long id : lists.get(0)) {
+            if (containsInAll(lists, id)) {
+                Document document = documents.get(id);
+                // gram 교집합은 후보일 뿐이므로 실제 포함 여부를 확인 (예: "ab"+"bc" 는 "abc" 가 아닌 "ab..bc" 와도 일치)
+                if (document != null && field.apply(document).contains(query)) {
+                    result.add(id);
+                }
+            }
+        }
+        result.sort(null);
+        return result;
+    }
+
+    private static boolean containsInAll(List<Set<Long>> lists, Long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int score(Document document, Function<Document, String> field, String term, int weight) {
+        String value = field.apply(document);
+        if (value.equals(term)) {
+            return weight * 4;
+        }
+        if (value.startsWith(term) || value.contains(" " + term)) {
+            return weight * 2;
+        }
+        return weight;
+    }
+
+    private static void addPosting(Map<String, Set<Long>> postings, String gram, Long id) {
+        postings.compute(gram, (key, ids) -> {
+            Set<Long> result = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            result.add(id);
+            return result;
+        });
+    }
+
+    private static void removePosting(Map<String, Set<Long>> postings, String gram, Long id) {
+        postings.computeIfPresent(gram, (key, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT).strip();
+    }
+
+    /**
+     * 색인용 gram : 공백을 제외한 모든 1-gram 과 2-gram
+     */
+    static Set<String> grams(String normalized) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i < normalized.length(); i++) {
+            char current = normalized.charAt(i);
+            if (Character.isWhitespace(current)) {
+                continue;
+            }
+            grams.add(String.valueOf(current));
+            if (i + 1 < normalized.length() && !Character.isWhitespace(normalized.charAt(i + 1))) {
+                grams.add(normalized.substring(i, i + 2));
+            }
+        }
+        return grams;
+    }
+
+    /**
+     * 검색용 gram : 2-gram 이 있으면 2-gram 만(선택도가 높음), 한 글자 검색어는 1-gram
+     */
+    static Set<String> queryGrams(String normalized) {
+        Set<String> bigrams = new HashSet<>();
+        Set<String> unigrams = new HashSet<>();
+        for (String gram : grams(normalized)) {
+            (gram.length() == 2 ? bigrams : unigrams).add(gram);
+        }
+        return bigrams.isEmpty() ? unigrams : bigrams;
+    }
+}
@@ -0,0 +1,213 @@
+package com.rookies3.myspringbootlab.seed;
+
+import com.rookies3.myspringbootlab.property.BookSeedProperties;
+import com.rookies3.myspringbootlab.runner.BookSequenceRunner;
+import com.rookies3.myspringbootlab.service.BookCatalogService;
+import com.rookies3.myspringbootlab.validation.Isbn;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 가상 도서(SyntheticBooks)를 여러 스레드에서 만들어 JDBC batch insert 로 저장합니다.
+ * index 범위를 batchSize 단위로 나눠 producers 개의 스레드가 나눠 처리하며, 한 단위가 한 트랜잭션입니다.
+ * id 는 기존 최대 id 다음부터 index 순서대로 부여하므로 빈 DB 에서는 실행할 때마다 같은 id 가 됩니다.
+ * 이미 도서가 있으면 ISBN 이 이미 저장된 index 는 건너뜁니다. 단위마다 따로 커밋되어 중단 시점에 저장된 index 가
+ * 연속되지 않으므로 도서 수가 아닌 ISBN 으로 확인합니다. (이어서 생성한 행의 id 는 처음 실행과 다를 수 있음)
+ * 엔티티/영속성 컨텍스트를 거치지 않으므로 BookChangedEvent 는 발행하지 않습니다. (시작 시 캐시/검색 인덱스가 비어 있을 때만 사용)
+ * 대신 생성이 끝나면 카탈로그 버전을 직접 올립니다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SyntheticBookGenerator {
+
+    private static final String INSERT_BOOK = "INSERT INTO books " +
+            "(book_id, title, author, isbn, isbn13, price, publish_date, version, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, 0, ?)";
+    private static final String INSERT_DETAIL = "INSERT INTO book_details " +
+            "(book_detail_id, description, language, page_count, publisher, cover_image_url, edition, version, book_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, 0, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final BookSeedProperties properties;
+    private final BookSequenceRunner bookSequenceRunner;
+    private final BookCatalogService bookCatalogService;
+
+    public record Result(long books, long details, Duration elapsed) {
+
+        public double rowsPerSecond() {
+            return elapsed.isZero() ? 0 : (books + details) / (elapsed.toNanos() / 1_000_000_000.0);
+        }
+    }
+
+    private record Chunk(long firstIndex, long endIndex) {
+    }
+
+    private record Written(int books, int details) {
+    }
+
+    /**
+     * books 테이블이 count 권이 되도록 채웁니다.
+     * index 0 ~ count-1 중 ISBN 이 이미 저장된 index 는 건너뛰므로, 같은 seed 로 중단된 생성을 이어서 실행할 수 있습니다.
+     */
+    public Result generate(long count) {
+        if (count > SyntheticBooks.MAX_BOOKS) {
+            throw new IllegalArgumentException("count must not exceed " + SyntheticBooks.MAX_BOOKS + ": " + count);
+        }
+        long existing = queryForLong("SELECT COUNT(*) FROM books");
+        if (existing >= count) {
+            log.info("Sufficient book data already exists ({} books), skipping synthetic data generation", existing);
+            return new Result(0, 0, Duration.ZERO);
+        }
+
+        // 새 행은 모두 기존 최대 id 뒤에 저장하므로 어느 index 를 건너뛰어도 기존 id 와 겹치지 않음
+        long bookIdBase = queryForLong("SELECT COALESCE(MAX(book_id), 0) FROM books");
+        long detailIdBase = queryForLong("SELECT COALESCE(MAX(book_detail_id), 0) FROM book_details");
+        boolean resume = existing > 0;
+        SyntheticBooks books = new SyntheticBooks(properties.getSeed(), properties.getDetailRatio(),
+                properties.getKoreanRatio(), properties.getIsbn10Ratio());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int producers = Math.max(properties.getProducers(), 1);
+        log.info("Generating {} synthetic books (seed={}, producers={}, batchSize={}, existing={})",
+                count, properties.getSeed(), producers, properties.getBatchSize(), existing);
+
+        AtomicLong processed = new AtomicLong();
+        AtomicLong written = new AtomicLong();
+        AtomicLong detailsWritten = new AtomicLong();
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(producers, new CustomizableThreadFactory("book-seed-"));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (long from = 0; from < count; from += properties.getBatchSize()) {
+                Chunk chunk = new Chunk(from, Math.min(from + properties.getBatchSize(), count));
+                futures.add(executor.submit(() -> {
+                    Written chunkWritten = transactionTemplate.execute(status ->
+                            write(books, chunk, bookIdBase, detailIdBase, resume));
+                    written.addAndGet(chunkWritten.books());
+                    detailsWritten.addAndGet(chunkWritten.details());
+                    reportProgress(processed.addAndGet(chunk.endIndex() - chunk.firstIndex()), count, start);
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Synthetic data generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Synthetic data generation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 이후 JPA 로 저장하는 도서가 생성한 id 와 겹치지 않도록 시퀀스를 최대 id 뒤로 이동
+        bookSequenceRunner.run();
+        bookCatalogService.bump();
+
+        Result result = new Result(written.get(), detailsWritten.get(), Duration.ofNanos(System.nanoTime() - start));
+        log.info("Generated {} books and {} details in {} ms ({} rows/sec)", result.books(), result.details(),
+                result.elapsed().toMillis(), Math.round(result.rowsPerSecond()));
+        return result;
+    }
+
+    private Written write(SyntheticBooks books, Chunk chunk, long bookIdBase, long detailIdBase, boolean resume) {
+        List<SyntheticBooks.Row> generated = new ArrayList<>((int) (chunk.endIndex() - chunk.firstIndex()));
+        for (long index = chunk.firstIndex(); index < chunk.endIndex(); index++) {
+            generated.add(books.row(index));
+        }
+        Set<Long> stored = resume ? findStoredIsbns(generated) : Collections.emptySet();
+
+        List<SyntheticBooks.Row> rows = new ArrayList<>(generated.size());
+        List<SyntheticBooks.Row> withDetails = new ArrayList<>(generated.size());
+        for (SyntheticBooks.Row row : generated) {
+            if (stored.contains(Isbn.normalize(row.isbn()))) {
+                continue;
+            }
+            rows.add(row);
+            if (row.detail() != null) {
+                withDetails.add(row);
+            }
+        }
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+
+        jdbcTemplate.batchUpdate(INSERT_BOOK, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, bookIdBase + row.index() + 1);
+            ps.setString(2, row.title());
+            ps.setString(3, row.author());
+            ps.setString(4, row.isbn());
+            ps.setLong(5, Isbn.normalize(row.isbn()));
+            ps.setInt(6, row.price());
+            ps.setDate(7, Date.valueOf(row.publishDate()));
+            // Instant 는 Hibernate 와 같이 UTC 기준으로 저장
+            ps.setTimestamp(8, Timestamp.from(row.updatedAt()), utc);
+        });
+        jdbcTemplate.batchUpdate(INSERT_DETAIL, withDetails, withDetails.size(), (ps, row) -> {
+            SyntheticBooks.Detail detail = row.detail();
+            ps.setLong(1, detailIdBase + row.index() + 1);
+            ps.setString(2, detail.description());
+            ps.setString(3, detail.language());
+            ps.setInt(4, detail.pageCount());
+            ps.setString(5, detail.publisher());
+            setNullableString(ps, 6, detail.coverImageUrl());
+            ps.setString(7, detail.edition());
+            ps.setLong(8, bookIdBase + row.index() + 1);
+        });
+        return new Written(rows.size(), withDetails.size());
+    }
+
+    private Set<Long> findStoredIsbns(List<SyntheticBooks.Row> rows) {
+        if (rows.isEmpty()) {
+            return Collections.emptySet();
+        }
+        String placeholders = String.join(",", Collections.nCopies(rows.size(), "?"));
+        Object[] isbn13s = rows.stream().map(row -> Isbn.normalize(row.isbn())).toArray();
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT isbn13 FROM books WHERE isbn13 IN (" + placeholders + ")", Long.class, isbn13s));
+    }
+
+    private void reportProgress(long done, long total, long start) {
+        long interval = Math.max(properties.getProgressInterval(), 1);
+        if (done == total || done / interval != (done - properties.getBatchSize()) / interval) {
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            log.info("Synthetic books: {}/{} ({}%), {} books/sec",
+                    done, total, done * 100 / total, Math.round(done / Math.max(seconds, 0.001)));
+        }
+    }
+
+    private long queryForLong(String sql) {
+        Long value = jdbcTemplate.queryForObject(sql, Long.class);
+        return value != null ? value : 0L;
+    }
+
+    private static void setNullableString(PreparedStatement ps, int index, String value) throws SQLException {
+        if (value != null) {
+            ps.setString(index, value);
+        } else {
+            ps.setNull(index, Types.VARCHAR);
+        }
+    }
+}
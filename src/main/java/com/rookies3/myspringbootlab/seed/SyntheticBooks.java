@@ -0,0 +1,168 @@
+package com.rookies3.myspringbootlab.seed;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * 용량 테스트용 가상 도서 데이터
+ * 각 행은 (seed, index) 만으로 결정되므로 어느 스레드가 어떤 순서로 만들어도 같은 seed 이면 같은 데이터가 나옵니다.
+ * ISBN 은 index 를 10^9 범위에서 섞은(곱셈 순열) 9자리 본문에 체크 숫자를 붙여 만들어서
+ * index 가 다르면 항상 다르고 체크섬도 유효합니다. (ISBN-10 은 10자리, ISBN-13 은 979 로 시작하는 13자리)
+ */
+public final class SyntheticBooks {
+
+    // index < 10^9 인 동안 ISBN 본문이 겹치지 않음
+    public static final long MAX_BOOKS = 1_000_000_000L;
+    // 10^9 과 서로소 (3^18) 이므로 index -> 본문이 일대일 대응
+    private static final long ISBN_MULTIPLIER = 387_420_489L;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private static final LocalDate FIRST_PUBLISH_DATE = LocalDate.of(1990, 1, 1);
+    private static final int PUBLISH_DATE_RANGE_DAYS = 35 * 365;
+    private static final Instant LAST_UPDATED_AT = Instant.parse("2025-01-01T00:00:00Z");
+    private static final int UPDATED_AT_RANGE_SECONDS = 3 * 365 * 24 * 3600;
+
+    private static final String[] KOREAN_TOPICS = {
+            "자바", "스프링 부트", "데이터베이스", "알고리즘", "파이썬", "클라우드 네이티브", "머신러닝", "딥러닝",
+            "네트워크", "운영체제", "리액트", "쿠버네티스", "도커", "SQL", "자료구조", "컴퓨터 구조", "객체지향 설계",
+            "마이크로서비스", "리눅스", "웹 보안", "데이터 분석", "코틀린", "타입스크립트", "분산 시스템", "테스트 주도 개발"
+    };
+    private static final String[] KOREAN_PREFIXES = {"", "", "", "실전 ", "처음 배우는 ", "모던 ", "핵심 ", "이것이 ", "혼자 공부하는 "};
+    private static final String[] KOREAN_SUFFIXES = {
+            "완전정복", "입문", "실전 가이드", "핵심 원리", "쿡북", "첫걸음", "마스터", "설계와 구현", "프로그래밍",
+            "인 액션", "개발 실무", "성능 최적화", "문제 해결 전략", "기초부터 실무까지"
+    };
+    private static final String[] KOREAN_SURNAMES = {"김", "이", "박", "최", "정", "강", "조", "윤", "장", "임", "한", "오", "서", "신", "권"};
+    private static final String[] KOREAN_GIVEN_NAMES = {
+            "민준", "서연", "지훈", "하은", "도윤", "지우", "현우", "수빈", "예준", "지민", "승현", "유진",
+            "준서", "다은", "건우", "채원", "우진", "서윤", "시우", "민서"
+    };
+    private static final String[] KOREAN_PUBLISHERS = {
+            "한빛미디어", "인사이트", "위키북스", "제이펍", "길벗", "에이콘출판", "영진닷컴", "프리렉", "골든래빗", "이지스퍼블리싱"
+    };
+
+    private static final String[] ENGLISH_TOPICS = {
+            "Java", "Spring Boot", "Distributed Systems", "Algorithms", "Python", "Kubernetes", "Machine Learning",
+            "Databases", "Data Structures", "Operating Systems", "Networking", "React", "TypeScript", "Rust", "Go",
+            "Microservices", "Software Architecture", "Cloud Computing", "Compilers", "Concurrency", "Site Reliability"
+    };
+    private static final String[] ENGLISH_PREFIXES = {
+            "", "", "Practical ", "Modern ", "Effective ", "Advanced ", "Hands-On ", "Pragmatic ", "Essential ", "Mastering "
+    };
+    private static final String[] ENGLISH_SUFFIXES = {
+            "", "", " in Action", " Cookbook", " Patterns", " for Beginners", " Deep Dive", ": The Definitive Guide",
+            " from Scratch", " in Practice", " Internals"
+    };
+    private static final String[] ENGLISH_FIRST_NAMES = {
+            "James", "Mary", "Robert", "Patricia", "Michael", "Jennifer", "David", "Linda", "William", "Elizabeth",
+            "Daniel", "Susan", "Thomas", "Karen", "Martin", "Emily", "Brian", "Laura", "Kevin", "Sarah"
+    };
+    private static final String[] ENGLISH_LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Martinez", "Wilson",
+            "Anderson", "Taylor", "Thomas", "Moore", "Jackson", "White", "Harris", "Clark", "Lewis", "Walker"
+    };
+    private static final String[] ENGLISH_PUBLISHERS = {
+            "O'Reilly Media", "Manning", "Addison-Wesley", "Pearson", "No Starch Press", "Packt", "Apress",
+            "MIT Press", "Pragmatic Bookshelf", "Wiley"
+    };
+
+    private final long seed;
+    private final double detailRatio;
+    private final double koreanRatio;
+    private final double isbn10Ratio;
+    private final long isbnOffset;
+
+    public record Row(long index, String title, String author, String isbn, int price, LocalDate publishDate,
+                      Instant updatedAt, Detail detail) {
+    }
+
+    public record Detail(String description, String language, int pageCount, String publisher,
+                         String coverImageUrl, String edition) {
+    }
+
+    public SyntheticBooks(long seed, double detailRatio, double koreanRatio, double isbn10Ratio) {
+        this.seed = seed;
+        this.detailRatio = detailRatio;
+        this.koreanRatio = koreanRatio;
+        this.isbn10Ratio = isbn10Ratio;
+        this.isbnOffset = Math.floorMod(new SplittableRandom(seed).nextLong(), MAX_BOOKS);
+    }
+
+    /**
+     * index 번째 도서 (0 <= index < {@value #MAX_BOOKS})
+     */
+    public Row row(long index) {
+        if (index < 0 || index >= MAX_BOOKS) {
+            throw new IllegalArgumentException("index must be between 0 and " + (MAX_BOOKS - 1) + ": " + index);
+        }
+        SplittableRandom random = new SplittableRandom(seed ^ (index * GOLDEN_GAMMA));
+        boolean korean = random.nextDouble() < koreanRatio;
+
+        String title = korean
+                ? pick(random, KOREAN_PREFIXES) + pick(random, KOREAN_TOPICS) + " " + pick(random, KOREAN_SUFFIXES)
+                : pick(random, ENGLISH_PREFIXES) + pick(random, ENGLISH_TOPICS) + pick(random, ENGLISH_SUFFIXES);
+        String author = korean
+                ? pick(random, KOREAN_SURNAMES) + pick(random, KOREAN_GIVEN_NAMES)
+                : pick(random, ENGLISH_FIRST_NAMES) + " " + pick(random, ENGLISH_LAST_NAMES);
+        String isbn = isbn(index, random.nextDouble() < isbn10Ratio);
+        int price = 8_000 + random.nextInt(521) * 100;
+        LocalDate publishDate = FIRST_PUBLISH_DATE.plusDays(random.nextInt(PUBLISH_DATE_RANGE_DAYS));
+        Instant updatedAt = LAST_UPDATED_AT.minusSeconds(random.nextInt(UPDATED_AT_RANGE_SECONDS));
+
+        Detail detail = null;
+        if (random.nextDouble() < detailRatio) {
+            int edition = 1 + random.nextInt(5);
+            detail = new Detail(
+                    korean ? title + " : " + author + " 지음" : title + " by " + author,
+                    korean ? "Korean" : "English",
+                    120 + random.nextInt(1081),
+                    korean ? pick(random, KOREAN_PUBLISHERS) : pick(random, ENGLISH_PUBLISHERS),
+                    random.nextInt(4) == 0 ? null : "https://example.com/covers/" + isbn + ".jpg",
+                    korean ? edition + "판" : edition + ordinalSuffix(edition) + " Edition");
+        }
+        return new Row(index, title, author, isbn, price, publishDate, updatedAt, detail);
+    }
+
+    private String isbn(long index, boolean isbn10) {
+        long body = Math.floorMod(index * ISBN_MULTIPLIER + isbnOffset, MAX_BOOKS);
+        String digits = String.format("%09d", body);
+        return isbn10 ? isbn10(digits) : isbn13("979" + digits);
+    }
+
+    /**
+     * 9자리 본문에 ISBN-10 체크 숫자(0~9, X)를 붙입니다.
+     */
+    static String isbn10(String nineDigits) {
+        int sum = 0;
+        for (int i = 0; i < 9; i++) {
+            sum += (nineDigits.charAt(i) - '0') * (10 - i);
+        }
+        int check = (11 - sum % 11) % 11;
+        return nineDigits + (check == 10 ? "X" : String.valueOf(check));
+    }
+
+    /**
+     * 12자리 본문에 ISBN-13 체크 숫자를 붙입니다.
+     */
+    public static String isbn13(String twelveDigits) {
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (twelveDigits.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return twelveDigits + (10 - sum % 10) % 10;
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String ordinalSuffix(int n) {
+        return switch (n) {
+            case 1 -> "st";
+            case 2 -> "nd";
+            case 3 -> "rd";
+            default -> "th";
+        };
+    }
+}
@@ -0,0 +1,150 @@
+package com.rookies3.myspringbootlab.service;
+
+import com.rookies3.myspringbootlab.controller.dto.BookDTO;
+import com.rookies3.myspringbootlab.entity.Book;
+import com.rookies3.myspringbootlab.event.BookChangedEvent;
+import com.rookies3.myspringbootlab.exception.BusinessException;
+import com.rookies3.myspringbootlab.repository.BookRepository;
+import com.rookies3.myspringbootlab.validation.Isbn;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 대량 도서 등록 서비스
+ * 항목별로 검증/중복 확인을 먼저 끝낸 뒤, 통과한 항목만 JDBC batch insert 로 저장하고
+ * 항목별 결과(CREATED, INVALID, DUPLICATE)를 요청 순서대로 돌려줍니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookBulkService {
+
+    public static final int MAX_BULK_SIZE = 5000;
+    // hibernate.jdbc.batch_size 와 같은 값 : 이 단위로 flush 하고 영속성 컨텍스트를 비웁니다.
+    public static final int FLUSH_SIZE = 50;
+    private static final int IN_CLAUSE_SIZE = 1000;
+
+    private final BookRepository bookRepository;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public BookDTO.BulkResponse createBooks(List<BookDTO.Request> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BusinessException("Bulk request must contain at least one book", HttpStatus.BAD_REQUEST);
+        }
+        if (requests.size() > MAX_BULK_SIZE) {
+            throw new BusinessException("Bulk request must not exceed " + MAX_BULK_SIZE + " books", HttpStatus.BAD_REQUEST);
+        }
+
+        BookDTO.BulkItemResult[] results = new BookDTO.BulkItemResult[requests.size()];
+
+        // 1. 입력항목 검증 및 요청 내부의 ISBN 중복 확인 (정규화된 ISBN-13 으로 비교)
+        Map<Long, Integer> candidates = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BookDTO.Request request = requests.get(i);
+            String message = validate(request);
+            if (message != null) {
+                results[i] = failure(i, request, BookDTO.BulkStatus.INVALID, message);
+            } else if (candidates.putIfAbsent(Isbn.normalize(request.getIsbn()), i) != null) {
+                results[i] = failure(i, request, BookDTO.BulkStatus.DUPLICATE,
+                        "ISBN is duplicated at index " + candidates.get(Isbn.normalize(request.getIsbn())));
+            }
+        }
+
+        // 2. 이미 저장된 ISBN 확인 (IN 절은 IN_CLAUSE_SIZE 단위로 나눠서 조회)
+        // ISBN 필터는 다른 인스턴스에서 등록된 ISBN 을 모를 수 있으므로 쓰기 경로에서는 사용하지 않음
+        Set<Long> existing = findExistingIsbns(List.copyOf(candidates.keySet()));
+
+        // 3. batch insert : FLUSH_SIZE 건마다 flush 하여 insert 문을 묶어서 전송
+        int created = 0;
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            BookDTO.Request request = requests.get(i);
+            if (existing.contains(Isbn.normalize(request.getIsbn()))) {
+                results[i] = failure(i, request, BookDTO.BulkStatus.DUPLICATE,
+                        "Book already exists with ISBN: " + request.getIsbn());
+                continue;
+            }
+
+            Book book = request.toEntity();
+            entityManager.persist(book);
+            eventPublisher.publishEvent(BookChangedEvent.created(book));
+            // 시퀀스 방식이므로 persist 시점에 id 가 할당됩니다.
+            results[i] = BookDTO.BulkItemResult.builder()
+                    .index(i)
+                    .status(BookDTO.BulkStatus.CREATED)
+                    .id(book.getId())
+                    .isbn(book.getIsbn())
+                    .build();
+
+            if (++created % FLUSH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        log.info("Bulk insert finished: requested={}, created={}", requests.size(), created);
+
+        return BookDTO.BulkResponse.builder()
+                .requested(requests.size())
+                .created(created)
+                .failed(requests.size() - created)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    private String validate(BookDTO.Request request) {
+        if (request == null) {
+            return "Book must not be null";
+        }
+        Set<ConstraintViolation<BookDTO.Request>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private Set<Long> findExistingIsbns(List<Long> isbn13s) {
+        Set<Long> existing = new HashSet<>();
+        for (int from = 0; from < isbn13s.size(); from += IN_CLAUSE_SIZE) {
+            List<Long> chunk = isbn13s.subList(from, Math.min(from + IN_CLAUSE_SIZE, isbn13s.size()));
+            existing.addAll(bookRepository.findExistingIsbns(chunk));
+        }
+        return existing;
+    }
+
+    private BookDTO.BulkItemResult failure(int index, BookDTO.Request request,
+                                           BookDTO.BulkStatus status, String message) {
+        return BookDTO.BulkItemResult.builder()
+                .index(index)
+                .status(status)
+                .isbn(request != null ? request.getIsbn() : null)
+                .message(message)
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.rookies3.myspringbootlab.service;
+
+import com.rookies3.myspringbootlab.entity.BookCatalog;
+import com.rookies3.myspringbootlab.event.BookChangedEvent;
+import com.rookies3.myspringbootlab.repository.BookCatalogRepository;
+import com.rookies3.myspringbootlab.repository.projection.CatalogVersion;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 목록/페이지 ETag 로 쓰는 카탈로그 버전 (book_catalog 한 행)
+ * - BookChangedEvent 를 발행한 트랜잭션이 커밋 직전에 같은 트랜잭션에서 version 을 한 번 올립니다. (대량 등록도 한 번)
+ *   여러 인스턴스가 같은 행을 보므로 어느 인스턴스에서 받은 ETag 든 같은 값입니다.
+ * - 행은 첫 쓰기에서 만들고, 시작 값은 현재 시각(ms)이라 테이블이 다시 만들어져도 이전 ETag 와 겹치지 않습니다.
+ * - 이벤트 없이 JDBC 로 저장한 경우(SyntheticBookGenerator)는 bump() 를 직접 호출합니다.
+ */
+@Service
+public class BookCatalogService {
+
+    private final BookCatalogRepository bookCatalogRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+
+    public BookCatalogService(BookCatalogRepository bookCatalogRepository, JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager) {
+        this.bookCatalogRepository = bookCatalogRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public CatalogVersion getVersion() {
+        return bookCatalogRepository.findVersion().orElse(new CatalogVersion(0L, null));
+    }
+
+    // 커밋 직전(beforeCommit)에 실행되므로 롤백된 쓰기는 버전을 바꾸지 않습니다.
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump();
+            return;
+        }
+        boolean registered = TransactionSynchronizationManager.getSynchronizations().stream()
+                .anyMatch(BumpBeforeCommit.class::isInstance);
+        if (!registered) {
+            TransactionSynchronizationManager.registerSynchronization(new BumpBeforeCommit());
+        }
+    }
+
+    public void bump() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        if (bookCatalogRepository.bump(now) == 0) {
+            create();
+            bookCatalogRepository.bump(now);
+        }
+    }
+
+    // 다른 인스턴스가 먼저 만든 경우의 키 중복은 무시 (바깥 트랜잭션에 영향이 없도록 별도 트랜잭션)
+    private void create() {
+        try {
+            newTransaction.executeWithoutResult(status -> jdbcTemplate.update(
+                    "INSERT INTO book_catalog (catalog_id, version) VALUES (?, ?)", BookCatalog.ID, System.currentTimeMillis()));
+        } catch (DataIntegrityViolationException e) {
+            // 이미 있음
+        }
+    }
+
+    private class BumpBeforeCommit implements TransactionSynchronization {
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            bump();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.rookies3.myspringbootlab.service;
+
+import com.rookies3.myspringbootlab.exception.BusinessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Keyset(seek) 페이지네이션 커서
+ * 마지막으로 내려준 행의 (정렬키, book_id) 를 기억해 두고 다음 페이지는 그 이후 행부터 조회합니다.
+ * OFFSET 을 사용하지 않으므로 몇 번째 페이지이든 조회 비용이 동일합니다.
+ *
+ * @param sort      정렬 기준
+ * @param direction 정렬 방향
+ * @param nullKeys  정렬키가 null 인 행들을 조회하는 중인지 여부 (null 값은 항상 마지막에 book_id 순으로 내려줍니다)
+ * @param key       마지막 행의 정렬키 (ID 정렬이거나 nullKeys 인 경우 null)
+ * @param lastId    마지막 행의 book_id
+ */
+public record BookPageCursor(BookSort sort, Sort.Direction direction, boolean nullKeys, String key, long lastId) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = String.join(SEPARATOR,
+                sort.name(), direction.name(), nullKeys ? "1" : "0", key == null ? "" : key, Long.toString(lastId));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookPageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 5) {
+                throw new IllegalArgumentException("unexpected cursor layout");
+            }
+            BookPageCursor decoded = new BookPageCursor(
+                    BookSort.valueOf(parts[0]),
+                    Sort.Direction.valueOf(parts[1]),
+                    "1".equals(parts[2]),
+                    parts[3].isEmpty() ? null : parts[3],
+                    Long.parseLong(parts[4]));
+            if (decoded.key() != null) {
+                // 변조된 커서가 쿼리 단계에서 500 오류가 되지 않도록 미리 타입을 확인
+                switch (decoded.sort()) {
+                    case PRICE -> decoded.priceKey();
+                    case PUBLISH_DATE -> decoded.publishDateKey();
+                    case ID -> throw new IllegalArgumentException("id cursor must not carry a key");
+                }
+            }
+            return decoded;
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new BusinessException("Invalid page cursor: " + cursor, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    public Integer priceKey() {
+        return key == null ? null : Integer.valueOf(key);
+    }
+
+    public LocalDate publishDateKey() {
+        return key == null ? null : LocalDate.parse(key);
+    }
+}
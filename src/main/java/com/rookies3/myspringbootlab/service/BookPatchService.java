@@ -0,0 +1,186 @@
+package com.rookies3.myspringbootlab.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.rookies3.myspringbootlab.controller.dto.BookDTO;
+import com.rookies3.myspringbootlab.entity.Book;
+import com.rookies3.myspringbootlab.entity.BookDetail;
+import com.rookies3.myspringbootlab.event.BookChangedEvent;
+import com.rookies3.myspringbootlab.event.BookSnapshot;
+import com.rookies3.myspringbootlab.exception.BusinessException;
+import com.rookies3.myspringbootlab.repository.BookRepository;
+import com.rookies3.myspringbootlab.validation.Isbn;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 도서 부분 수정 (JSON Merge Patch, RFC 7386)
+ * 패치 문서의 필드 이름은 PUT 요청(BookDTO.Request)과 같고, 없는 필드는 그대로 두며 null 은 값을 지웁니다.
+ * ("detailRequest": null 이면 상세정보 행을 삭제)
+ * Book/BookDetail 은 @DynamicUpdate 이므로 실제로 바뀐 컬럼만 UPDATE 되고, 바뀐 값이 없으면 UPDATE 자체를 하지 않습니다.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookPatchService {
+
+    // 검색 색인/캐시 키(BookSnapshot)에 포함되지 않는 상세정보 컬럼 : SELECT 없이 바로 UPDATE 할 수 있습니다.
+    private static final Set<String> UNINDEXED_DETAIL_FIELDS = Set.of("description", "pageCount", "coverImageUrl", "edition");
+
+    private final BookRepository bookRepository;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * @param expectedVersion If-Match 로 받은 버전 (null 이면 확인하지 않음)
+     */
+    @Transactional
+    public BookDTO.Response patchBook(Long id, JsonNode patch, Long expectedVersion) {
+        if (patch == null || !patch.isObject()) {
+            throw new BusinessException("Merge patch must be a JSON object", HttpStatus.BAD_REQUEST);
+        }
+        Book book = bookRepository.findByIdWithBookDetail(id)
+                .orElseThrow(() -> new BusinessException("Book not found with id: " + id, HttpStatus.NOT_FOUND));
+        BookService.requireVersion(book, expectedVersion);
+
+        BookDTO.Request current = BookDTO.Request.fromEntity(book);
+        BookDTO.Request patched = read(merge(objectMapper.valueToTree(current), patch), BookDTO.Request.class);
+        if (patched.equals(current)) {
+            // 바뀐 값이 없으면 쓰기와 이벤트(캐시/색인 갱신)를 모두 생략
+            return BookDTO.Response.fromEntity(book);
+        }
+        validate(patched);
+
+        long isbn13 = Isbn.normalize(patched.getIsbn());
+        if (book.getIsbn13() != isbn13 && bookRepository.existsByIsbn(isbn13)) {
+            throw new BusinessException("Book already exists with ISBN: " + patched.getIsbn(), HttpStatus.CONFLICT);
+        }
+
+        BookSnapshot before = BookSnapshot.of(book);
+        patched.applyTo(book);
+        if (patched.getDetailRequest() == null) {
+            // orphanRemoval 에 의해 book_details 행이 삭제됩니다.
+            book.setBookDetail(null);
+        }
+        book.touch();
+
+        bookRepository.flush();
+        eventPublisher.publishEvent(BookChangedEvent.updated(before, book));
+        return BookDTO.Response.fromEntity(book);
+    }
+
+    /**
+     * 응답 본문이 필요 없는 경우(Prefer: return=minimal)의 부분 수정
+     * 패치가 색인되지 않는 상세정보 컬럼({@link #UNINDEXED_DETAIL_FIELDS})만 바꾸면 SELECT 없이 해당 컬럼만 UPDATE 하고
+     * Book 의 version/updatedAt 을 올립니다. 그 밖의 경우(또는 상세정보 행이 없는 경우)는 {@link #patchBook} 과 같이 처리합니다.
+     */
+    @Transactional
+    public void patchBookWithoutRead(Long id, JsonNode patch, Long expectedVersion) {
+        if (isUnindexedDetailPatch(patch) && updateDetailColumns(id, (ObjectNode) patch.get("detailRequest")) > 0) {
+            if (bookRepository.touch(id, expectedVersion, Instant.now().truncatedTo(ChronoUnit.MICROS)) == 0) {
+                // 상세정보가 있으므로 도서는 존재함 : 버전 불일치 (트랜잭션이 롤백되어 상세정보 수정도 취소됩니다)
+                throw new BusinessException("Book " + id + " has been modified", HttpStatus.PRECONDITION_FAILED);
+            }
+            eventPublisher.publishEvent(BookChangedEvent.detailUpdated(id));
+            return;
+        }
+        patchBook(id, patch, expectedVersion);
+    }
+
+    private boolean isUnindexedDetailPatch(JsonNode patch) {
+        if (patch == null || !patch.isObject() || patch.size() != 1) {
+            return false;
+        }
+        JsonNode detail = patch.get("detailRequest");
+        if (detail == null || !detail.isObject() || detail.isEmpty()) {
+            return false;
+        }
+        Iterator<String> fieldNames = detail.fieldNames();
+        while (fieldNames.hasNext()) {
+            if (!UNINDEXED_DETAIL_FIELDS.contains(fieldNames.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // UPDATE book_details SET <패치에 있는 컬럼만>, version = version + 1 WHERE book_id = ?
+    private int updateDetailColumns(Long bookId, ObjectNode detailPatch) {
+        BookDTO.BookDetailDTO values = read(detailPatch, BookDTO.BookDetailDTO.class);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<BookDetail> update = cb.createCriteriaUpdate(BookDetail.class);
+        Root<BookDetail> root = update.from(BookDetail.class);
+        if (detailPatch.has("description")) {
+            update.set(root.<String>get("description"), values.getDescription());
+        }
+        if (detailPatch.has("pageCount")) {
+            update.set(root.<Integer>get("pageCount"), values.getPageCount());
+        }
+        if (detailPatch.has("coverImageUrl")) {
+            update.set(root.<String>get("coverImageUrl"), values.getCoverImageUrl());
+        }
+        if (detailPatch.has("edition")) {
+            update.set(root.<String>get("edition"), values.getEdition());
+        }
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+        update.where(cb.equal(root.get("book").get("id"), bookId));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    /**
+     * RFC 7386 의 MergePatch(target, patch) : 객체는 필드별로 재귀 병합하고, null 은 필드를 제거합니다.
+     */
+    private JsonNode merge(JsonNode target, JsonNode patch) {
+        if (!patch.isObject()) {
+            return patch;
+        }
+        ObjectNode result = target != null && target.isObject() ? (ObjectNode) target : objectMapper.createObjectNode();
+        for (Map.Entry<String, JsonNode> field : patch.properties()) {
+            if (field.getValue().isNull()) {
+                result.remove(field.getKey());
+            } else {
+                result.set(field.getKey(), merge(result.get(field.getKey()), field.getValue()));
+            }
+        }
+        return result;
+    }
+
+    private <T> T read(JsonNode node, Class<T> type) {
+        try {
+            return objectMapper.treeToValue(node, type);
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("Invalid merge patch: " + e.getOriginalMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private void validate(BookDTO.Request request) {
+        Set<ConstraintViolation<BookDTO.Request>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            throw new BusinessException(message, HttpStatus.BAD_REQUEST);
+        }
+    }
+}
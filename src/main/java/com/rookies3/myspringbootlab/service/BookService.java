@@ -0,0 +1,511 @@
+package com.rookies3.myspringbootlab.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.rookies3.myspringbootlab.cache.BookIsbnFilter;
+import com.rookies3.myspringbootlab.cache.BookResponseCache;
+import com.rookies3.myspringbootlab.controller.dto.BookDTO;
+import com.rookies3.myspringbootlab.entity.Book;
+import com.rookies3.myspringbootlab.event.BookChangedEvent;
+import com.rookies3.myspringbootlab.event.BookSnapshot;
+import com.rookies3.myspringbootlab.exception.BusinessException;
+import com.rookies3.myspringbootlab.popularity.BookPopularity;
+import com.rookies3.myspringbootlab.popularity.PopularBook;
+import com.rookies3.myspringbootlab.popularity.PopularityWindow;
+import com.rookies3.myspringbootlab.repository.BookRepository;
+import com.rookies3.myspringbootlab.repository.BookSpecifications;
+import com.rookies3.myspringbootlab.repository.projection.BookRow;
+import com.rookies3.myspringbootlab.repository.projection.BookVersion;
+import com.rookies3.myspringbootlab.repository.projection.CatalogVersion;
+import com.rookies3.myspringbootlab.search.BookFacet;
+import com.rookies3.myspringbootlab.search.BookFacetIndex;
+import com.rookies3.myspringbootlab.search.BookSearchIndex;
+import com.rookies3.myspringbootlab.validation.Isbn;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Slf4j
+public class BookService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int DEFAULT_FACET_SIZE = 10;
+    public static final int EXPORT_CHUNK_SIZE = 500;
+    public static final int MAX_MULTI_GET_SIZE = 1000;
+    // in_clause_parameter_padding 과 맞도록 2의 거듭제곱 사용
+    private static final int IN_CLAUSE_SIZE = 512;
+
+    private static final LocalDate MIN_PUBLISH_DATE = LocalDate.of(1, 1, 1);
+    private static final LocalDate MAX_PUBLISH_DATE = LocalDate.of(9999, 12, 31);
+
+    private final BookRepository bookRepository;
+    private final ObjectMapper objectMapper;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookFacetIndex bookFacetIndex;
+    private final BookResponseCache bookResponseCache;
+    private final BookIsbnFilter bookIsbnFilter;
+    private final BookPopularity bookPopularity;
+    private final BookCatalogService bookCatalogService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public List<BookDTO.Response> getAllBooks() {
+        return bookRepository.findAllRows()
+                .stream()
+                .map(BookDTO.Response::fromRow)
+                .toList();
+    }
+
+    /**
+     * Keyset 방식으로 도서 목록의 한 페이지를 조회합니다.
+     * cursor 가 주어지면 sort/direction 은 커서에 담긴 값을 따릅니다.
+     *
+     * @param cursor    이전 응답의 next 값 (첫 페이지는 null)
+     * @param size      페이지 크기 (1 ~ {@value #MAX_PAGE_SIZE})
+     * @param sort      정렬 기준 (id, price, publishDate)
+     * @param direction 정렬 방향 (asc, desc)
+     */
+    public BookDTO.PageResponse getBookPage(String cursor, int size, String sort, String direction) {
+        BookPageCursor position = (cursor != null && !cursor.isBlank())
+                ? BookPageCursor.decode(cursor)
+                : firstPage(BookSort.from(sort), parseDirection(direction));
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        // 다음 페이지 존재 여부를 알기 위해 한 건 더 조회
+        List<BookRow> rows = new ArrayList<>(fetchPage(position, PageRequest.of(0, pageSize + 1)));
+        if (position.sort() != BookSort.ID && !position.nullKeys() && rows.size() <= pageSize) {
+            // 정렬키가 있는 행을 모두 내려준 경우 정렬키가 null 인 행을 이어서 조회
+            BookPageCursor nullKeys = new BookPageCursor(position.sort(), position.direction(), true, null, 0L);
+            rows.addAll(fetchPage(nullKeys, PageRequest.of(0, pageSize + 1 - rows.size())));
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<BookRow> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String next = hasNext ? cursorAfter(position, page.get(page.size() - 1)).encode() : null;
+
+        return BookDTO.PageResponse.builder()
+                .content(page.stream().map(BookDTO.Response::fromRow).toList())
+                .size(page.size())
+                .hasNext(hasNext)
+                .next(next)
+                .build();
+    }
+
+    /**
+     * 전체 도서를 NDJSON(한 줄에 JSON 객체 하나) 형식으로 출력 스트림에 씁니다.
+     * 한 행씩 읽어서 바로 내보내고 프로젝션이라 영속성 컨텍스트에도 쌓이지 않으므로
+     * 도서 수와 관계없이 메모리 사용량이 일정하게 유지됩니다. ({@value #EXPORT_CHUNK_SIZE} 건마다 flush)
+     *
+     * @param out 응답 출력 스트림 (메서드 종료 시 닫힙니다)
+     * @return 내보낸 도서 수
+     */
+    public long exportBooks(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(BookDTO.Response.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+
+        try (Stream<BookRow> rows = bookRepository.streamAllRows();
+             JsonGenerator generator = objectMapper.createGenerator(out)) {
+            // 루트 값 사이에 기본 구분자(공백) 대신 줄바꿈만 사용
+            generator.setRootValueSeparator(null);
+
+            Iterator<BookRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, BookDTO.Response.fromRow(iterator.next()));
+                generator.writeRaw('\n');
+
+                if (++count % EXPORT_CHUNK_SIZE == 0) {
+                    // 버퍼를 클라이언트로 전송
+                    generator.flush();
+                }
+            }
+        }
+
+        log.info("Exported {} books as NDJSON", count);
+        return count;
+    }
+
+    // 캐시 hit 인 경우 커넥션을 잡지 않도록 트랜잭션 없이 실행 (miss 인 경우 repository 조회가 자체 트랜잭션을 사용)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public BookDTO.Response getBookById(Long id) {
+        return bookResponseCache.getById(id, () -> bookRepository.findRowById(id)
+                .map(BookDTO.Response::fromRow)
+                .orElseThrow(() -> new BusinessException("Book not found with id: " + id, HttpStatus.NOT_FOUND)));
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public BookDTO.Response getBookByIsbn(String isbn) {
+        long isbn13 = Isbn.normalize(isbn);
+        // ISBN 필터에 없으면 DB 를 조회하지 않고 404
+        if (!bookIsbnFilter.mightContain(isbn13)) {
+            throw new BusinessException("Book not found with ISBN: " + isbn, HttpStatus.NOT_FOUND);
+        }
+        return bookResponseCache.getByIsbn(isbn, () -> bookRepository.findRowByIsbn(isbn13)
+                .map(BookDTO.Response::fromRow)
+                .orElseThrow(() -> {
+                    bookIsbnFilter.recordFalsePositives(1);
+                    return new BusinessException("Book not found with ISBN: " + isbn, HttpStatus.NOT_FOUND);
+                }));
+    }
+
+    /**
+     * If-None-Match 확인용 버전 조회 (도서 본문/상세정보는 읽지 않습니다)
+     */
+    public Optional<BookVersion> getBookVersion(Long id) {
+        return bookRepository.findVersionById(id);
+    }
+
+    public Optional<BookVersion> getBookVersionByIsbn(String isbn) {
+        long isbn13 = Isbn.normalize(isbn);
+        if (!bookIsbnFilter.mightContain(isbn13)) {
+            return Optional.empty();
+        }
+        return bookRepository.findVersionByIsbn(isbn13);
+    }
+
+    /**
+     * 목록/페이지 조회의 ETag 로 사용할 카탈로그 버전
+     * 목록보다 먼저 조회해야 합니다. (그 사이의 쓰기는 다음 요청에서 버전 불일치로 드러납니다)
+     */
+    public CatalogVersion getCatalogVersion() {
+        return bookCatalogService.getVersion();
+    }
+
+    public List<BookDTO.Response> getBooksByAuthor(String author) {
+        if (!bookSearchIndex.isReady()) {
+            return bookRepository.findRowsByAuthorContaining(author)
+                    .stream()
+                    .map(BookDTO.Response::fromRow)
+                    .toList();
+        }
+        return findBooksInOrder(bookSearchIndex.searchAuthor(author));
+    }
+
+    public List<BookDTO.Response> getBooksByTitle(String title) {
+        if (!bookSearchIndex.isReady()) {
+            return bookRepository.findRowsByTitleContaining(title)
+                    .stream()
+                    .map(BookDTO.Response::fromRow)
+                    .toList();
+        }
+        return findBooksInOrder(bookSearchIndex.searchTitle(title));
+    }
+
+    /**
+     * 제목/저자 통합 검색 (관련도 순)
+     */
+    public List<BookDTO.Response> searchBooks(String query, int limit) {
+        if (!bookSearchIndex.isReady()) {
+            throw new BusinessException("Search index is not ready yet", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        return findBooksInOrder(bookSearchIndex.search(query, size));
+    }
+
+    /**
+     * 주어진 조건을 모두 만족하는 도서 (가격/출간일 범위, 언어, 출판사, 제목/저자 부분 일치)
+     * 정렬키가 null 인 도서는 정렬 방향과 관계없이 마지막에 내려주며, 그 안에서는 정렬키가 같은 도서처럼 book_id 를 정렬 방향 순으로 정렬합니다.
+     * (목록 페이지는 null 인 도서를 항상 book_id 오름차순으로 내려주므로 desc 에서는 순서가 다름)
+     *
+     * @param sort      정렬 기준 (id, price, publishDate)
+     * @param direction 정렬 방향 (asc, desc)
+     * @param limit     도서 수 (1 ~ {@value #MAX_PAGE_SIZE})
+     */
+    public List<BookDTO.Response> queryBooks(BookDTO.QueryFilter filter, String sort, String direction, int limit) {
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null && filter.getMinPrice() > filter.getMaxPrice()) {
+            throw new BusinessException("minPrice must not be greater than maxPrice", HttpStatus.BAD_REQUEST);
+        }
+        if (filter.getPublishedFrom() != null && filter.getPublishedTo() != null
+                && filter.getPublishedFrom().isAfter(filter.getPublishedTo())) {
+            throw new BusinessException("publishedFrom must not be after publishedTo", HttpStatus.BAD_REQUEST);
+        }
+        Specification<Book> spec = Specification.allOf(
+                BookSpecifications.titleContains(filter.getTitle()),
+                BookSpecifications.authorContains(filter.getAuthor()),
+                BookSpecifications.priceBetween(filter.getMinPrice(), filter.getMaxPrice()),
+                BookSpecifications.publishedBetween(filter.getPublishedFrom(), filter.getPublishedTo()),
+                BookSpecifications.language(filter.getLanguage()),
+                BookSpecifications.publisher(filter.getPublisher()));
+
+        BookSort bookSort = BookSort.from(sort);
+        Sort.Direction sortDirection = parseDirection(direction);
+        Sort order = bookSort == BookSort.ID
+                ? Sort.by(sortDirection, "id")
+                : Sort.by(sortDirection, bookSort.getProperty()).and(Sort.by(sortDirection, "id"));
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        return bookRepository.findRows(spec, order, size)
+                .stream()
+                .map(BookDTO.Response::fromRow)
+                .toList();
+    }
+
+    /**
+     * 출판사/언어/가격 구간/출간 연도별 도서 수 (메모리 집계, DB 를 조회하지 않음)
+     * 검색어는 /search 와 같은 조건(검색어 중 하나라도 제목 또는 저자에 포함)으로 좁힙니다.
+     *
+     * @param selected 패싯별로 선택한 값 (AND)
+     * @param size     패싯별 값 수 (1 ~ {@value #MAX_PAGE_SIZE})
+     */
+    public BookDTO.FacetResponse getFacets(String query, Map<BookFacet, String> selected, int size) {
+        boolean filtered = query != null && !query.isBlank();
+        if (!bookFacetIndex.isReady() || (filtered && !bookSearchIndex.isReady())) {
+            throw new BusinessException("Facet index is not ready yet", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        Set<Long> ids = filtered ? bookSearchIndex.matchingIds(query) : null;
+        BookFacetIndex.Result result = bookFacetIndex.facets(ids, selected, Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+
+        Map<String, List<BookDTO.FacetCount>> facets = new LinkedHashMap<>();
+        result.facets().forEach((facet, counts) -> facets.put(facet.getProperty(), counts.stream()
+                .map(count -> new BookDTO.FacetCount(count.value(), count.count()))
+                .toList()));
+        return BookDTO.FacetResponse.builder()
+                .total(result.total())
+                .facets(facets)
+                .build();
+    }
+
+    /**
+     * 조회 기간 동안 많이 조회된 도서 (모든 인스턴스 합계, 최대 flushInterval 전까지의 조회수)
+     * 순위는 메모리의 목록을 사용하고 도서 정보만 IN 절 한 번으로 조회합니다. (그 사이 삭제된 도서는 제외)
+     *
+     * @param window 1h, 24h
+     * @param limit  도서 수 (1 ~ book.popularity.top-k)
+     */
+    public BookDTO.PopularResponse getPopularBooks(String window, int limit) {
+        PopularityWindow popularityWindow = PopularityWindow.from(window);
+        List<PopularBook> ranking = bookPopularity.top(popularityWindow, Math.max(limit, 1));
+        Map<Long, BookRow> byId = new HashMap<>();
+        if (!ranking.isEmpty()) {
+            bookRepository.findRowsByIdIn(ranking.stream().map(PopularBook::bookId).toList())
+                    .forEach(row -> byId.put(row.id(), row));
+        }
+
+        List<BookDTO.PopularItem> items = new ArrayList<>(ranking.size());
+        for (PopularBook popular : ranking) {
+            BookRow row = byId.get(popular.bookId());
+            if (row != null) {
+                items.add(BookDTO.PopularItem.builder()
+                        .rank(items.size() + 1)
+                        .views(popular.views())
+                        .book(BookDTO.Response.fromRow(row))
+                        .build());
+            }
+        }
+        return BookDTO.PopularResponse.builder()
+                .window(popularityWindow.getValue())
+                .items(items)
+                .build();
+    }
+
+    /**
+     * 여러 도서를 id 또는 ISBN 으로 한 번에 조회합니다.
+     * 중복을 제거한 키를 {@value #IN_CLAUSE_SIZE} 개 단위 IN 절로 조회하고,
+     * 결과는 요청 순서대로(ids 다음 isbns) 담으며 찾지 못한 키는 found=false 로 표시합니다.
+     */
+    public BookDTO.MultiGetResponse getBooks(BookDTO.MultiGetRequest request) {
+        List<Long> ids = request.getIds() != null ? request.getIds() : List.of();
+        List<String> isbns = request.getIsbns() != null ? request.getIsbns() : List.of();
+        int requested = ids.size() + isbns.size();
+        if (requested > MAX_MULTI_GET_SIZE) {
+            throw new BusinessException("Too many keys: " + requested + " (max " + MAX_MULTI_GET_SIZE + ")",
+                    HttpStatus.BAD_REQUEST);
+        }
+        if (ids.stream().anyMatch(Objects::isNull) || isbns.stream().anyMatch(Objects::isNull)) {
+            throw new BusinessException("ids and isbns must not contain null", HttpStatus.BAD_REQUEST);
+        }
+
+        Map<Long, BookRow> byId = new HashMap<>();
+        List<Long> distinctIds = List.copyOf(new LinkedHashSet<>(ids));
+        for (int from = 0; from < distinctIds.size(); from += IN_CLAUSE_SIZE) {
+            bookRepository.findRowsByIdIn(distinctIds.subList(from, Math.min(from + IN_CLAUSE_SIZE, distinctIds.size())))
+                    .forEach(row -> byId.put(row.id(), row));
+        }
+        // ISBN 은 정규화된 ISBN-13 으로 비교 (형식이 다른 같은 ISBN 도 같은 도서), ISBN 필터에 없는 키는 조회하지 않음
+        Map<Long, BookRow> byIsbn = new HashMap<>();
+        List<Long> distinctIsbns = isbns.stream()
+                .map(Isbn::normalize)
+                .distinct()
+                .filter(bookIsbnFilter::mightContain)
+                .toList();
+        for (int from = 0; from < distinctIsbns.size(); from += IN_CLAUSE_SIZE) {
+            bookRepository.findRowsByIsbnIn(distinctIsbns.subList(from, Math.min(from + IN_CLAUSE_SIZE, distinctIsbns.size())))
+                    .forEach(row -> byIsbn.put(Isbn.normalize(row.isbn()), row));
+        }
+        bookIsbnFilter.recordFalsePositives(distinctIsbns.size() - byIsbn.size());
+
+        List<BookDTO.MultiGetItem> items = new ArrayList<>(requested);
+        ids.forEach(id -> items.add(multiGetItem(byId.get(id)).id(id).build()));
+        isbns.forEach(isbn -> items.add(multiGetItem(byIsbn.get(Isbn.normalize(isbn))).isbn(isbn).build()));
+
+        return BookDTO.MultiGetResponse.builder()
+                .requested(requested)
+                .found((int) items.stream().filter(BookDTO.MultiGetItem::isFound).count())
+                .items(items)
+                .build();
+    }
+
+    @Transactional
+    public BookDTO.Response createBook(BookDTO.Request request) {
+        // 필터가 모르는(다른 인스턴스에서 등록된) ISBN 도 있으므로 쓰기 경로는 항상 DB 로 확인
+        if (bookRepository.existsByIsbn(Isbn.normalize(request.getIsbn()))) {
+            throw new BusinessException("Book already exists with ISBN: " + request.getIsbn(), HttpStatus.CONFLICT);
+        }
+
+        Book book = request.toEntity();
+        Book savedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(BookChangedEvent.created(savedBook));
+        return BookDTO.Response.fromEntity(savedBook);
+    }
+
+    /**
+     * @param expectedVersion If-Match 로 받은 버전 (null 이면 확인하지 않음)
+     */
+    @Transactional
+    public BookDTO.Response updateBook(Long id, BookDTO.Request request, Long expectedVersion) {
+        Book book = bookRepository.findByIdWithBookDetail(id)
+                .orElseThrow(() -> new BusinessException("Book not found with id: " + id, HttpStatus.NOT_FOUND));
+        requireVersion(book, expectedVersion);
+
+        long isbn13 = Isbn.normalize(request.getIsbn());
+        if (book.getIsbn13() != isbn13 && bookRepository.existsByIsbn(isbn13)) {
+            throw new BusinessException("Book already exists with ISBN: " + request.getIsbn(), HttpStatus.CONFLICT);
+        }
+
+        BookSnapshot before = BookSnapshot.of(book);
+        request.applyTo(book);
+        book.touch();
+
+        // 변경감지(dirty checking)에 의해 update 됩니다. 응답에 증가된 version 을 담기 위해 바로 flush 합니다.
+        bookRepository.flush();
+        eventPublisher.publishEvent(BookChangedEvent.updated(before, book));
+        return BookDTO.Response.fromEntity(book);
+    }
+
+    @Transactional
+    public void deleteBook(Long id, Long expectedVersion) {
+        Book book = bookRepository.findByIdWithBookDetail(id)
+                .orElseThrow(() -> new BusinessException("Book not found with id: " + id, HttpStatus.NOT_FOUND));
+        requireVersion(book, expectedVersion);
+        BookSnapshot before = BookSnapshot.of(book);
+        bookRepository.delete(book);
+        eventPublisher.publishEvent(BookChangedEvent.deleted(before));
+    }
+
+    /**
+     * If-Match 로 받은 버전과 현재 버전이 다르면 412 를 던집니다.
+     * (확인 이후 커밋 전에 다른 트랜잭션이 먼저 수정한 경우는 @Version 에 의해 커밋 시점에 실패합니다)
+     */
+    static void requireVersion(Book book, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(book.getVersion())) {
+            throw new BusinessException("Book " + book.getId() + " has been modified (version " + book.getVersion() + ")",
+                    HttpStatus.PRECONDITION_FAILED);
+        }
+    }
+
+    /**
+     * id 목록의 도서를 IN 절로 조회하여 주어진 순서대로 반환합니다. (없는 id 는 제외)
+     */
+    private List<BookDTO.Response> findBooksInOrder(List<Long> ids) {
+        Map<Long, BookRow> rows = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_SIZE) {
+            Collection<Long> chunk = ids.subList(from, Math.min(from + IN_CLAUSE_SIZE, ids.size()));
+            bookRepository.findRowsByIdIn(chunk)
+                    .forEach(row -> rows.put(row.id(), row));
+        }
+        return ids.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .map(BookDTO.Response::fromRow)
+                .toList();
+    }
+
+    private BookDTO.MultiGetItem.MultiGetItemBuilder multiGetItem(BookRow row) {
+        return BookDTO.MultiGetItem.builder()
+                .found(row != null)
+                .book(row != null ? BookDTO.Response.fromRow(row) : null);
+    }
+
+    private Sort.Direction parseDirection(String direction) {
+        return Sort.Direction.fromOptionalString(direction)
+                .orElseThrow(() -> new BusinessException("Unsupported sort direction: " + direction, HttpStatus.BAD_REQUEST));
+    }
+
+    private BookPageCursor firstPage(BookSort sort, Sort.Direction direction) {
+        long lastId = direction.isAscending() ? 0L : Long.MAX_VALUE;
+        return new BookPageCursor(sort, direction, false, null, lastId);
+    }
+
+    private BookPageCursor cursorAfter(BookPageCursor position, BookRow last) {
+        Object key = switch (position.sort()) {
+            case ID -> null;
+            case PRICE -> last.price();
+            case PUBLISH_DATE -> last.publishDate();
+        };
+        boolean nullKeys = position.sort() != BookSort.ID && key == null;
+        return new BookPageCursor(position.sort(), position.direction(), nullKeys,
+                key == null ? null : key.toString(), last.id());
+    }
+
+    private List<BookRow> fetchPage(BookPageCursor position, Pageable limit) {
+        boolean asc = position.direction().isAscending();
+        long lastId = position.lastId();
+
+        if (position.nullKeys()) {
+            return position.sort() == BookSort.PRICE
+                    ? bookRepository.findPageByNullPrice(lastId, limit)
+                    : bookRepository.findPageByNullPublishDate(lastId, limit);
+        }
+
+        return switch (position.sort()) {
+            case ID -> asc
+                    ? bookRepository.findPageByIdAsc(lastId, limit)
+                    : bookRepository.findPageByIdDesc(lastId, limit);
+            case PRICE -> {
+                Integer price = position.key() != null
+                        ? position.priceKey()
+                        : (asc ? Integer.MIN_VALUE : Integer.MAX_VALUE);
+                yield asc
+                        ? bookRepository.findPageByPriceAsc(price, lastId, limit)
+                        : bookRepository.findPageByPriceDesc(price, lastId, limit);
+            }
+            case PUBLISH_DATE -> {
+                LocalDate publishDate = position.key() != null
+                        ? position.publishDateKey()
+                        : (asc ? MIN_PUBLISH_DATE : MAX_PUBLISH_DATE);
+                yield asc
+                        ? bookRepository.findPageByPublishDateAsc(publishDate, lastId, limit)
+                        : bookRepository.findPageByPublishDateDesc(publishDate, lastId, limit);
+            }
+        };
+    }
+}
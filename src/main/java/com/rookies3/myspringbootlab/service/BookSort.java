@@ -0,0 +1,29 @@
+package com.rookies3.myspringbootlab.service;
+
+import com.rookies3.myspringbootlab.exception.BusinessException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+/**
+ * 목록 조회 시 허용되는 정렬 기준
+ * 모든 정렬은 book_id 를 tiebreaker 로 사용하므로 순서가 항상 유일하게 결정됩니다.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum BookSort {
+    ID("id"),
+    PRICE("price"),
+    PUBLISH_DATE("publishDate");
+
+    private final String property;
+
+    public static BookSort from(String value) {
+        for (BookSort sort : values()) {
+            if (sort.property.equalsIgnoreCase(value) || sort.name().equalsIgnoreCase(value)) {
+                return sort;
+            }
+        }
+        throw new BusinessException("Unsupported sort property: " + value, HttpStatus.BAD_REQUEST);
+    }
+}
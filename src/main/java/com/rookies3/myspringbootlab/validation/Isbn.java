@@ -0,0 +1,101 @@
+package com.rookies3.myspringbootlab.validation;
+
+/**
+ * ISBN-10/13 을 한 번 순회하면서 숫자, 체크섬을 확인하고 정규화된 ISBN-13 값(long)으로 변환합니다.
+ * 하이픈은 위치와 관계없이 무시하며 문자열/배열을 만들지 않습니다. (요청마다 호출되는 검증/조회 경로)
+ * ISBN-10 은 앞에 978 을 붙이고 체크 숫자를 다시 계산해서 같은 도서의 ISBN-13 과 같은 값이 됩니다.
+ */
+public final class Isbn {
+
+    // 변환할 수 없는 값 (DB 에 저장되는 값과 겹치지 않으므로 조회 조건으로 넘기면 결과가 없음)
+    public static final long INVALID = -1L;
+
+    private static final long PREFIX_978 = 9_780_000_000_000L;
+    private static final long PREFIX_979 = 9_790_000_000_000L;
+    // 978 의 ISBN-13 가중합 (9*1 + 7*3 + 8*1)
+    private static final int PREFIX_978_SUM = 38;
+
+    private Isbn() {
+    }
+
+    /**
+     * 체크섬까지 확인 (요청 검증용)
+     *
+     * @return 정규화된 ISBN-13, 올바르지 않으면 {@link #INVALID}
+     */
+    public static long parse(CharSequence value) {
+        return parse(value, true);
+    }
+
+    /**
+     * 자릿수/형식만 확인하고 체크섬은 확인하지 않음 (저장/조회 키)
+     * 검증 이전에 저장된 도서도 같은 키로 중복 확인과 조회가 되도록 합니다.
+     */
+    public static long normalize(CharSequence value) {
+        return parse(value, false);
+    }
+
+    public static boolean isValid(CharSequence value) {
+        return parse(value) != INVALID;
+    }
+
+    private static long parse(CharSequence value, boolean verifyChecksum) {
+        if (value == null) {
+            return INVALID;
+        }
+        long digits = 0;
+        int count = 0;
+        // ISBN-10 가중합 (10, 9, ... 1), ISBN-13 가중합 (1, 3, 1, 3 ...)
+        int sum10 = 0;
+        int sum13 = 0;
+        // ISBN-10 앞 9자리를 978 뒤에 붙였을 때의 가중합 (3, 1, 3 ...)
+        int shiftedSum = 0;
+        boolean checkX = false;
+
+        for (int i = 0, length = value.length(); i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (checkX || count == 13) {
+                    return INVALID;
+                }
+                int digit = c - '0';
+                if (count < 10) {
+                    sum10 += (10 - count) * digit;
+                }
+                if (count < 9) {
+                    shiftedSum += (count % 2 == 0 ? 3 : 1) * digit;
+                }
+                sum13 += (count % 2 == 0 ? 1 : 3) * digit;
+                digits = digits * 10 + digit;
+                count++;
+            } else if ((c == 'X' || c == 'x') && count == 9) {
+                // ISBN-10 의 체크 숫자 10
+                checkX = true;
+                sum10 += 10;
+                count++;
+            } else if (c != '-') {
+                return INVALID;
+            }
+        }
+
+        if (count == 10) {
+            if (verifyChecksum && sum10 % 11 != 0) {
+                return INVALID;
+            }
+            long body = checkX ? digits : digits / 10;
+            int check = (10 - (PREFIX_978_SUM + shiftedSum) % 10) % 10;
+            return PREFIX_978 + body * 10 + check;
+        }
+        if (count == 13) {
+            long prefix = digits - digits % 10_000_000_000L;
+            if (prefix != PREFIX_978 && prefix != PREFIX_979) {
+                return INVALID;
+            }
+            if (verifyChecksum && sum13 % 10 != 0) {
+                return INVALID;
+            }
+            return digits;
+        }
+        return INVALID;
+    }
+}
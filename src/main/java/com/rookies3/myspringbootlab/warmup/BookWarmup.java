@@ -0,0 +1,223 @@
+package com.rookies3.myspringbootlab.warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rookies3.myspringbootlab.controller.BookController;
+import com.rookies3.myspringbootlab.controller.dto.BookDTO;
+import com.rookies3.myspringbootlab.entity.Book;
+import com.rookies3.myspringbootlab.popularity.BookPopularity;
+import com.rookies3.myspringbootlab.popularity.PopularBook;
+import com.rookies3.myspringbootlab.popularity.PopularityWindow;
+import com.rookies3.myspringbootlab.property.BookWarmupProperties;
+import com.rookies3.myspringbootlab.repository.BookRepository;
+import com.rookies3.myspringbootlab.repository.projection.BookRow;
+import com.rookies3.myspringbootlab.service.BookService;
+import com.rookies3.myspringbootlab.validation.Isbn;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 배포 직후 워밍업 : 커넥션 풀, 캐시, JIT 를 데운 뒤에 트래픽을 받도록 합니다.
+ * Spring Boot 는 ApplicationReadyEvent 리스너가 모두 끝난 다음 readiness 를 ACCEPTING_TRAFFIC 으로 바꾸므로
+ * 이 리스너가 실행되는 동안 /actuator/health/readiness 는 OUT_OF_SERVICE 이고, 진행 상황은 /actuator/warmup 에서 볼 수 있습니다.
+ * 1. CONNECTION_POOL : 풀의 minimumIdle 만큼 커넥션을 동시에 열어 둠
+ * 2. PRELOAD : 인기 도서(설정한 ISBN 또는 최근 24시간 조회수 순, 모자라면 최근 변경 순)를 실제 조회 경로(BookController)로 읽어 응답/JSON 캐시에 저장
+ * 3. JIT : BookDTO.Response.fromEntity + Jackson 직렬화와 캐시 hit 조회를 JIT 컴파일 시간이 더 늘지 않을 때까지 반복
+ * 전체 시간은 book.warmup.timeout 으로 제한하며, 실패하거나 시간이 지나도 시작은 계속됩니다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookWarmup {
+
+    public enum Phase { PENDING, DISABLED, CONNECTION_POOL, PRELOAD, JIT, DONE, TIMED_OUT, FAILED }
+
+    public record Progress(Phase phase, Instant startedAt, long elapsedMs, int connectionsOpened,
+                           int booksPreloaded, int jitRounds, long jitIterations, long compilationTimeMs,
+                           String message) {
+    }
+
+    private final BookWarmupProperties properties;
+    private final DataSource dataSource;
+    private final BookRepository bookRepository;
+    private final BookPopularity bookPopularity;
+    private final BookController bookController;
+    private final ObjectMapper objectMapper;
+
+    private volatile Phase phase = Phase.PENDING;
+    private volatile Instant startedAt;
+    private volatile long startNanos;
+    private volatile long finishedNanos;
+    private volatile int connectionsOpened;
+    private volatile int booksPreloaded;
+    private volatile int jitRounds;
+    private volatile long jitIterations;
+    private volatile long compilationTimeMs;
+    private volatile String message;
+
+    public Progress progress() {
+        long elapsed = startedAt == null ? 0
+                : ((finishedNanos != 0 ? finishedNanos : System.nanoTime()) - startNanos) / 1_000_000;
+        return new Progress(phase, startedAt, elapsed, connectionsOpened, booksPreloaded,
+                jitRounds, jitIterations, compilationTimeMs, message);
+    }
+
+    // 검색 인덱스/패싯 집계/ISBN 필터 구축(@Order(0)) 뒤에 실행
+    // @Order 가 없는 리스너는 이 리스너와 같은 LOWEST_PRECEDENCE 이므로, 먼저 실행해야 하는 리스너에 더 높은 순서를 지정
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void warmUp() {
+        if (!properties.isEnabled()) {
+            phase = Phase.DISABLED;
+            return;
+        }
+        startedAt = Instant.now();
+        startNanos = System.nanoTime();
+        long deadline = startNanos + properties.getTimeout().toNanos();
+
+        try {
+            phase = Phase.CONNECTION_POOL;
+            openConnections(deadline);
+
+            phase = Phase.PRELOAD;
+            List<Long> ids = hotBookIds();
+            preload(ids, deadline);
+
+            phase = Phase.JIT;
+            exerciseSerialization(ids, deadline);
+
+            phase = expired(deadline) ? Phase.TIMED_OUT : Phase.DONE;
+        } catch (RuntimeException | SQLException e) {
+            phase = Phase.FAILED;
+            message = e.getMessage();
+            log.warn("Warm-up failed, accepting traffic anyway", e);
+        } finally {
+            finishedNanos = System.nanoTime();
+        }
+        Progress result = progress();
+        log.info("Warm-up {} in {} ms: {} connections, {} books preloaded, {} JIT iterations ({} rounds)",
+                result.phase(), result.elapsedMs(), result.connectionsOpened(), result.booksPreloaded(),
+                result.jitIterations(), result.jitRounds());
+    }
+
+    /**
+     * Hikari 는 첫 커넥션 이후 minimumIdle 을 백그라운드에서 채우므로, 동시에 빌려서 첫 요청들이 커넥션 생성을 기다리지 않도록 합니다.
+     */
+    private void openConnections(long deadline) throws SQLException {
+        int target = dataSource.isWrapperFor(HikariDataSource.class)
+                ? dataSource.unwrap(HikariDataSource.class).getMinimumIdle() : 1;
+        List<Connection> connections = new ArrayList<>(target);
+        try {
+            while (connections.size() < target && !expired(deadline)) {
+                Connection connection = dataSource.getConnection();
+                connections.add(connection);
+                // LazyConnectionDataSourceProxy(읽기/쓰기 분리)인 경우에도 실제 커넥션을 가져오도록 사용
+                connection.isValid(1);
+                connectionsOpened = connections.size();
+            }
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    private List<Long> hotBookIds() {
+        if (!properties.getIsbns().isEmpty()) {
+            return bookRepository.findIdsByIsbnIn(properties.getIsbns().stream().map(Isbn::normalize).toList());
+        }
+        int limit = Math.max(properties.getHotBooks(), 1);
+        Set<Long> ids = new LinkedHashSet<>();
+
+        // 모든 인스턴스에서 지난 24시간 동안 많이 조회된 도서 (그 사이 삭제된 도서는 제외)
+        bookPopularity.loadRankings();
+        List<Long> popular = bookPopularity.top(PopularityWindow.ONE_DAY, limit).stream()
+                .map(PopularBook::bookId)
+                .toList();
+        if (!popular.isEmpty()) {
+            Set<Long> existing = bookRepository.findRowsByIdIn(popular).stream()
+                    .map(BookRow::id)
+                    .collect(Collectors.toSet());
+            popular.stream().filter(existing::contains).forEach(ids::add);
+        }
+        // 조회수 통계가 모자라면 (새 DB, 조회수 집계 비활성화 등) 최근 변경된 도서로 채움
+        if (ids.size() < limit) {
+            ids.addAll(bookRepository.findRecentlyUpdatedIds(PageRequest.of(0, limit)));
+        }
+        return ids.stream().limit(limit).toList();
+    }
+
+    private void preload(List<Long> ids, long deadline) {
+        bookController.getBookPage(null, BookService.DEFAULT_PAGE_SIZE, "id", "asc", null, null);
+        for (Long id : ids) {
+            if (expired(deadline)) {
+                return;
+            }
+            bookController.getBookById(id, null, null);
+            booksPreloaded++;
+        }
+    }
+
+    private void exerciseSerialization(List<Long> ids, long deadline) {
+        List<Book> books = ids.isEmpty() ? List.of() : bookRepository.findAllWithBookDetailByIdIn(ids);
+        if (books.isEmpty()) {
+            message = "No books to warm up";
+            return;
+        }
+        CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+        boolean monitored = compilation != null && compilation.isCompilationTimeMonitoringSupported();
+        long compiledBefore = monitored ? compilation.getTotalCompilationTime() : 0;
+        int stable = 0;
+
+        while (stable < properties.getStableRounds() && !expired(deadline)) {
+            for (int i = 0; i < properties.getIterationsPerRound(); i++) {
+                Book book = books.get(i % books.size());
+                serialize(BookDTO.Response.fromEntity(book));
+                bookController.getBookById(book.getId(), null, null);
+            }
+            jitIterations += properties.getIterationsPerRound();
+            jitRounds++;
+
+            if (monitored) {
+                long compiled = compilation.getTotalCompilationTime();
+                compilationTimeMs = compiled;
+                stable = compiled == compiledBefore ? stable + 1 : 0;
+                compiledBefore = compiled;
+            } else {
+                // 컴파일 시간을 알 수 없으면 stableRounds 만큼만 반복
+                stable++;
+            }
+        }
+    }
+
+    private void serialize(BookDTO.Response response) {
+        try {
+            objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize book " + response.getId(), e);
+        }
+    }
+
+    private static boolean expired(long deadline) {
+        return System.nanoTime() - deadline >= 0;
+    }
+}
@@ -0,0 +1,23 @@
+package com.rookies3.myspringbootlab.warmup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * /actuator/warmup : 워밍업 단계와 진행 상황 (BookWarmup)
+ * 워밍업이 끝나기 전에도 조회할 수 있으므로 배포 중에 readiness 가 늦어지는 이유를 확인할 때 사용합니다.
+ */
+@Component
+@Endpoint(id = "warmup")
+@RequiredArgsConstructor
+public class BookWarmupEndpoint {
+
+    private final BookWarmup bookWarmup;
+
+    @ReadOperation
+    public BookWarmup.Progress progress() {
+        return bookWarmup.progress();
+    }
+}
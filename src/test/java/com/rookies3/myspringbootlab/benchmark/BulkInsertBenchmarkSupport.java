@@ -0,0 +1,116 @@
+package com.rookies3.myspringbootlab.benchmark;
+
+import com.rookies3.myspringbootlab.controller.dto.BookDTO;
+import com.rookies3.myspringbootlab.repository.BookRepository;
+import com.rookies3.myspringbootlab.seed.SyntheticBooks;
+import com.rookies3.myspringbootlab.service.BookBulkService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Book/BookDetail 저장 처리량(rows/sec) 비교
+ * - row-at-a-time : 한 건마다 flush (IDENTITY 전략에서 강제되던 방식, insert 마다 DB 왕복)
+ * - batched       : BookBulkService (시퀀스 pooled id + hibernate.jdbc.batch_size)
+ * 기본 빌드에서는 제외되며 mvn test -Pbenchmark 로 실행합니다.
+ */
+@Tag("benchmark")
+abstract class BulkInsertBenchmarkSupport {
+
+    private static final int WARMUP_ROWS = 500;
+    private static final int ROWS = 5000;
+
+    @Autowired
+    private BookBulkService bookBulkService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void compareRowAtATimeWithBatchedInsert() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // JIT / 커넥션 / 시퀀스 warm-up
+        insertRowAtATime(requests(1_000_000, WARMUP_ROWS));
+        bookBulkService.createBooks(requests(2_000_000, WARMUP_ROWS));
+
+        statistics.clear();
+        long start = System.nanoTime();
+        insertRowAtATime(requests(3_000_000, ROWS));
+        long rowAtATimeNanos = System.nanoTime() - start;
+        long rowAtATimeStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        start = System.nanoTime();
+        BookDTO.BulkResponse response = bookBulkService.createBooks(requests(4_000_000, ROWS));
+        long batchedNanos = System.nanoTime() - start;
+        long batchedStatements = statistics.getPrepareStatementCount();
+
+        assertThat(response.getCreated()).isEqualTo(ROWS);
+        assertThat(bookRepository.count()).isEqualTo(2L * (WARMUP_ROWS + ROWS));
+
+        System.out.printf("%n[%s] %,d books (+details)%n", getClass().getSimpleName(), ROWS);
+        System.out.printf("  row-at-a-time : %,10.0f rows/sec, %,6d statements%n",
+                rowsPerSecond(rowAtATimeNanos), rowAtATimeStatements);
+        System.out.printf("  batched       : %,10.0f rows/sec, %,6d statements%n",
+                rowsPerSecond(batchedNanos), batchedStatements);
+    }
+
+    private void insertRowAtATime(List<BookDTO.Request> requests) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (BookDTO.Request request : requests) {
+                entityManager.persist(request.toEntity());
+                entityManager.flush();
+                // 영속성 컨텍스트 크기에 따른 dirty checking 비용은 제외하고 DB 왕복 비용만 비교
+                entityManager.clear();
+            }
+        });
+    }
+
+    private static double rowsPerSecond(long nanos) {
+        return ROWS / (nanos / 1_000_000_000.0);
+    }
+
+    private static List<BookDTO.Request> requests(int isbnBase, int count) {
+        List<BookDTO.Request> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            requests.add(BookDTO.Request.builder()
+                    .title("Benchmark Book " + i)
+                    .author("Benchmark Author " + (i % 100))
+                    // 체크 숫자까지 유효한 ISBN (BookBulkService 가 체크섬을 검증)
+                    .isbn(SyntheticBooks.isbn13(String.format("979%09d", isbnBase + i)))
+                    .price(10000 + i % 50000)
+                    .publishDate(LocalDate.of(2020, 1, 1).plusDays(i % 1000))
+                    .detailRequest(BookDTO.BookDetailDTO.builder()
+                            .description("Benchmark description " + i)
+                            .language(i % 2 == 0 ? "Korean" : "English")
+                            .pageCount(100 + i % 900)
+                            .publisher("Publisher " + (i % 20))
+                            .edition("1판")
+                            .build())
+                    .build());
+        }
+        return requests;
+    }
+}
@@ -0,0 +1,12 @@
+package com.rookies3.myspringbootlab.benchmark;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = {
+        "book.seed.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+class H2BulkInsertBenchmarkTest extends BulkInsertBenchmarkSupport {
+}
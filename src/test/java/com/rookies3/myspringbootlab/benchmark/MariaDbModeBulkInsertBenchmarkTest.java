@@ -0,0 +1,17 @@
+package com.rookies3.myspringbootlab.benchmark;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+// H2 의 MariaDB 호환 모드 + MariaDBDialect : 운영(MariaDB)과 같은 SQL/시퀀스 문법으로 측정
+@SpringBootTest(properties = {
+        "book.seed.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.datasource.url=jdbc:h2:mem:bulk-mariadb;MODE=MariaDB;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.username=sa",
+        "spring.jpa.database-platform=org.hibernate.dialect.MariaDBDialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@ActiveProfiles("test")
+class MariaDbModeBulkInsertBenchmarkTest extends BulkInsertBenchmarkSupport {
+}
@@ -0,0 +1,73 @@
+package com.rookies3.myspringbootlab.benchmark.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.rookies3.myspringbootlab.controller.dto.BookDTO;
+import com.rookies3.myspringbootlab.entity.Book;
+import com.rookies3.myspringbootlab.entity.BookDetail;
+import com.rookies3.myspringbootlab.repository.projection.BookRow;
+import com.rookies3.myspringbootlab.seed.SyntheticBooks;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * 벤치마크 입력 데이터 : SyntheticBooks 로 만들어서 실행마다 같은 값을 사용합니다.
+ */
+final class BenchmarkBooks {
+
+    static final long SEED = 20240601L;
+
+    private static final SyntheticBooks BOOKS = new SyntheticBooks(SEED, 1.0, 0.5, 0.2);
+    private static final SyntheticBooks BOOKS_WITHOUT_DETAIL = new SyntheticBooks(SEED, 0.0, 0.5, 0.2);
+
+    private BenchmarkBooks() {
+    }
+
+    static Book entity(long index, boolean withDetail) {
+        SyntheticBooks.Row row = (withDetail ? BOOKS : BOOKS_WITHOUT_DETAIL).row(index);
+        Book book = Book.builder()
+                .id(index + 1)
+                .title(row.title())
+                .author(row.author())
+                .isbn(row.isbn())
+                .price(row.price())
+                .publishDate(row.publishDate())
+                .version(0L)
+                .updatedAt(row.updatedAt())
+                .build();
+        if (row.detail() != null) {
+            SyntheticBooks.Detail detail = row.detail();
+            book.setBookDetail(BookDetail.builder()
+                    .id(index + 1)
+                    .description(detail.description())
+                    .language(detail.language())
+                    .pageCount(detail.pageCount())
+                    .publisher(detail.publisher())
+                    .coverImageUrl(detail.coverImageUrl())
+                    .edition(detail.edition())
+                    .version(0L)
+                    .book(book)
+                    .build());
+        }
+        return book;
+    }
+
+    static BookRow row(long index) {
+        SyntheticBooks.Row row = BOOKS.row(index);
+        SyntheticBooks.Detail detail = row.detail();
+        return new BookRow(index + 1, row.title(), row.author(), row.isbn(), row.price(), row.publishDate(),
+                0L, row.updatedAt(), index + 1, detail.description(), detail.language(), detail.pageCount(),
+                detail.publisher(), detail.coverImageUrl(), detail.edition());
+    }
+
+    static BookDTO.Request request(long index) {
+        return BookDTO.Request.fromEntity(entity(index, true));
+    }
+
+    // Spring Boot(JacksonAutoConfiguration) 기본값과 같게 날짜는 ISO 문자열로 직렬화
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                        SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.rookies3.myspringbootlab.benchmark.jmh;
+
+import com.rookies3.myspringbootlab.controller.dto.BookDTO;
+import com.rookies3.myspringbootlab.entity.Book;
+import com.rookies3.myspringbootlab.repository.projection.BookRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 엔티티/프로젝션 -> 응답 DTO 변환 (BookDTO.Response.fromEntity, fromRow)
+ * Book 은 bytecode enhancement 가 적용된 클래스이므로 getter 비용도 실제 실행과 같습니다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookDtoMappingBenchmark {
+
+    private Book withDetail;
+    private Book withoutDetail;
+    private BookRow row;
+
+    @Setup
+    public void setUp() {
+        withDetail = BenchmarkBooks.entity(1, true);
+        withoutDetail = BenchmarkBooks.entity(2, false);
+        row = BenchmarkBooks.row(1);
+    }
+
+    @Benchmark
+    public BookDTO.Response fromEntityWithDetail() {
+        return BookDTO.Response.fromEntity(withDetail);
+    }
+
+    @Benchmark
+    public BookDTO.Response fromEntityWithoutDetail() {
+        return BookDTO.Response.fromEntity(withoutDetail);
+    }
+
+    // 조회 API 가 실제로 사용하는 경로 (BookRow 프로젝션)
+    @Benchmark
+    public BookDTO.Response fromRow() {
+        return BookDTO.Response.fromRow(row);
+    }
+}
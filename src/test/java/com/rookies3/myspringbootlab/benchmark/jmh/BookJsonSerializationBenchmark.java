@@ -0,0 +1,58 @@
+package com.rookies3.myspringbootlab.benchmark.jmh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rookies3.myspringbootlab.controller.dto.BookDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 응답 DTO 의 JSON 직렬화 (BookJsonCache.render 와 같은 writeValueAsBytes)
+ * publishDate(LocalDate) 는 Spring Boot 설정과 같이 ISO 문자열로 직렬화합니다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookJsonSerializationBenchmark {
+
+    private static final int LIST_SIZE = 1_000;
+
+    private ObjectMapper objectMapper;
+    private BookDTO.Response single;
+    private List<BookDTO.Response> list;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkBooks.objectMapper();
+        single = BookDTO.Response.fromRow(BenchmarkBooks.row(1));
+        list = new ArrayList<>(LIST_SIZE);
+        for (int i = 0; i < LIST_SIZE; i++) {
+            list.add(BookDTO.Response.fromEntity(BenchmarkBooks.entity(i, i % 10 < 7)));
+        }
+    }
+
+    @Benchmark
+    public byte[] singleBook() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(single);
+    }
+
+    @Benchmark
+    public byte[] thousandBooks() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(list);
+    }
+}
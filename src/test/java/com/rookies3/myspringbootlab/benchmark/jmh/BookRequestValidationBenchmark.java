@@ -0,0 +1,72 @@
+package com.rookies3.myspringbootlab.benchmark.jmh;
+
+import com.rookies3.myspringbootlab.controller.dto.BookDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean Validation 으로 BookDTO.Request 검증 (@Valid 요청 본문, BookBulkService 항목 검증과 같은 경로)
+ * ISBN 검증(@ValidIsbn, 한 번 순회하는 체크섬 확인)을 하이픈 포함/미포함, 잘못된 ISBN 으로 나눠서 측정합니다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookRequestValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private BookDTO.Request valid;
+    private BookDTO.Request hyphenated;
+    private BookDTO.Request invalidIsbn;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        valid = BenchmarkBooks.request(1);
+        hyphenated = BenchmarkBooks.request(2);
+        hyphenated.setIsbn("978-89-6626-247-2");
+        invalidIsbn = BenchmarkBooks.request(3);
+        invalidIsbn.setIsbn("978-89-6626-24");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<BookDTO.Request>> validRequest() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<BookDTO.Request>> hyphenatedIsbn() {
+        return validator.validate(hyphenated);
+    }
+
+    // 위반 메시지 생성(interpolation) 비용 포함
+    @Benchmark
+    public Set<ConstraintViolation<BookDTO.Request>> invalidIsbn() {
+        return validator.validate(invalidIsbn);
+    }
+}
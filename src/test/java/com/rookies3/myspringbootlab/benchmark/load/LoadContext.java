@@ -0,0 +1,96 @@
+package com.rookies3.myspringbootlab.benchmark.load;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rookies3.myspringbootlab.controller.dto.BookDTO;
+import com.rookies3.myspringbootlab.seed.SyntheticBooks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 요청을 만드는 데 필요한 상태
+ * 서버는 SyntheticBookGenerator 로 같은 seed 의 도서 books 권을 가지고 있으므로 id 1..books, 각 도서의 ISBN/제목/저자를 알 수 있습니다.
+ * 새로 등록하는 도서는 books 이후의 index 를 사용해서 ISBN 이 겹치지 않습니다.
+ * 요청 선택과 생성은 디스패처 스레드 하나에서만 하므로 같은 seed 이면 같은 요청 순서가 됩니다.
+ */
+final class LoadContext {
+
+    final URI baseUri;
+    final long books;
+    final SyntheticBooks syntheticBooks;
+    final ObjectMapper objectMapper;
+    final SplittableRandom random;
+    // 이 부하 테스트가 등록한 도서 (삭제 대상)
+    final Queue<Long> createdIds = new ConcurrentLinkedQueue<>();
+    private long nextIndex;
+
+    LoadContext(URI baseUri, long books, long seed, ObjectMapper objectMapper) {
+        this.baseUri = baseUri;
+        this.books = books;
+        this.syntheticBooks = new SyntheticBooks(seed, 0.7, 0.5, 0.2);
+        this.objectMapper = objectMapper;
+        this.random = new SplittableRandom(seed);
+        this.nextIndex = books;
+    }
+
+    URI uri(String pathAndQuery) {
+        return baseUri.resolve("/api/books" + pathAndQuery);
+    }
+
+    long randomIndex() {
+        return random.nextLong(books);
+    }
+
+    SyntheticBooks.Row existingBook() {
+        return syntheticBooks.row(randomIndex());
+    }
+
+    // 생성기는 빈 DB 에서 id 를 index + 1 로 부여
+    static long idOf(SyntheticBooks.Row row) {
+        return row.index() + 1;
+    }
+
+    SyntheticBooks.Row newBook() {
+        return syntheticBooks.row(nextIndex++);
+    }
+
+    BookDTO.Request request(SyntheticBooks.Row row) {
+        SyntheticBooks.Detail detail = row.detail();
+        return BookDTO.Request.builder()
+                .title(row.title())
+                .author(row.author())
+                .isbn(row.isbn())
+                .price(row.price())
+                .publishDate(row.publishDate())
+                .detailRequest(detail == null ? null : BookDTO.BookDetailDTO.builder()
+                        .description(detail.description())
+                        .language(detail.language())
+                        .pageCount(detail.pageCount())
+                        .publisher(detail.publisher())
+                        .coverImageUrl(detail.coverImageUrl())
+                        .edition(detail.edition())
+                        .build())
+                .build();
+    }
+
+    byte[] json(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    JsonNode readTree(byte[] body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
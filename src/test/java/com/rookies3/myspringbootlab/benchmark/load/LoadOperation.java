@@ -0,0 +1,201 @@
+package com.rookies3.myspringbootlab.benchmark.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.rookies3.myspringbootlab.controller.dto.BookDTO;
+import com.rookies3.myspringbootlab.seed.SyntheticBooks;
+
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BookController 의 엔드포인트별 요청
+ * 분류(read/search/write) 비율은 LoadTestOptions.mix 로 정하고, 분류 안에서는 weight 비율로 고릅니다.
+ */
+enum LoadOperation {
+
+    GET_BY_ID(Category.READ, 50) {
+        @Override
+        HttpRequest request(LoadContext context) {
+            return get(context, "/" + LoadContext.idOf(context.existingBook()));
+        }
+    },
+    GET_BY_ISBN(Category.READ, 20) {
+        @Override
+        HttpRequest request(LoadContext context) {
+            return get(context, "/isbn/" + context.existingBook().isbn());
+        }
+    },
+    GET_PAGE(Category.READ, 15) {
+        @Override
+        HttpRequest request(LoadContext context) {
+            String sort = switch (context.random.nextInt(3)) {
+                case 0 -> "id";
+                case 1 -> "price";
+                default -> "publishDate";
+            };
+            return get(context, "/page?size=20&sort=" + sort + "&direction=" + (context.random.nextBoolean() ? "asc" : "desc"));
+        }
+    },
+    MULTI_GET(Category.READ, 10) {
+        @Override
+        HttpRequest request(LoadContext context) {
+            List<Long> ids = new ArrayList<>();
+            List<String> isbns = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                SyntheticBooks.Row row = context.existingBook();
+                if (i % 2 == 0) {
+                    ids.add(LoadContext.idOf(row));
+                } else {
+                    isbns.add(row.isbn());
+                }
+            }
+            return post(context, "/_mget", context.json(new BookDTO.MultiGetRequest(ids, isbns)));
+        }
+    },
+    GET_ALL(Category.READ, 3) {
+        @Override
+        HttpRequest request(LoadContext context) {
+            return get(context, "");
+        }
+    },
+    EXPORT(Category.READ, 2) {
+        @Override
+        HttpRequest request(LoadContext context) {
+            return get(context, "/export.ndjson");
+        }
+    },
+
+    SEARCH_TITLE(Category.SEARCH, 40) {
+        @Override
+        HttpRequest request(LoadContext context) {
+            return get(context, "/search/title?title=" + encode(firstWord(context.existingBook().title())));
+        }
+    },
+    SEARCH_AUTHOR(Category.SEARCH, 30) {
+        @Override
+        HttpRequest request(LoadContext context) {
+            return get(context, "/search/author?author=" + encode(context.existingBook().author()));
+        }
+    },
+    SEARCH_QUERY(Category.SEARCH, 30) {
+        @Override
+        HttpRequest request(LoadContext context) {
+            SyntheticBooks.Row row = context.existingBook();
+            return get(context, "/search?limit=20&q=" + encode(firstWord(row.title()) + " " + firstWord(row.author())));
+        }
+    },
+
+    CREATE(Category.WRITE, 40) {
+        @Override
+        HttpRequest request(LoadContext context) {
+            return post(context, "", context.json(context.request(context.newBook())));
+        }
+
+        @Override
+        void onResponse(LoadContext context, HttpResponse<byte[]> response) {
+            if (response.statusCode() == 201) {
+                context.createdIds.add(context.readTree(response.body()).path("id").asLong());
+            }
+        }
+    },
+    UPDATE(Category.WRITE, 20) {
+        @Override
+        HttpRequest request(LoadContext context) {
+            SyntheticBooks.Row row = context.existingBook();
+            BookDTO.Request request = context.request(row);
+            request.setPrice(row.price() + 100 * (1 + context.random.nextInt(10)));
+            return send(context, "PUT", "/" + LoadContext.idOf(row), "application/json", context.json(request));
+        }
+    },
+    PATCH(Category.WRITE, 25) {
+        @Override
+        HttpRequest request(LoadContext context) {
+            long id = LoadContext.idOf(context.existingBook());
+            byte[] patch = context.json(Map.of("price", 8_000 + context.random.nextInt(521) * 100));
+            return send(context, "PATCH", "/" + id, "application/merge-patch+json", patch);
+        }
+    },
+    DELETE(Category.WRITE, 10) {
+        // 이 테스트가 등록한 도서만 삭제 (아직 없으면 등록으로 대신함)
+        @Override
+        LoadOperation resolve(LoadContext context) {
+            return context.createdIds.isEmpty() ? CREATE : this;
+        }
+
+        @Override
+        HttpRequest request(LoadContext context) {
+            return HttpRequest.newBuilder(context.uri("/" + context.createdIds.poll())).DELETE().build();
+        }
+    },
+    BULK_CREATE(Category.WRITE, 5) {
+        @Override
+        HttpRequest request(LoadContext context) {
+            List<BookDTO.Request> requests = new ArrayList<>(10);
+            for (int i = 0; i < 10; i++) {
+                requests.add(context.request(context.newBook()));
+            }
+            return post(context, "/_bulk", context.json(requests));
+        }
+
+        @Override
+        void onResponse(LoadContext context, HttpResponse<byte[]> response) {
+            if (response.statusCode() == 200) {
+                for (JsonNode result : context.readTree(response.body()).path("results")) {
+                    if (result.hasNonNull("id")) {
+                        context.createdIds.add(result.get("id").asLong());
+                    }
+                }
+            }
+        }
+    };
+
+    enum Category { READ, SEARCH, WRITE }
+
+    final Category category;
+    final int weight;
+
+    LoadOperation(Category category, int weight) {
+        this.category = category;
+        this.weight = weight;
+    }
+
+    // 실제로 보낼 연산 (디스패처 스레드에서 request 직전에 호출)
+    LoadOperation resolve(LoadContext context) {
+        return this;
+    }
+
+    abstract HttpRequest request(LoadContext context);
+
+    // 응답 처리 (등록된 도서 id 기록 등), 응답을 받은 스레드에서 실행
+    void onResponse(LoadContext context, HttpResponse<byte[]> response) {
+    }
+
+    private static HttpRequest get(LoadContext context, String pathAndQuery) {
+        return HttpRequest.newBuilder(context.uri(pathAndQuery)).GET().build();
+    }
+
+    private static HttpRequest post(LoadContext context, String path, byte[] body) {
+        return send(context, "POST", path, "application/json", body);
+    }
+
+    private static HttpRequest send(LoadContext context, String method, String path, String contentType, byte[] body) {
+        return HttpRequest.newBuilder(context.uri(path))
+                .header("Content-Type", contentType)
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    private static String firstWord(String value) {
+        int space = value.indexOf(' ');
+        return space > 0 ? value.substring(0, space) : value;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
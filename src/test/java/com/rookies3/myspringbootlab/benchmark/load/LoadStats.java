@@ -0,0 +1,133 @@
+package com.rookies3.myspringbootlab.benchmark.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 연산별 지연시간 기록
+ * responseTime : 예정된 전송 시각부터 응답까지 (서버가 밀려 늦게 보낸 시간 포함, coordinated omission 보정)
+ * serviceTime  : 실제 전송 시각부터 응답까지
+ */
+final class LoadStats {
+
+    // 1us ~ 1분, 유효숫자 3자리
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Map<LoadOperation, Recorder> operations = new EnumMap<>(LoadOperation.class);
+    private final Map<LoadOperation.Category, Recorder> categories = new EnumMap<>(LoadOperation.Category.class);
+    private final Recorder total = new Recorder();
+
+    LoadStats() {
+        for (LoadOperation operation : LoadOperation.values()) {
+            operations.put(operation, new Recorder());
+        }
+        for (LoadOperation.Category category : LoadOperation.Category.values()) {
+            categories.put(category, new Recorder());
+        }
+    }
+
+    void record(LoadOperation operation, long intendedNanos, long sentNanos, long receivedNanos, int status) {
+        long responseTime = receivedNanos - intendedNanos;
+        long serviceTime = receivedNanos - sentNanos;
+        operations.get(operation).record(responseTime, serviceTime, status);
+        categories.get(operation.category).record(responseTime, serviceTime, status);
+        total.record(responseTime, serviceTime, status);
+    }
+
+    // 응답 없이 실패한 요청 (연결 오류, 타임아웃) : status 0
+    void recordFailure(LoadOperation operation, long intendedNanos, long receivedNanos) {
+        record(operation, intendedNanos, receivedNanos, receivedNanos, 0);
+    }
+
+    Recorder total() {
+        return total;
+    }
+
+    Map<String, Recorder> rows() {
+        Map<String, Recorder> rows = new LinkedHashMap<>();
+        operations.forEach((operation, recorder) -> {
+            if (recorder.count() > 0) {
+                rows.put(operation.name(), recorder);
+            }
+        });
+        categories.forEach((category, recorder) -> {
+            if (recorder.count() > 0) {
+                rows.put(category.name(), recorder);
+            }
+        });
+        rows.put("TOTAL", total);
+        return rows;
+    }
+
+    void printTable(PrintStream out) {
+        out.printf("%-14s %8s %7s %9s %9s %9s %9s %9s %12s%n",
+                "operation", "count", "errors", "p50", "p90", "p99", "p99.9", "max", "service p99");
+        rows().forEach((name, recorder) -> {
+            Histogram response = recorder.responseTime;
+            out.printf("%-14s %8d %7d %9s %9s %9s %9s %9s %12s%n",
+                    name, recorder.count(), recorder.errors(),
+                    millis(response.getValueAtPercentile(50)),
+                    millis(response.getValueAtPercentile(90)),
+                    millis(response.getValueAtPercentile(99)),
+                    millis(response.getValueAtPercentile(99.9)),
+                    millis(response.getMaxValue()),
+                    millis(recorder.serviceTime.getValueAtPercentile(99)));
+        });
+    }
+
+    // 전체 퍼센타일 분포 (HdrHistogram plotter 에서 읽을 수 있는 .hgrm 형식, 단위 ms)
+    void writeDistributions(Path directory) throws IOException {
+        for (Map.Entry<String, Recorder> row : rows().entrySet()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(row.getKey() + ".hgrm")))) {
+                row.getValue().responseTime.outputPercentileDistribution(out, 1_000_000.0);
+            }
+        }
+    }
+
+    static String millis(long nanos) {
+        return String.format("%.2fms", nanos / 1_000_000.0);
+    }
+
+    static final class Recorder {
+
+        final Histogram responseTime = new ConcurrentHistogram(1_000, HIGHEST_TRACKABLE_NANOS, 3);
+        final Histogram serviceTime = new ConcurrentHistogram(1_000, HIGHEST_TRACKABLE_NANOS, 3);
+        final Map<Integer, LongAdder> errorsByStatus = new ConcurrentHashMap<>();
+
+        private void record(long responseNanos, long serviceNanos, int status) {
+            responseTime.recordValue(clamp(responseNanos));
+            serviceTime.recordValue(clamp(serviceNanos));
+            if (status < 200 || status >= 400) {
+                errorsByStatus.computeIfAbsent(status, key -> new LongAdder()).increment();
+            }
+        }
+
+        private static long clamp(long nanos) {
+            return Math.max(1_000, Math.min(nanos, HIGHEST_TRACKABLE_NANOS));
+        }
+
+        long count() {
+            return responseTime.getTotalCount();
+        }
+
+        long errors() {
+            return errorsByStatus.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+
+        double errorRate() {
+            long count = count();
+            return count == 0 ? 0 : (double) errors() / count;
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.rookies3.myspringbootlab.benchmark.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.rookies3.myspringbootlab.MySpringBootLabApplication;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * BookController 부하 테스트 : ./mvnw -Pload-test -DskipTests verify -Dload.args="rate=500 duration=60s"
+ * H2 메모리 DB 로 서버를 별도 JVM 으로 실행하고(도서 books 권 생성, 워밍업 후 readiness 대기) 일정한 간격(open model)으로 요청을 보냅니다.
+ * 지연시간은 예정된 전송 시각부터 측정하므로 서버가 밀려서 늦게 보낸 요청의 대기도 포함됩니다(coordinated omission 보정).
+ * 결과는 output 디렉터리의 result.json / *.hgrm 으로 저장하고, max-p99 / max-error-rate / baseline 을 넘으면 exit code 1 로 끝납니다.
+ */
+public final class LoadTest {
+
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    // baseline 비교 시 이보다 작은 p99 증가는 측정 오차로 봄
+    private static final long REGRESSION_NOISE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final LoadTestOptions options;
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private LoadTest(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        boolean passed = new LoadTest(options).run();
+        System.exit(passed ? 0 : 1);
+    }
+
+    private boolean run() throws Exception {
+        Files.createDirectories(options.output());
+        Process server = null;
+        try {
+            URI baseUri;
+            if (options.url() != null) {
+                baseUri = URI.create(options.url());
+            } else {
+                int port = freePort();
+                server = startServer(port);
+                baseUri = URI.create("http://localhost:" + port);
+            }
+            awaitReady(baseUri, server);
+
+            LoadContext context = new LoadContext(baseUri, options.books(), options.seed(), objectMapper);
+            System.out.printf("Warmup %s at %d req/s%n", options.warmup(), options.rate());
+            drive(context, options.warmup(), null);
+            LoadStats stats = new LoadStats();
+            System.out.printf("Measuring %s at %d req/s, mix %s%n", options.duration(), options.rate(), options.mix());
+            drive(context, options.duration(), stats);
+
+            stats.printTable(System.out);
+            stats.writeDistributions(options.output());
+            ObjectNode result = result(stats);
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(options.output().resolve("result.json").toFile(), result);
+            System.out.println("Results written to " + options.output().toAbsolutePath());
+            return check(stats, result);
+        } finally {
+            if (server != null) {
+                stopServer(server);
+            }
+        }
+    }
+
+    /**
+     * rate 간격으로 예정된 시각에 요청을 보냄 (응답을 기다리지 않음)
+     * maxInFlight 를 넘으면 자리가 날 때까지 기다리지만 지연시간은 예정된 시각부터 계산합니다.
+     */
+    private void drive(LoadContext context, Duration duration, LoadStats stats) throws InterruptedException {
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        long requests = duration.toNanos() / periodNanos;
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        Selector selector = new Selector(options.mix());
+        long start = System.nanoTime();
+
+        for (long i = 0; i < requests; i++) {
+            long intended = start + i * periodNanos;
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.acquire();
+
+            LoadOperation operation = selector.next(context).resolve(context);
+            HttpRequest request = operation.request(context);
+            long sent = System.nanoTime();
+            client.sendAsync(withTimeout(request), HttpResponse.BodyHandlers.ofByteArray())
+                    .whenComplete((response, failure) -> {
+                        long received = System.nanoTime();
+                        try {
+                            if (failure != null) {
+                                if (stats != null) {
+                                    stats.recordFailure(operation, intended, received);
+                                }
+                                return;
+                            }
+                            if (stats != null) {
+                                stats.record(operation, intended, sent, received, response.statusCode());
+                            }
+                            operation.onResponse(context, response);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+        }
+
+        // 남은 응답까지 기다림
+        if (!inFlight.tryAcquire(options.maxInFlight(), REQUEST_TIMEOUT.toSeconds() + 5, TimeUnit.SECONDS)) {
+            System.out.println("Some requests did not complete within the timeout");
+        } else {
+            inFlight.release(options.maxInFlight());
+        }
+    }
+
+    private static HttpRequest withTimeout(HttpRequest request) {
+        return HttpRequest.newBuilder(request, (name, value) -> true).timeout(REQUEST_TIMEOUT).build();
+    }
+
+    private ObjectNode result(LoadStats stats) {
+        ObjectNode root = objectMapper.createObjectNode();
+        ObjectNode settings = root.putObject("options");
+        settings.put("rate", options.rate());
+        settings.put("duration", options.duration().toString());
+        settings.put("books", options.books());
+        settings.put("seed", options.seed());
+        settings.put("mix", options.mix().toString());
+        ObjectNode operations = root.putObject("operations");
+        stats.rows().forEach((name, recorder) -> {
+            ObjectNode node = operations.putObject(name);
+            node.put("count", recorder.count());
+            node.put("errors", recorder.errors());
+            ObjectNode byStatus = node.putObject("errorsByStatus");
+            recorder.errorsByStatus.forEach((status, count) -> byStatus.put(String.valueOf(status), count.sum()));
+            // 단위 ns
+            node.put("p50", recorder.responseTime.getValueAtPercentile(50));
+            node.put("p90", recorder.responseTime.getValueAtPercentile(90));
+            node.put("p99", recorder.responseTime.getValueAtPercentile(99));
+            node.put("p999", recorder.responseTime.getValueAtPercentile(99.9));
+            node.put("max", recorder.responseTime.getMaxValue());
+            node.put("serviceP99", recorder.serviceTime.getValueAtPercentile(99));
+        });
+        return root;
+    }
+
+    private boolean check(LoadStats stats, ObjectNode result) throws IOException {
+        List<String> failures = new ArrayList<>();
+        LoadStats.Recorder total = stats.total();
+        long p99 = total.responseTime.getValueAtPercentile(99);
+        if (options.maxP99() != null && p99 > options.maxP99().toNanos()) {
+            failures.add("p99 " + LoadStats.millis(p99) + " exceeds max-p99 " + options.maxP99().toMillis() + "ms");
+        }
+        if (total.errorRate() > options.maxErrorRate()) {
+            failures.add(String.format("error rate %.4f exceeds max-error-rate %.4f (by status %s)",
+                    total.errorRate(), options.maxErrorRate(), total.errorsByStatus));
+        }
+        if (options.baseline() != null) {
+            JsonNode baseline = objectMapper.readTree(options.baseline().toFile()).path("operations");
+            result.path("operations").fields().forEachRemaining(entry -> {
+                JsonNode previous = baseline.path(entry.getKey()).path("p99");
+                if (previous.isMissingNode()) {
+                    return;
+                }
+                long before = previous.asLong();
+                long now = entry.getValue().path("p99").asLong();
+                if (now - before > REGRESSION_NOISE_NANOS && now > before * (1 + options.maxRegression())) {
+                    failures.add(String.format("%s p99 %s regressed from %s (allowed +%.0f%%)",
+                            entry.getKey(), LoadStats.millis(now), LoadStats.millis(before), options.maxRegression() * 100));
+                }
+            });
+        }
+        failures.forEach(failure -> System.out.println("FAILED: " + failure));
+        return failures.isEmpty();
+    }
+
+    /**
+     * 현재 classpath 에서 test-classes 를 뺀 classpath 로 애플리케이션 실행
+     * (테스트용 @TestConfiguration 등이 스캔되지 않도록 함)
+     */
+    private Process startServer(int port) throws IOException {
+        String classpath = Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+                .filter(entry -> !entry.endsWith("test-classes"))
+                .collect(Collectors.joining(File.pathSeparator));
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        for (String jvmArg : options.serverJvmArgs().split(",")) {
+            if (!jvmArg.isBlank()) {
+                command.add(jvmArg.trim());
+            }
+        }
+        command.addAll(List.of(
+                // devtools 의 재시작 클래스로더 없이 실행
+                "-Dspring.devtools.restart.enabled=false",
+                "-classpath", classpath,
+                MySpringBootLabApplication.class.getName(),
+                "--server.port=" + port,
+                "--spring.profiles.active=test",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "--book.seed.count=" + options.books(),
+                "--book.seed.seed=" + options.seed(),
+                "--book.warmup.enabled=true",
+                "--logging.level.com.rookies3.myspringbootlab=info"));
+        Path log = options.output().resolve("server.log");
+        System.out.println("Starting server on port " + port + " (log: " + log + ")");
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private void awaitReady(URI baseUri, Process server) throws InterruptedException {
+        HttpRequest readiness = HttpRequest.newBuilder(baseUri.resolve("/actuator/health/readiness"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        long deadline = System.nanoTime() + READY_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (server != null && !server.isAlive()) {
+                throw new IllegalStateException("Server exited with code " + server.exitValue() + ", see server.log");
+            }
+            try {
+                if (client.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // 아직 시작 중
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Server not ready within " + READY_TIMEOUT);
+    }
+
+    private static void stopServer(Process server) throws InterruptedException {
+        server.destroy();
+        if (!server.waitFor(30, TimeUnit.SECONDS)) {
+            server.destroyForcibly();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * 분류 비율(mix)로 분류를 고르고, 분류 안에서 weight 비율로 연산을 고름
+     */
+    private static final class Selector {
+
+        private final LoadOperation[] operations;
+        private final int[] cumulative;
+        private final int totalWeight;
+
+        Selector(Map<LoadOperation.Category, Integer> mix) {
+            List<LoadOperation> selected = new ArrayList<>();
+            List<Integer> weights = new ArrayList<>();
+            for (Map.Entry<LoadOperation.Category, Integer> entry : mix.entrySet()) {
+                int categoryWeight = Arrays.stream(LoadOperation.values())
+                        .filter(operation -> operation.category == entry.getKey())
+                        .mapToInt(operation -> operation.weight)
+                        .sum();
+                for (LoadOperation operation : LoadOperation.values()) {
+                    if (operation.category == entry.getKey() && entry.getValue() > 0) {
+                        // 분류 비율 x 분류 안의 비율 (정수로 맞추기 위해 분류 weight 합의 배수로 계산)
+                        selected.add(operation);
+                        weights.add(entry.getValue() * operation.weight * 1_000 / categoryWeight);
+                    }
+                }
+            }
+            if (selected.isEmpty()) {
+                throw new IllegalArgumentException("mix selects no operations: " + mix);
+            }
+            operations = selected.toArray(LoadOperation[]::new);
+            cumulative = new int[operations.length];
+            int sum = 0;
+            for (int i = 0; i < operations.length; i++) {
+                sum += weights.get(i);
+                cumulative[i] = sum;
+            }
+            totalWeight = sum;
+        }
+
+        LoadOperation next(LoadContext context) {
+            int value = context.random.nextInt(totalWeight);
+            for (int i = 0; i < cumulative.length; i++) {
+                if (value < cumulative[i]) {
+                    return operations[i];
+                }
+            }
+            return operations[operations.length - 1];
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.rookies3.myspringbootlab.benchmark.load;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 부하 테스트 설정 : key=value 인자 (-Dload.args="rate=500 duration=60s max-p99=50ms")
+ *
+ * @param rate          초당 요청 수 (open model : 응답과 관계없이 일정한 간격으로 요청을 보냄)
+ * @param warmup        기록하지 않고 같은 rate 로 먼저 보내는 시간
+ * @param duration      기록하는 시간
+ * @param mix           분류별 요청 비율 (read:80,search:15,write:5)
+ * @param books         서버를 띄울 때 생성하는 도서 수 (book.seed.count)
+ * @param seed          도서 생성 seed 이자 요청 순서를 정하는 seed
+ * @param url           이미 실행 중인 서버 주소 (없으면 H2 로 서버를 직접 실행, 같은 books/seed 로 생성된 서버여야 함)
+ * @param maxInFlight   동시에 응답을 기다리는 요청 수 상한 (넘으면 보내기를 미루고, 미룬 시간도 지연시간에 포함)
+ * @param maxP99        전체 p99 (보정된 응답시간) 상한, 넘으면 실패
+ * @param maxErrorRate  오류 응답 비율 상한, 넘으면 실패
+ * @param baseline      이전 결과 JSON : 연산별 p99 가 maxRegression 이상 늘면 실패
+ * @param maxRegression baseline 대비 허용하는 p99 증가율
+ * @param output        결과 JSON/hgrm/서버 로그를 저장할 디렉터리
+ * @param serverJvmArgs 서버 JVM 옵션 (쉼표로 구분)
+ */
+record LoadTestOptions(int rate, Duration warmup, Duration duration, Map<LoadOperation.Category, Integer> mix,
+                       long books, long seed, String url, int maxInFlight, Duration maxP99, double maxErrorRate,
+                       Path baseline, double maxRegression, Path output, String serverJvmArgs) {
+
+    private static final Set<String> KNOWN_KEYS = Set.of(
+            "rate", "warmup", "duration", "mix", "books", "seed", "url", "max-in-flight", "max-p99",
+            "max-error-rate", "baseline", "max-regression", "output", "server-jvm-args");
+
+    static LoadTestOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            // exec-maven-plugin 은 load.args 를 하나의 인자로 넘기므로 공백으로 다시 나눔
+            for (String token : arg.trim().split("\\s+")) {
+                if (token.isEmpty()) {
+                    continue;
+                }
+                int separator = token.indexOf('=');
+                if (separator < 1) {
+                    throw new IllegalArgumentException("Expected key=value but was: " + token);
+                }
+                values.put(token.substring(0, separator), token.substring(separator + 1));
+            }
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("rate", "200")),
+                duration(values.getOrDefault("warmup", "10s")),
+                duration(values.getOrDefault("duration", "30s")),
+                mix(values.getOrDefault("mix", "read:80,search:15,write:5")),
+                Long.parseLong(values.getOrDefault("books", "10000")),
+                Long.parseLong(values.getOrDefault("seed", "20240601")),
+                values.get("url"),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "1000")),
+                values.containsKey("max-p99") ? duration(values.get("max-p99")) : null,
+                Double.parseDouble(values.getOrDefault("max-error-rate", "0.01")),
+                values.containsKey("baseline") ? Path.of(values.get("baseline")) : null,
+                Double.parseDouble(values.getOrDefault("max-regression", "0.10")),
+                Path.of(values.getOrDefault("output", "target/load-test")),
+                values.getOrDefault("server-jvm-args", "-Xms512m,-Xmx512m"));
+        values.keySet().removeAll(KNOWN_KEYS);
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        if (options.rate() < 1) {
+            throw new IllegalArgumentException("rate must be positive: " + options.rate());
+        }
+        return options;
+    }
+
+    private static Duration duration(String value) {
+        return DurationStyle.detectAndParse(value);
+    }
+
+    private static Map<LoadOperation.Category, Integer> mix(String value) {
+        Map<LoadOperation.Category, Integer> mix = new EnumMap<>(LoadOperation.Category.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected category:weight but was: " + entry);
+            }
+            mix.put(LoadOperation.Category.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+}
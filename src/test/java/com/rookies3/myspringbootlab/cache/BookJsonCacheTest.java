@@ -0,0 +1,92 @@
+package com.rookies3.myspringbootlab.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rookies3.myspringbootlab.event.BookChangedEvent;
+import com.rookies3.myspringbootlab.event.BookSnapshot;
+import com.rookies3.myspringbootlab.property.BookJsonCacheProperties;
+import com.rookies3.myspringbootlab.property.BookSingleFlightProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BookJsonCacheTest {
+
+    private BookJsonCacheProperties properties;
+    private BookJsonCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new BookJsonCacheProperties();
+        cache = new BookJsonCache(new ObjectMapper(), properties, new BookSingleFlightProperties(), new SimpleMeterRegistry());
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    public void testAnyWriteInvalidatesListEntries() {
+        cache.getList("title:스프링", () -> render(List.of(1L, 2L)));
+        cache.getList("title:스프링", () -> render(List.of(1L, 2L)));
+        assertThat(loads.get()).isEqualTo(1);
+
+        // 목록에 없는 도서가 바뀌어도 목록 항목은 다시 만듭니다.
+        cache.onBookChanged(BookChangedEvent.deleted(snapshot(99L, "9788956746425")));
+
+        cache.getList("title:스프링", () -> render(List.of(1L, 2L)));
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testListLoadedDuringWriteIsNotReused() {
+        cache.getList("all", () -> {
+            CachedJson stale = render(List.of(1L));
+            cache.onBookChanged(BookChangedEvent.deleted(snapshot(1L, "9788956746425")));
+            return stale;
+        });
+
+        assertThat(cache.findList("all")).isNull();
+    }
+
+    @Test
+    public void testWriteInvalidatesOnlyThatBook() {
+        cache.getByIsbn("9788956746425", () -> renderBook(1L));
+        cache.getById(2L, () -> renderBook(2L));
+
+        cache.onBookChanged(new BookChangedEvent(BookChangedEvent.Type.DETAIL_UPDATED, 1L, null, null));
+
+        assertThat(cache.findByIsbn("9788956746425")).isNull();
+        assertThat(cache.findById(2L)).isNotNull();
+    }
+
+    @Test
+    public void testOversizedResponseIsNotStored() {
+        properties.setMaximumEntrySize(DataSize.ofBytes(256));
+        cache = new BookJsonCache(new ObjectMapper(), properties, new BookSingleFlightProperties(), new SimpleMeterRegistry());
+
+        CachedJson large = cache.getList("all", () -> render("x".repeat(1024)));
+
+        assertThat(large.json()).hasSizeGreaterThan(1024);
+        assertThat(large.gzip()).isNotNull();
+        assertThat(cache.findList("all")).isNull();
+    }
+
+    private CachedJson render(Object body) {
+        loads.incrementAndGet();
+        return cache.render(body, null, null, null);
+    }
+
+    private CachedJson renderBook(Long id) {
+        loads.incrementAndGet();
+        return cache.render(Map.of("id", id), id, "\"0\"", null);
+    }
+
+    private BookSnapshot snapshot(Long id, String isbn) {
+        return new BookSnapshot(id, "스프링 부트 입문", "홍길동", isbn, 30000, null, null, null);
+    }
+}
@@ -0,0 +1,71 @@
+package com.rookies3.myspringbootlab.cache;
+
+import com.rookies3.myspringbootlab.controller.dto.BookDTO;
+import com.rookies3.myspringbootlab.event.BookChangedEvent;
+import com.rookies3.myspringbootlab.event.BookSnapshot;
+import com.rookies3.myspringbootlab.property.BookCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BookResponseCacheTest {
+
+    private BookResponseCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new BookResponseCache(new BookCacheProperties(), new SimpleMeterRegistry());
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    public void testRepeatedLookupIsServedFromCache() {
+        cache.getById(1L, () -> load(1L, "9788956746425"));
+        cache.getById(1L, () -> load(1L, "9788956746425"));
+        cache.getByIsbn("9788956746425", () -> load(1L, "9788956746425"));
+
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testIsbnChangeEvictsOldKey() {
+        cache.getByIsbn("9788956746425", () -> load(1L, "9788956746425"));
+
+        cache.onBookChanged(changed(1L, "9788956746425", "9788956746432"));
+
+        BookDTO.Response response = cache.getByIsbn("9788956746432", () -> load(1L, "9788956746432"));
+        assertThat(response.getIsbn()).isEqualTo("9788956746432");
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testValueLoadedBeforeDeleteIsNotReinstated() {
+        // DB 조회 도중에 삭제가 커밋되고 무효화가 먼저 끝난 경우
+        cache.getById(1L, () -> {
+            BookDTO.Response stale = load(1L, "9788956746425");
+            cache.onBookChanged(BookChangedEvent.deleted(snapshot(1L, "9788956746425")));
+            return stale;
+        });
+
+        cache.getById(1L, () -> load(1L, "9788956746425"));
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    private BookChangedEvent changed(Long id, String oldIsbn, String newIsbn) {
+        return new BookChangedEvent(BookChangedEvent.Type.UPDATED, id, snapshot(id, oldIsbn), snapshot(id, newIsbn));
+    }
+
+    private BookSnapshot snapshot(Long id, String isbn) {
+        return new BookSnapshot(id, "스프링 부트 입문", "홍길동", isbn, 30000, null, null, null);
+    }
+
+    private BookDTO.Response load(Long id, String isbn) {
+        loads.incrementAndGet();
+        return BookDTO.Response.builder().id(id).title("스프링 부트 입문").author("홍길동").isbn(isbn).build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.rookies3.myspringbootlab.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IsbnCuckooFilterTest {
+
+    private static final long BASE = 9_791_100_000_000L;
+
+    @Test
+    public void testNoFalseNegatives() {
+        IsbnCuckooFilter filter = new IsbnCuckooFilter(100_000);
+        for (long i = 0; i < 100_000; i++) {
+            filter.add(BASE + i * 7);
+        }
+        for (long i = 0; i < 100_000; i++) {
+            assertThat(filter.mightContain(BASE + i * 7)).isTrue();
+        }
+        assertThat(filter.size()).isEqualTo(100_000);
+        assertThat(filter.isOverflowed()).isFalse();
+        assertThat(filter.needsGrowth()).isFalse();
+    }
+
+    @Test
+    public void testFalsePositiveRate() {
+        IsbnCuckooFilter filter = new IsbnCuckooFilter(100_000);
+        for (long i = 0; i < 100_000; i++) {
+            filter.add(BASE + i * 2);
+        }
+        int falsePositives = 0;
+        for (long i = 0; i < 100_000; i++) {
+            if (filter.mightContain(BASE + i * 2 + 1)) {
+                falsePositives++;
+            }
+        }
+        // 기대값 약 0.012% (12건)
+        assertThat(falsePositives).isLessThan(50);
+        assertThat(filter.expectedFalsePositiveRate()).isLessThan(0.0002);
+    }
+
+    @Test
+    public void testRemove() {
+        IsbnCuckooFilter filter = new IsbnCuckooFilter(1_000);
+        filter.add(BASE + 1);
+        filter.add(BASE + 2);
+
+        assertThat(filter.remove(BASE + 1)).isTrue();
+        assertThat(filter.mightContain(BASE + 1)).isFalse();
+        assertThat(filter.mightContain(BASE + 2)).isTrue();
+        assertThat(filter.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void testOverflowAnswersTrue() {
+        IsbnCuckooFilter filter = new IsbnCuckooFilter(1);
+        for (long i = 0; i < filter.capacity() * 2L; i++) {
+            filter.add(BASE + i);
+        }
+        assertThat(filter.isOverflowed()).isTrue();
+        assertThat(filter.needsGrowth()).isTrue();
+        assertThat(filter.mightContain(BASE - 1)).isTrue();
+    }
+}
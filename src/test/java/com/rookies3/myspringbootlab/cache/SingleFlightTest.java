@@ -0,0 +1,138 @@
+package com.rookies3.myspringbootlab.cache;
+
+import com.rookies3.myspringbootlab.exception.BusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SingleFlightTest {
+
+    private static final int WAITERS = 8;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(WAITERS);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentCallsShareOneLoad() throws Exception {
+        SingleFlight<String, String> flights = singleFlight(Duration.ofSeconds(10));
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> flights.execute("book:1", () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "loaded";
+        }));
+        awaitInFlight(flights);
+        List<Future<String>> waiters = submitWaiters(flights, "book:1");
+        awaitCoalesced(WAITERS - 1);
+        release.countDown();
+
+        assertThat(leader.get(10, TimeUnit.SECONDS)).isEqualTo("loaded");
+        for (Future<String> waiter : waiters) {
+            assertThat(waiter.get(10, TimeUnit.SECONDS)).isEqualTo("loaded");
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(flights.inFlight()).isZero();
+
+        // 끝난 뒤의 호출은 다시 조회
+        assertThat(flights.execute("book:1", () -> "reloaded")).isEqualTo("reloaded");
+    }
+
+    @Test
+    public void testFailureIsPropagatedToWaiters() throws Exception {
+        SingleFlight<String, String> flights = singleFlight(Duration.ofSeconds(10));
+        CountDownLatch release = new CountDownLatch(1);
+        BusinessException notFound = new BusinessException("Book not found with id: 1", HttpStatus.NOT_FOUND);
+
+        Future<String> leader = executor.submit(() -> flights.execute("book:1", () -> {
+            await(release);
+            throw notFound;
+        }));
+        awaitInFlight(flights);
+        List<Future<String>> waiters = submitWaiters(flights, "book:1");
+        awaitCoalesced(WAITERS - 1);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(10, TimeUnit.SECONDS)).hasCause(notFound);
+        for (Future<String> waiter : waiters) {
+            assertThatThrownBy(() -> waiter.get(10, TimeUnit.SECONDS)).hasCause(notFound);
+        }
+        assertThat(flights.inFlight()).isZero();
+    }
+
+    @Test
+    public void testWaiterTimesOut() throws Exception {
+        SingleFlight<String, String> flights = singleFlight(Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> flights.execute("book:1", () -> {
+            await(release);
+            return "loaded";
+        }));
+        awaitInFlight(flights);
+
+        assertThatThrownBy(() -> flights.execute("book:1", () -> "other"))
+                .isInstanceOfSatisfying(BusinessException.class,
+                        e -> assertThat(e.getHttpStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        // 다른 키는 기다리지 않음
+        assertThat(flights.execute("book:2", () -> "other")).isEqualTo("other");
+
+        release.countDown();
+        assertThat(leader.get(10, TimeUnit.SECONDS)).isEqualTo("loaded");
+    }
+
+    private SingleFlight<String, String> singleFlight(Duration timeout) {
+        return new SingleFlight<>("test", true, timeout, meterRegistry);
+    }
+
+    private List<Future<String>> submitWaiters(SingleFlight<String, String> flights, String key) {
+        List<Future<String>> waiters = new ArrayList<>();
+        for (int i = 0; i < WAITERS - 1; i++) {
+            waiters.add(executor.submit(() -> flights.execute(key, () -> {
+                loads.incrementAndGet();
+                return "duplicate";
+            })));
+        }
+        return waiters;
+    }
+
+    private static void awaitInFlight(SingleFlight<?, ?> flights) throws InterruptedException {
+        while (flights.inFlight() == 0) {
+            Thread.sleep(1);
+        }
+    }
+
+    private void awaitCoalesced(int waiters) throws InterruptedException {
+        while (meterRegistry.counter("book.single.flight.coalesced", "name", "test").count() < waiters) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
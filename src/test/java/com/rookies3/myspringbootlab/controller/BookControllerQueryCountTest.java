@@ -0,0 +1,347 @@
+package com.rookies3.myspringbootlab.controller;
+
+import com.rookies3.myspringbootlab.cache.BookJsonCache;
+import com.rookies3.myspringbootlab.controller.dto.BookDTO;
+import com.rookies3.myspringbootlab.repository.BookRepository;
+import com.rookies3.myspringbootlab.service.BookBulkService;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 목록 조회 API 는 결과 건수와 관계없이 SQL 한 번으로 응답해야 합니다. (BookDetail N+1 방지)
+// ISBN 필터는 기본으로 꺼져 있으므로 (단일 인스턴스 전용) 여기서 켜고 확인합니다.
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "book.isbn-filter.enabled=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class BookControllerQueryCountTest {
+
+    private static final int EXTRA_BOOKS = 150;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookBulkService bookBulkService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookJsonCache bookJsonCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeAll
+    void insertBooks() {
+        List<BookDTO.Request> requests = new ArrayList<>();
+        for (int i = 0; i < EXTRA_BOOKS; i++) {
+            BookDTO.BookDetailDTO detail = i % 2 == 0
+                    ? BookDTO.BookDetailDTO.builder().description("설명 " + i).language("Korean").pageCount(300)
+                        .publisher("테스트출판사").edition("1st").build()
+                    : null;
+            requests.add(BookDTO.Request.builder()
+                    .title("쿼리 측정 도서 " + i)
+                    .author("측정 저자")
+                    .isbn(isbn(i))
+                    .price(10000 + i)
+                    .publishDate(LocalDate.of(2024, 1, 1).plusDays(i))
+                    .detailRequest(detail)
+                    .build());
+        }
+        bookBulkService.createBooks(requests);
+    }
+
+    // 목록/페이지는 ETag 용 카탈로그 버전 조회가 한 번 더 붙습니다.
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "/api/books | 2",
+            "/api/books/page?size=100 | 2",
+            "/api/books/page?size=50&sort=price | 2",
+            "/api/books/page?size=50&sort=publishDate&direction=desc | 2",
+            "/api/books/search/title?title=측정 | 1",
+            "/api/books/search/author?author=측정 | 1",
+            "/api/books/search?q=측정 도서&limit=100 | 1",
+            "/api/books/query?author=측정&minPrice=10000&maxPrice=10100&sort=price&limit=100 | 1",
+            "/api/books/query?language=Korean&publisher=테스트출판사&publishedFrom=2024-01-01 | 1"
+    })
+    void listEndpointIssuesConstantStatements(String uri, int statements) throws Exception {
+        bookJsonCache.invalidateAll();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get(uri)).andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).as(uri).isEqualTo(statements);
+    }
+
+    // id 목록과 ISBN 목록을 각각 IN 절 한 번으로 조회 (요청 순서 유지, 없는 키는 found=false)
+    @Test
+    void multiGetIssuesOneStatementPerKeyType() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (long id = EXTRA_BOOKS; id >= 1; id--) {
+            ids.add(id);
+        }
+        ids.add(Long.MAX_VALUE);
+        String body = "{\"ids\":" + ids + ",\"isbns\":[\"" + isbn(1) + "\",\"없는ISBN\"]}";
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(post("/api/books/_mget").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(EXTRA_BOOKS + 3))
+                .andExpect(jsonPath("$.found").value(EXTRA_BOOKS + 1))
+                .andExpect(jsonPath("$.items[0].id").value(EXTRA_BOOKS))
+                .andExpect(jsonPath("$.items[%d].found", EXTRA_BOOKS).value(false))
+                .andExpect(jsonPath("$.items[%d].book.isbn", EXTRA_BOOKS + 1).value(isbn(1)))
+                .andExpect(jsonPath("$.items[%d].found", EXTRA_BOOKS + 2).value(false));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    // ISBN 필터에 없는 ISBN 은 SQL 없이 404, 등록/삭제가 바로 필터에 반영됩니다.
+    @Test
+    void missingIsbnIsAnsweredWithoutStatements() throws Exception {
+        String isbn = isbn(9999);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/books/isbn/{isbn}", isbn)).andExpect(status().isNotFound());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        String created = mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title":"필터 도서","author":"측정 저자","isbn":"%s","price":10000}
+                                """.formatted(isbn)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get("/api/books/isbn/{isbn}", isbn)).andExpect(status().isOk());
+
+        long id = JsonPath.parse(created).read("$.id", Long.class);
+        mockMvc.perform(delete("/api/books/{id}", id)).andExpect(status().isNoContent());
+        statistics.clear();
+        mockMvc.perform(get("/api/books/isbn/{isbn}", isbn)).andExpect(status().isNotFound());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    // 바뀐 값이 없는 PATCH 는 조회 한 번으로 끝나고 UPDATE 하지 않습니다.
+    @Test
+    void unchangedPatchSkipsUpdate() throws Exception {
+        Long id = bookRepository.findByIsbn(isbn(12)).orElseThrow().getId();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(patch("/api/books/" + id).contentType(BookController.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"price\":10012,\"detailRequest\":{\"language\":\"Korean\"}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(10012));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+    }
+
+    @Test
+    void patchUpdatesOnlyGivenFieldsAndRemovesDetailOnNull() throws Exception {
+        Long id = bookRepository.findByIsbn(isbn(14)).orElseThrow().getId();
+
+        mockMvc.perform(patch("/api/books/" + id).contentType(BookController.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"price\":9900,\"detailRequest\":{\"edition\":\"2nd\"}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(9900))
+                .andExpect(jsonPath("$.title").value("쿼리 측정 도서 14"))
+                .andExpect(jsonPath("$.detail.edition").value("2nd"))
+                .andExpect(jsonPath("$.detail.description").value("설명 14"));
+
+        mockMvc.perform(patch("/api/books/" + id).contentType(BookController.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"detailRequest\":null}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/books/" + id))
+                .andExpect(jsonPath("$.detail").doesNotExist());
+
+        mockMvc.perform(patch("/api/books/" + id).contentType(BookController.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"title\":null}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // 색인되지 않는 상세정보 컬럼만 바꾸는 경우 Prefer: return=minimal 이면 SELECT 없이 UPDATE 세 번(상세정보, 버전, 카탈로그 버전)으로 처리
+    @Test
+    void minimalDetailPatchUpdatesWithoutSelect() throws Exception {
+        Long id = bookRepository.findByIsbn(isbn(10)).orElseThrow().getId();
+        mockMvc.perform(get("/api/books/" + id)).andExpect(status().isOk());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(patch("/api/books/" + id).contentType(BookController.MERGE_PATCH_JSON_VALUE)
+                        .header("Prefer", "return=minimal")
+                        .content("{\"detailRequest\":{\"description\":\"새 설명\"}}"))
+                .andExpect(status().isNoContent());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        // 커밋 이후 캐시가 무효화되어 새 값을 읽습니다.
+        mockMvc.perform(get("/api/books/" + id))
+                .andExpect(jsonPath("$.detail.description").value("새 설명"))
+                .andExpect(jsonPath("$.detail.edition").value("1st"));
+    }
+
+    // If-None-Match 가 현재 버전과 같으면 304 (캐시에 있으면 SQL 없이, 없으면 version 만 조회)
+    @Test
+    void conditionalGetReturnsNotModifiedFromVersionLookup() throws Exception {
+        Long id = bookRepository.findByIsbn(isbn(16)).orElseThrow().getId();
+        String eTag = mockMvc.perform(get("/api/books/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/books/" + id).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        mockMvc.perform(get("/api/books/isbn/" + isbn(16)).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        mockMvc.perform(patch("/api/books/" + id).contentType(BookController.MERGE_PATCH_JSON_VALUE)
+                        .header("Prefer", "return=minimal")
+                        .content("{\"detailRequest\":{\"pageCount\":320}}"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/books/" + id).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+    }
+
+    @Test
+    void catalogETagChangesAfterWrite() throws Exception {
+        String eTag = mockMvc.perform(get("/api/books/page?size=5"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/books").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        Long id = bookRepository.findByIsbn(isbn(18)).orElseThrow().getId();
+        mockMvc.perform(patch("/api/books/" + id).contentType(BookController.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"detailRequest\":{\"publisher\":\"다른출판사\"}}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/books/page?size=5").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
+    // If-Match 가 현재 버전과 다르면 412, 같으면 수정 후 새 ETag
+    @Test
+    void ifMatchGuardsUpdateAndDelete() throws Exception {
+        // 다른 테스트의 조회 결과에 영향을 주지 않도록 새로 등록한 도서를 사용
+        String body = "{\"title\":\"잠금 측정 도서\",\"author\":\"측정 저자\",\"isbn\":\"" + isbn(9999) + "\",\"price\":10000}";
+        mockMvc.perform(post("/api/books").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated());
+        Long id = bookRepository.findByIsbn(isbn(9999)).orElseThrow().getId();
+        String eTag = mockMvc.perform(get("/api/books/" + id))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        body = body.replace("잠금 측정 도서", "새 제목");
+
+        String updatedETag = mockMvc.perform(put("/api/books/" + id).contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, eTag).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").doesNotExist())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(updatedETag).isNotEqualTo(eTag);
+
+        mockMvc.perform(put("/api/books/" + id).contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, eTag).content(body))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/books/" + id).header(HttpHeaders.IF_MATCH, eTag))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/books/" + id).header(HttpHeaders.IF_MATCH, updatedETag))
+                .andExpect(status().isNoContent());
+    }
+
+    // 같은 목록/검색 요청은 쓰기가 없으면 저장된 JSON 을 SQL 없이 그대로 응답
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/api/books/page?size=30&sort=price",
+            "/api/books/search?q=측정&limit=30"
+    })
+    void repeatedReadIsServedFromJsonCache(String uri) throws Exception {
+        String first = mockMvc.perform(get(uri)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        String second = mockMvc.perform(get(uri)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(statistics.getPrepareStatementCount()).as(uri).isZero();
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void largeResponseIsGzippedWhenAccepted() throws Exception {
+        MockHttpServletResponse plain = mockMvc.perform(get("/api/books/page?size=40"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        MockHttpServletResponse gzipped = mockMvc.perform(get("/api/books/page?size=40")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn().getResponse();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getContentAsByteArray()))) {
+            assertThat(in.readAllBytes()).isEqualTo(plain.getContentAsByteArray());
+        }
+        assertThat(gzipped.getHeader(HttpHeaders.ETAG)).isNotEqualTo(plain.getHeader(HttpHeaders.ETAG));
+        mockMvc.perform(get("/api/books/page?size=40").header(HttpHeaders.IF_NONE_MATCH, gzipped.getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+    }
+
+    // i 번째 측정 도서의 ISBN-13 (979 11000 + i 네 자리 + 체크 숫자)
+    private static String isbn(int i) {
+        String body = String.format("97911000%04d", i);
+        int sum = 0;
+        for (int k = 0; k < body.length(); k++) {
+            sum += (body.charAt(k) - '0') * (k % 2 == 0 ? 1 : 3);
+        }
+        return body + (10 - sum % 10) % 10;
+    }
+}
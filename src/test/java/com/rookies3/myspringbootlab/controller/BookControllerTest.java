@@ -0,0 +1,216 @@
+package com.rookies3.myspringbootlab.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.rookies3.myspringbootlab.entity.Book;
+import com.rookies3.myspringbootlab.exception.advice.DefaultExceptionAdvice;
+import com.rookies3.myspringbootlab.repository.BookRepository;
+import com.rookies3.myspringbootlab.seed.SyntheticBooks;
+import com.rookies3.myspringbootlab.service.BookService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class BookControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookService bookService;
+
+    // 다른 인스턴스가 저장한 도서는 이 인스턴스의 ISBN 필터에 없지만 중복 확인은 DB 로 하므로 409
+    @Test
+    public void testIsbnWrittenByAnotherInstanceIsRejected() throws Exception {
+        String isbn = "9791199990043";
+        jdbcTemplate.update("INSERT INTO books (book_id, title, author, isbn, isbn13, price, version) "
+                + "VALUES (NEXT VALUE FOR books_seq, '다른 인스턴스', '홍길동', ?, ?, 10000, 0)", isbn, Long.parseLong(isbn));
+
+        mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title":"중복","author":"홍길동","isbn":"%s","price":10000}
+                                """.formatted(isbn)))
+                .andExpect(status().isConflict());
+
+        String created = mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title":"다른 도서","author":"홍길동","isbn":"9791199990050","price":10000}
+                                """))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = JsonPath.parse(created).read("$.id", Long.class);
+        mockMvc.perform(put("/api/books/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title":"다른 도서","author":"홍길동","isbn":"%s","price":10000}
+                                """.formatted(isbn)))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(post("/api/books/_bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"title":"중복","author":"홍길동","isbn":"%s","price":10000}]
+                                """.formatted(isbn)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status").value("DUPLICATE"));
+    }
+
+    // 중복 확인과 저장 사이에 같은 ISBN 이 먼저 저장된 경우 (uk_books_isbn13 위반)
+    @Test
+    public void testUniqueIsbnViolationIsConflict() {
+        String isbn = "9791199990067";
+        bookRepository.save(Book.builder().title("먼저 저장").author("홍길동").isbn(isbn).build());
+
+        DataIntegrityViolationException violation = catchThrowableOfType(DataIntegrityViolationException.class,
+                () -> bookRepository.saveAndFlush(Book.builder().title("나중에 저장").author("홍길동").isbn(isbn).build()));
+
+        assertThat(new DefaultExceptionAdvice().handleIntegrityViolation(violation).getStatusCode())
+                .isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    // next 를 따라가면 정렬키가 있는 행(정렬 방향 순) 다음에 정렬키가 null 인 행(book_id 순)을 빠짐없이 한 번씩 내려줌
+    @Test
+    public void testPageCursorWalksKeyedRowsThenNullKeys() throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 10; i++) {
+            // 같은 가격/출간일이 여러 권, 4권은 가격과 출간일이 없음
+            String price = i % 5 == 4 ? "null" : Integer.toString(10000 + (i % 3) * 1000);
+            String publishDate = i % 5 == 4 ? "null" : "\"2020-0" + (1 + i % 2) + "-01\"";
+            body.append(i == 0 ? "" : ",").append("""
+                    {"title":"페이지 도서 %d","author":"홍길동","isbn":"%s","price":%s,"publishDate":%s}
+                    """.formatted(i, pageIsbn(i), price, publishDate));
+        }
+        mockMvc.perform(post("/api/books/_bulk").contentType(MediaType.APPLICATION_JSON).content(body.append("]").toString()))
+                .andExpect(status().isOk());
+
+        for (String sort : List.of("price", "publishDate", "id")) {
+            String column = switch (sort) {
+                case "price" -> "price";
+                case "publishDate" -> "publish_date";
+                default -> "book_id";
+            };
+            for (String direction : List.of("asc", "desc")) {
+                List<Long> expected = new ArrayList<>(jdbcTemplate.queryForList("SELECT book_id FROM books WHERE "
+                        + column + " IS NOT NULL ORDER BY " + column + " " + direction + ", book_id " + direction, Long.class));
+                expected.addAll(jdbcTemplate.queryForList(
+                        "SELECT book_id FROM books WHERE " + column + " IS NULL ORDER BY book_id", Long.class));
+                // 1 : 모든 경계를 커서로 넘김, 3/7 : 한 페이지에 정렬키가 있는 행과 null 인 행이 함께 있음
+                for (int size : new int[]{1, 3, 7}) {
+                    assertThat(walkPages(sort, direction, size)).as("%s %s size=%d", sort, direction, size)
+                            .isEqualTo(expected);
+                }
+            }
+        }
+    }
+
+    // 변조되거나 형식이 맞지 않는 커서는 500 이 아닌 400
+    @Test
+    public void testTamperedPageCursorIsBadRequest() throws Exception {
+        String next = JsonPath.parse(mockMvc.perform(get("/api/books/page").param("size", "1").param("sort", "price"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).read("$.next");
+        mockMvc.perform(get("/api/books/page").param("cursor", next)).andExpect(status().isOk());
+
+        for (String raw : List.of("PRICE|ASC|0|만원|3", "PUBLISH_DATE|DESC|0|2020-13-01|3", "ID|ASC|0|5|3",
+                "PRICE|SIDEWAYS|0||3", "TITLE|ASC|0||3", "PRICE|ASC|0||x", "PRICE|ASC|0|3")) {
+            String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+            mockMvc.perform(get("/api/books/page").param("cursor", cursor))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Invalid page cursor: " + cursor));
+        }
+        mockMvc.perform(get("/api/books/page").param("cursor", "%%" + next)).andExpect(status().isBadRequest());
+    }
+
+    // 한 줄에 도서 JSON 객체 하나, book_id 순으로 전체 도서
+    @Test
+    public void testExportWritesOneBookPerLineInIdOrder() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/books/export.ndjson"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"books.ndjson\""))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        String ndjson = new String(body, StandardCharsets.UTF_8);
+        assertThat(ndjson).endsWith("\n");
+        List<Long> ids = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            assertThat(line).startsWith("{").endsWith("}");
+            ids.add(JsonPath.parse(line).read("$.id", Long.class));
+            assertThat(JsonPath.parse(line).read("$.isbn", String.class)).isNotBlank();
+        }
+        assertThat(ids).isEqualTo(jdbcTemplate.queryForList("SELECT book_id FROM books ORDER BY book_id", Long.class));
+    }
+
+    // 응답 스트림은 export 가 끝나면 닫힘 (마지막 버퍼까지 전송)
+    @Test
+    public void testExportClosesOutputStream() throws Exception {
+        boolean[] closed = new boolean[1];
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+
+        long count = bookService.exportBooks(out);
+
+        assertThat(closed[0]).isTrue();
+        assertThat(count).isEqualTo(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM books", Long.class));
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).hasSize((int) count);
+    }
+
+    private List<Long> walkPages(String sort, String direction, int size) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            String page = mockMvc.perform(get("/api/books/page")
+                            .param("size", Integer.toString(size)).param("sort", sort).param("direction", direction)
+                            .param("cursor", cursor != null ? cursor : ""))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            List<Number> content = JsonPath.parse(page).read("$.content[*].id");
+            content.forEach(id -> ids.add(id.longValue()));
+            cursor = JsonPath.parse(page).read("$.next");
+            assertThat(JsonPath.parse(page).read("$.hasNext", Boolean.class)).isEqualTo(cursor != null);
+        } while (cursor != null && ids.size() < 10_000);
+        return ids;
+    }
+
+    private static String pageIsbn(int i) {
+        return SyntheticBooks.isbn13(String.format("97911999902%d", i));
+    }
+}
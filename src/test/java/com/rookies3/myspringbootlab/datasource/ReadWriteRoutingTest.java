@@ -0,0 +1,179 @@
+package com.rookies3.myspringbootlab.datasource;
+
+import com.jayway.jsonpath.JsonPath;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// H2 메모리 DB 3개를 primary/replica 로 사용 : 시작 시 한 번만 primary 를 replica 에 복사하므로 이후 쓰기는 replica 에 보이지 않음 (복제 지연)
+// 이 인스턴스의 쓰기 이후 replica-lag 동안은 모든 조회가 primary 를 사용
+@SpringBootTest(properties = {
+        "book.seed.enabled=false",
+        "spring.datasource.url=" + ReadWriteRoutingTest.PRIMARY_URL,
+        "book.datasource.routing.enabled=true",
+        "book.datasource.routing.replica-lag=1s",
+        "book.datasource.routing.replicas[0].url=" + ReadWriteRoutingTest.REPLICA1_URL,
+        "book.datasource.routing.replicas[0].username=sa",
+        "book.datasource.routing.replicas[1].url=" + ReadWriteRoutingTest.REPLICA2_URL,
+        "book.datasource.routing.replicas[1].username=sa"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ReadWriteRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA1_URL = "jdbc:h2:mem:replica1;DB_CLOSE_DELAY=-1";
+    static final String REPLICA2_URL = "jdbc:h2:mem:replica2;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaDataSource;
+
+    @TestConfiguration
+    static class Replication {
+        // 검색 인덱스 구축(readOnly)보다 먼저 primary 의 스키마를 replica 에 복사
+        @EventListener(ApplicationReadyEvent.class)
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        public void replicate() throws SQLException {
+            List<String> script = new ArrayList<>();
+            try (Connection primary = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+                 Statement statement = primary.createStatement();
+                 ResultSet rows = statement.executeQuery("SCRIPT NOPASSWORDS NOSETTINGS")) {
+                while (rows.next()) {
+                    script.add(rows.getString(1));
+                }
+            }
+            for (String url : List.of(REPLICA1_URL, REPLICA2_URL)) {
+                try (Connection replica = DriverManager.getConnection(url, "sa", "");
+                     Statement statement = replica.createStatement()) {
+                    for (String sql : script) {
+                        statement.execute(sql);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReadOnlyTransactionsAreBalancedAcrossReplicas() throws InterruptedException {
+        awaitReplicaLag();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        Set<String> readDatabases = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            readDatabases.add(readOnly.execute(status -> currentDatabase()));
+        }
+
+        assertThat(readDatabases).containsExactlyInAnyOrder("REPLICA1", "REPLICA2");
+        String writeDatabase = readWrite.execute(status -> currentDatabase());
+        assertThat(writeDatabase).isEqualTo("PRIMARY");
+    }
+
+    @Test
+    public void testClientReadsItsOwnWriteFromPrimaryDuringStickyWindow() throws Exception {
+        String isbn = "9791100013137";
+        Cookie sticky = mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title":"복제 지연","author":"홍길동","isbn":"%s","price":10000}
+                                """.formatted(isbn)))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReadYourWritesFilter.COOKIE_NAME))
+                .andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        awaitReplicaLag();
+
+        // 다른 클라이언트 : replica-lag 이후에는 replica 에서 조회하는데 replica 에는 아직 없음
+        mockMvc.perform(get("/api/books/isbn/{isbn}", isbn))
+                .andExpect(status().isNotFound());
+        // 쓰기를 한 클라이언트 : primary 에서 조회
+        mockMvc.perform(get("/api/books/isbn/{isbn}", isbn).cookie(sticky))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testOtherClientReadsWriteRightAfterItAndCachesFreshValue() throws Exception {
+        String isbn = "9791100013144";
+        String created = mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title":"다른 클라이언트","author":"홍길동","isbn":"%s","price":10000}
+                                """.formatted(isbn)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = JsonPath.parse(created).read("$.id", Long.class);
+
+        // 쿠키 없는 클라이언트 B 도 쓰기 직후(replica-lag 이내)에는 primary 에서 조회
+        mockMvc.perform(get("/api/books/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("다른 클라이언트"));
+
+        mockMvc.perform(put("/api/books/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title":"수정된 제목","author":"홍길동","isbn":"%s","price":10000}
+                                """.formatted(isbn)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/books/{id}", id))
+                .andExpect(jsonPath("$.title").value("수정된 제목"));
+        mockMvc.perform(get("/api/books/search").param("q", "수정된"))
+                .andExpect(jsonPath("$[0].id").value(id));
+        assertThat(replicaDataSource.isWithinReplicaLag()).isTrue();
+
+        // replica-lag 이후에도 캐시에는 primary 에서 읽은 최신 값이 남아 있음 (replica 에는 아직 도서가 없음)
+        awaitReplicaLag();
+        mockMvc.perform(get("/api/books/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("수정된 제목"));
+    }
+
+    private void awaitReplicaLag() throws InterruptedException {
+        while (replicaDataSource.isWithinReplicaLag()) {
+            Thread.sleep(50);
+        }
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("SELECT DATABASE()", String.class);
+    }
+}
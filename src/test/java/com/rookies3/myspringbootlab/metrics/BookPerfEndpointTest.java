@@ -0,0 +1,39 @@
+package com.rookies3.myspringbootlab.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class BookPerfEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testSummaryCoversControllerRepositoryHibernateAndPool() throws Exception {
+        mockMvc.perform(get("/api/books/1")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/books/search/title").param("title", "스프링")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/bookperf"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.endpoints[*].name", hasItem("GET /api/books/{id} 200")))
+                .andExpect(jsonPath("$.endpoints[0].percentilesMs.p99").exists())
+                .andExpect(jsonPath("$.repositories[*].name", hasItem("BookRepository.findRowById SUCCESS")))
+                .andExpect(jsonPath("$.sqlStatements[*].name", hasItem("GET /api/books/{id}")))
+                .andExpect(jsonPath("$.hibernate.statisticsEnabled").value(1))
+                .andExpect(jsonPath("$.hibernate.preparedStatements", greaterThan(0)))
+                .andExpect(jsonPath("$.connectionPool.acquire.count", greaterThan(0)));
+    }
+}
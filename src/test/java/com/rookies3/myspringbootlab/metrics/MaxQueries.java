@@ -0,0 +1,17 @@
+package com.rookies3.myspringbootlab.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 테스트 메서드 본문에서 실행될 수 있는 SQL 문장 수의 상한 (QueryCountExtension 이 검사)
+ * 클래스에 붙이면 메서드에 따로 지정하지 않은 모든 테스트에 적용됩니다.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MaxQueries {
+
+    int value();
+}
@@ -0,0 +1,58 @@
+package com.rookies3.myspringbootlab.metrics;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 테스트 메서드 본문이 실행한 SQL 문장 수를 세고 @MaxQueries 를 넘으면 테스트를 실패시킵니다.
+ * 트랜잭션 시작/롤백(SpringExtension)은 세지 않고 메서드 본문만 셉니다.
+ * 준비 단계의 문장을 빼려면 SqlStatementScope 를 파라미터로 받아서 reset() 합니다.
+ * 실패 메시지에는 반복된 SELECT 형태(N+1 의심)를 함께 보여줍니다.
+ */
+public class QueryCountExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback, ParameterResolver {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryCountExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(context.getUniqueId(), SqlStatementScope.open());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        SqlStatementScope scope = context.getStore(NAMESPACE).remove(context.getUniqueId(), SqlStatementScope.class);
+        if (scope == null) {
+            return;
+        }
+        scope.close();
+        Optional<MaxQueries> maxQueries = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), MaxQueries.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), MaxQueries.class));
+        if (maxQueries.isPresent() && scope.count() > maxQueries.get().value()) {
+            StringBuilder message = new StringBuilder()
+                    .append("Expected at most ").append(maxQueries.get().value())
+                    .append(" SQL statements but ").append(scope.count()).append(" were executed");
+            for (Map.Entry<String, Integer> repeated : scope.repeatedSelects(2).entrySet()) {
+                message.append("\n  ").append(repeated.getValue()).append("x ").append(repeated.getKey());
+            }
+            throw new AssertionError(message.toString());
+        }
+    }
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == SqlStatementScope.class;
+    }
+
+    // 테스트 메서드 파라미터는 beforeTestExecution 이후에 만들어지므로 이미 열린 스코프를 돌려줍니다.
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return extensionContext.getStore(NAMESPACE).get(extensionContext.getUniqueId(), SqlStatementScope.class);
+    }
+}
@@ -0,0 +1,167 @@
+package com.rookies3.myspringbootlab.popularity;
+
+import com.jayway.jsonpath.JsonPath;
+import com.rookies3.myspringbootlab.property.BookPopularityProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 조회수는 flush 할 때 book_view_counts 에 더해지고, 같은 테이블을 쓰는 다른 인스턴스의 조회수도 합산됩니다.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class BookPopularityTest {
+
+    private static final String ISBN = "9791199990012";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookPopularity bookPopularity;
+
+    @Autowired
+    private BookPopularityProperties properties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testViewsFromAllInstancesAreRanked() throws Exception {
+        String created = mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title":"인기 도서","author":"홍길동","isbn":"%s","price":10000}
+                                """.formatted(ISBN)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = JsonPath.parse(created).read("$.id", Long.class);
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/books/{id}", id)).andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/books/isbn/{isbn}", ISBN)).andExpect(status().isOk());
+        // 없는 도서는 세지 않음
+        mockMvc.perform(get("/api/books/{id}", Long.MAX_VALUE)).andExpect(status().isNotFound());
+
+        // 같은 테이블을 쓰는 다른 인스턴스
+        BookPopularity otherInstance = new BookPopularity(jdbcTemplate, properties, new SimpleMeterRegistry());
+        otherInstance.record(id);
+        otherInstance.record(id);
+        otherInstance.flush();
+        bookPopularity.loadRankings();
+
+        assertThat(bookPopularity.top(PopularityWindow.ONE_HOUR, properties.getTopK()))
+                .contains(new PopularBook(id, 6))
+                .noneMatch(popular -> popular.bookId() == Long.MAX_VALUE)
+                .isSortedAccordingTo(PopularBook.RANKING);
+        assertThat(bookPopularity.top(PopularityWindow.ONE_DAY, properties.getTopK())).contains(new PopularBook(id, 6));
+
+        // 저장된 증가분은 다시 더하지 않음
+        bookPopularity.loadRankings();
+        assertThat(bookPopularity.top(PopularityWindow.ONE_HOUR, properties.getTopK())).contains(new PopularBook(id, 6));
+
+        String popular = mockMvc.perform(get("/api/books/popular").param("window", "24h").param("limit", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.window").value("24h"))
+                .andExpect(jsonPath("$.items[0].rank").value(1))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(JsonPath.parse(popular).<List<Integer>>read("$.items[?(@.book.id == " + id + ")].views"))
+                .containsExactly(6);
+    }
+
+    // 한 flush 간격 동안 조회가 없던 도서는 pending 에서 제거 (book.popularity.pending 도 함께 줄어듦)
+    @Test
+    public void testIdleBooksAreRemovedFromPending() {
+        long first = 900_000_001L;
+        long second = 900_000_002L;
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BookPopularity popularity = new BookPopularity(jdbcTemplate, properties, meterRegistry);
+        try {
+            popularity.record(first);
+            popularity.record(second);
+            assertThat(pendingGauge(meterRegistry)).isEqualTo(2);
+
+            popularity.flush();
+            assertThat(pendingGauge(meterRegistry)).isEqualTo(2);
+
+            popularity.record(first);
+            popularity.flush();
+            assertThat(pendingGauge(meterRegistry)).isEqualTo(1);
+
+            popularity.flush();
+            assertThat(pendingGauge(meterRegistry)).isZero();
+            assertThat(jdbcTemplate.queryForObject("SELECT SUM(views) FROM book_view_counts WHERE book_id = ?",
+                    Long.class, first)).isEqualTo(2);
+            assertThat(jdbcTemplate.queryForObject("SELECT SUM(views) FROM book_view_counts WHERE book_id = ?",
+                    Long.class, second)).isEqualTo(1);
+        } finally {
+            jdbcTemplate.update("DELETE FROM book_view_counts WHERE book_id IN (?, ?)", first, second);
+        }
+    }
+
+    // 제거되는 도서를 동시에 조회해도 조회수가 빠지지 않음 (제거한 LongAdder 는 다음 flush 에서 한 번 더 꺼냄)
+    @Test
+    public void testConcurrentViewsSurvivePruning() throws Exception {
+        long firstId = 910_000_000L;
+        int books = 50;
+        int threads = 4;
+        int viewsPerThread = 20_000;
+        BookPopularity popularity = new BookPopularity(jdbcTemplate, properties, new SimpleMeterRegistry());
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> recorders = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                recorders.add(executor.submit(() -> {
+                    for (int i = 0; i < viewsPerThread; i++) {
+                        popularity.record(firstId + (i * 7L + offset) % books);
+                    }
+                }));
+            }
+            // 조회 중에 계속 flush 해서 한 간격 동안 조회가 없던 도서가 자주 제거되도록 함
+            while (!recorders.stream().allMatch(Future::isDone)) {
+                popularity.flush();
+            }
+            for (Future<?> recorder : recorders) {
+                recorder.get();
+            }
+            popularity.flush();
+            popularity.flush();
+
+            assertThat(jdbcTemplate.queryForObject("SELECT SUM(views) FROM book_view_counts WHERE book_id BETWEEN ? AND ?",
+                    Long.class, firstId, firstId + books - 1)).isEqualTo((long) threads * viewsPerThread);
+        } finally {
+            executor.shutdownNow();
+            jdbcTemplate.update("DELETE FROM book_view_counts WHERE book_id BETWEEN ? AND ?", firstId, firstId + books - 1);
+        }
+    }
+
+    @Test
+    public void testUnsupportedWindow() throws Exception {
+        mockMvc.perform(get("/api/books/popular").param("window", "7d"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static double pendingGauge(SimpleMeterRegistry meterRegistry) {
+        return meterRegistry.get("book.popularity.pending").gauge().value();
+    }
+}
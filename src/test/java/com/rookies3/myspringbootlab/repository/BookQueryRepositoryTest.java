@@ -0,0 +1,166 @@
+package com.rookies3.myspringbootlab.repository;
+
+import com.rookies3.myspringbootlab.entity.Book;
+import com.rookies3.myspringbootlab.entity.BookDetail;
+import com.rookies3.myspringbootlab.metrics.MaxQueries;
+import com.rookies3.myspringbootlab.metrics.QueryCountExtension;
+import com.rookies3.myspringbootlab.metrics.SqlStatementScope;
+import com.rookies3.myspringbootlab.repository.projection.BookRow;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 조건 조합 조회의 결과와 실행 계획 : H2 EXPLAIN 으로 조건마다 선언한 인덱스를 사용하는지 확인합니다.
+// 값을 SQL 에 literal 로 넣어서(value_handling_mode=inline) 기록된 문장을 그대로 EXPLAIN 합니다.
+// ANALYZE 가 트랜잭션을 커밋하므로 롤백하지 않고 한 번 넣은 데이터를 모든 테스트가 조회만 합니다. (따로 넣은 도서는 테스트에서 지움)
+@SpringBootTest(properties = {
+        "book.seed.enabled=false",
+        "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@ExtendWith(QueryCountExtension.class)
+public class BookQueryRepositoryTest {
+
+    private static final int BOOKS = 200;
+    private static final List<String> PUBLISHERS = List.of("한빛미디어", "길벗", "인사이트", "위키북스", "에이콘");
+    private static final Sort BY_ID = Sort.by("id");
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long noPriceId;
+
+    @BeforeAll
+    void insertBooks() {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = Book.builder()
+                    .title((i % 10 == 0 ? "스프링 " : "자바 ") + i)
+                    .author("저자 " + (i % 20))
+                    .isbn(String.format("9791100%05d", i) + "0")
+                    .price(10_000 + i * 100)
+                    .publishDate(LocalDate.of(2020, 1, 1).plusDays(i * 7L))
+                    .build();
+            if (i % 4 != 0) {
+                book.setBookDetail(BookDetail.builder()
+                        .book(book)
+                        .language(i % 3 == 0 ? "English" : "Korean")
+                        .publisher(PUBLISHERS.get(i % PUBLISHERS.size()))
+                        .build());
+            }
+            books.add(book);
+        }
+        bookRepository.saveAll(books);
+        noPriceId = bookRepository.save(Book.builder().title("가격 미정").author("저자").isbn("9791100999990").build()).getId();
+        // 인덱스 선택에 쓰이는 통계 갱신
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    @MaxQueries(1)
+    public void testCombinedFilters(SqlStatementScope scope) {
+        scope.reset();
+        Specification<Book> spec = Specification.allOf(
+                BookSpecifications.priceBetween(12_000, 20_000),
+                BookSpecifications.publishedBetween(LocalDate.of(2020, 6, 1), null),
+                BookSpecifications.language("Korean"),
+                BookSpecifications.publisher("길벗"));
+
+        List<BookRow> rows = bookRepository.findRows(spec, Sort.by(Sort.Direction.DESC, "price").and(BY_ID), 100);
+
+        assertThat(rows).isNotEmpty().allSatisfy(row -> {
+            assertThat(row.price()).isBetween(12_000, 20_000);
+            assertThat(row.publishDate()).isAfterOrEqualTo(LocalDate.of(2020, 6, 1));
+            assertThat(row.language()).isEqualTo("Korean");
+            assertThat(row.publisher()).isEqualTo("길벗");
+        });
+        assertThat(rows).extracting(BookRow::price).isSortedAccordingTo((a, b) -> Integer.compare(b, a));
+    }
+
+    @Test
+    public void testTitleAndAuthorAreCaseInsensitiveContains() {
+        List<BookRow> rows = bookRepository.findRows(Specification.allOf(
+                BookSpecifications.titleContains("스프링"),
+                BookSpecifications.authorContains("저자 1")), BY_ID, 100);
+
+        // i % 10 == 0 이고 i % 20 이 1x 인 도서 : 10, 30, 50 ...
+        assertThat(rows).hasSize(BOOKS / 20)
+                .allSatisfy(row -> assertThat(row.title()).startsWith("스프링"));
+        // LIKE 특수 문자는 그대로 비교
+        assertThat(bookRepository.findRows(BookSpecifications.titleContains("%"), BY_ID, 100)).isEmpty();
+    }
+
+    // 검색어는 기본 Locale 과 관계없이 소문자로 바꿈 (tr 에서 "I" 는 점 없는 i 가 됨)
+    // H2 의 lower() 는 기본 Locale 을 따르므로 저장된 제목은 소문자로 둠
+    @Test
+    public void testContainsIgnoresDefaultLocale() {
+        Book book = bookRepository.save(Book.builder().title("intellij idea 가이드").author("저자").isbn("9791100999983").build());
+        Locale defaultLocale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.forLanguageTag("tr"));
+            assertThat(bookRepository.findRows(BookSpecifications.titleContains("INTELLIJ IDEA"), BY_ID, 100))
+                    .extracting(BookRow::id)
+                    .containsExactly(book.getId());
+        } finally {
+            Locale.setDefault(defaultLocale);
+            bookRepository.delete(book);
+        }
+    }
+
+    @Test
+    public void testNullSortKeysComeLast() {
+        List<BookRow> rows = bookRepository.findRows(null, Sort.by(Sort.Direction.DESC, "price").and(BY_ID), 1000);
+
+        assertThat(rows).hasSize(BOOKS + 1);
+        assertThat(rows.get(rows.size() - 1).id()).isEqualTo(noPriceId);
+    }
+
+    @Test
+    public void testPriceRangeUsesPriceIndex(SqlStatementScope scope) {
+        assertThat(plan(scope, BookSpecifications.priceBetween(12_000, 13_000))).contains("IDX_BOOKS_PRICE_ID");
+    }
+
+    @Test
+    public void testPublishDateRangeUsesPublishDateIndex(SqlStatementScope scope) {
+        assertThat(plan(scope, BookSpecifications.publishedBetween(LocalDate.of(2021, 1, 1), LocalDate.of(2021, 2, 1))))
+                .contains("IDX_BOOKS_PUBLISH_DATE_ID");
+    }
+
+    @Test
+    public void testLanguageAndPublisherUseCompositeIndex(SqlStatementScope scope) {
+        assertThat(plan(scope, Specification.allOf(BookSpecifications.language("English"), BookSpecifications.publisher("길벗"))))
+                .contains("IDX_BOOK_DETAILS_LANGUAGE_PUBLISHER");
+    }
+
+    @Test
+    public void testPublisherUsesPublisherIndex(SqlStatementScope scope) {
+        assertThat(plan(scope, BookSpecifications.publisher("인사이트"))).contains("IDX_BOOK_DETAILS_PUBLISHER");
+    }
+
+    // 조회를 실행해서 기록된 SQL 의 실행 계획
+    private String plan(SqlStatementScope scope, Specification<Book> spec) {
+        scope.reset();
+        bookRepository.findRows(spec, BY_ID, 20);
+        assertThat(scope.statements()).hasSize(1);
+        String sql = scope.statements().iterator().next();
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).toUpperCase();
+    }
+}
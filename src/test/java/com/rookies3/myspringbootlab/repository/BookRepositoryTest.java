@@ -1,11 +1,20 @@
 package com.rookies3.myspringbootlab.repository;
 
 import com.rookies3.myspringbootlab.entity.Book;
+import com.rookies3.myspringbootlab.entity.BookDetail;
+import com.rookies3.myspringbootlab.metrics.MaxQueries;
+import com.rookies3.myspringbootlab.metrics.QueryCountExtension;
+import com.rookies3.myspringbootlab.metrics.SqlStatementScope;
+import com.rookies3.myspringbootlab.repository.projection.BookRow;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
@@ -14,15 +23,24 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@SpringBootTest
+// 테스트 메서드 본문의 SQL 문장 수가 @MaxQueries 를 넘으면 실패 (쿼리 수 회귀 방지)
+// 샘플 데이터 없이, 테스트 메서드마다 새 H2 DB 를 사용 (@Rollback(false) 테스트의 커밋이 다른 테스트에 영향을 주지 않도록)
+@SpringBootTest(properties = "book.seed.enabled=false")
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 @Transactional
+@ExtendWith(QueryCountExtension.class)
 //@DataJpaTest
 public class BookRepositoryTest {
     
     @Autowired
     private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManager entityManager;
     
     @Test
+    @MaxQueries(1)
     public void testCreateBook() {
         // Given
         Book book = new Book();
@@ -42,6 +60,7 @@ public class BookRepositoryTest {
     }
     
     @Test
+    @MaxQueries(3)
     public void testFindByIsbn() {
         // Given
         Book book = new Book();
@@ -62,6 +81,7 @@ public class BookRepositoryTest {
     }
     
     @Test
+    @MaxQueries(4)
     public void testFindByAuthor() {
         // Given
         Book book1 = new Book();
@@ -100,6 +120,7 @@ public class BookRepositoryTest {
     
     @Test
     @Rollback(value = false)
+    @MaxQueries(1)
     public void testUpdateBook() {
         // Given
         Book book = new Book();
@@ -120,6 +141,7 @@ public class BookRepositoryTest {
     
     @Test
     @Rollback(value = false)
+    @MaxQueries(1)
     public void testDeleteBook() {
         // Given
         Book book = new Book();
@@ -135,4 +157,32 @@ public class BookRepositoryTest {
         // Then
         assertThat(bookRepository.findById(savedBook.getId())).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    @MaxQueries(1)
+    public void testFindAllRowsReadsDetailsInOneQuery(SqlStatementScope queries) {
+        // Given : 상세정보가 있는 도서 3권 (Book.bookDetail 은 mappedBy 쪽이라 엔티티로 읽으면 도서마다 상세정보 SELECT)
+        for (int i = 0; i < 3; i++) {
+            Book book = new Book();
+            book.setTitle("스프링 부트 입문 " + i);
+            book.setAuthor("홍길동");
+            book.setIsbn("978895674642" + i);
+            book.setPrice(30000);
+            BookDetail detail = new BookDetail();
+            detail.setDescription("설명 " + i);
+            detail.setBook(book);
+            book.setBookDetail(detail);
+            bookRepository.save(book);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        queries.reset();
+
+        // When
+        List<BookRow> rows = bookRepository.findAllRows();
+
+        // Then : 도서와 상세정보를 한 번의 조회로 읽음
+        assertThat(rows).hasSize(3);
+        assertThat(rows).extracting(BookRow::description).containsExactly("설명 0", "설명 1", "설명 2");
+    }
+}
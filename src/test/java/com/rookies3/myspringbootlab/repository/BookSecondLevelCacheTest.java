@@ -0,0 +1,130 @@
+package com.rookies3.myspringbootlab.repository;
+
+import com.rookies3.myspringbootlab.entity.Book;
+import com.rookies3.myspringbootlab.entity.BookDetail;
+import com.rookies3.myspringbootlab.metrics.MaxQueries;
+import com.rookies3.myspringbootlab.metrics.QueryCountExtension;
+import com.rookies3.myspringbootlab.metrics.SqlStatementScope;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Book -> BookDetail(mappedBy 쪽)은 book_id 로 찾아야 해서 2차 캐시로 풀 수 없으므로 접근할 때만 SELECT (bytecode enhancement 지연 로딩)
+// 2차 캐시는 커밋된 엔티티만 저장하므로 테스트 전체를 트랜잭션으로 묶지 않고 조회마다 별도 트랜잭션을 사용
+@SpringBootTest(properties = "book.seed.enabled=false")
+@ActiveProfiles("test")
+@ExtendWith(QueryCountExtension.class)
+public class BookSecondLevelCacheTest {
+
+    private static final String ISBN = "9791100014141";
+    private static final String PUBLISHER = "캐시출판";
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookDetailRepository bookDetailRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Long bookId;
+
+    @BeforeEach
+    public void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        bookId = transactionTemplate.execute(status -> bookRepository.findByIsbn(ISBN)
+                .orElseGet(() -> {
+                    Book book = new Book();
+                    book.setTitle("2차 캐시 입문");
+                    book.setAuthor("이캐시");
+                    book.setIsbn(ISBN);
+                    book.setPrice(30000);
+                    BookDetail detail = new BookDetail();
+                    detail.setPublisher(PUBLISHER);
+                    detail.setBook(book);
+                    book.setBookDetail(detail);
+                    return bookRepository.save(book);
+                })
+                .getId());
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    @Test
+    @MaxQueries(0)
+    public void testRepeatLookupsIssueNoSql(SqlStatementScope queries) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // 첫 조회 : DB 에서 읽고 캐시에 저장
+        lookUpEverything();
+        queries.reset();
+        long hitsBefore = statistics.getSecondLevelCacheHitCount();
+        long naturalIdHitsBefore = statistics.getNaturalIdCacheHitCount();
+        long queryHitsBefore = statistics.getQueryCacheHitCount();
+
+        // 두 번째 조회 : 모두 캐시에서 (SQL 0개)
+        lookUpEverything();
+
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThan(hitsBefore);
+        assertThat(statistics.getNaturalIdCacheHitCount()).isGreaterThan(naturalIdHitsBefore);
+        assertThat(statistics.getQueryCacheHitCount()).isGreaterThan(queryHitsBefore);
+    }
+
+    @Test
+    public void testWriteInvalidatesCachedQueryResults() {
+        transactionTemplate.executeWithoutResult(status ->
+                assertThat(bookDetailRepository.findByPublisher(PUBLISHER)).hasSize(1));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Book book = new Book();
+            book.setTitle("2차 캐시 실전");
+            book.setAuthor("이캐시");
+            book.setIsbn("9791100014158");
+            book.setPrice(32000);
+            BookDetail detail = new BookDetail();
+            detail.setPublisher(PUBLISHER);
+            detail.setBook(book);
+            book.setBookDetail(detail);
+            bookRepository.save(book);
+        });
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    assertThat(bookDetailRepository.findByPublisher(PUBLISHER)).hasSize(2));
+        } finally {
+            transactionTemplate.executeWithoutResult(status ->
+                    bookRepository.findByIsbn("9791100014158").ifPresent(bookRepository::delete));
+        }
+    }
+
+    // 조회마다 새 트랜잭션(영속성 컨텍스트)이므로 1차 캐시가 아닌 2차 캐시/쿼리 캐시를 사용
+    private void lookUpEverything() {
+        transactionTemplate.executeWithoutResult(status ->
+                assertThat(bookRepository.findById(bookId).orElseThrow().getIsbn()).isEqualTo(ISBN));
+        transactionTemplate.executeWithoutResult(status ->
+                assertThat(bookRepository.findByIsbn(ISBN).orElseThrow().getId()).isEqualTo(bookId));
+        transactionTemplate.executeWithoutResult(status ->
+                // BookDetail -> Book (외래키를 가진 쪽) 연관도 books region 에서 읽음
+                assertThat(bookDetailRepository.findByPublisher(PUBLISHER))
+                        .extracting(detail -> detail.getBook().getTitle()).containsOnly("2차 캐시 입문"));
+        transactionTemplate.executeWithoutResult(status ->
+                assertThat(bookRepository.findByTitleContainingIgnoreCase("2차 캐시"))
+                        .extracting(Book::getIsbn).contains(ISBN));
+    }
+}
@@ -0,0 +1,89 @@
+package com.rookies3.myspringbootlab.runner;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// isbn13 컬럼이 추가되기 전의 DB : isbn13 = 0 이고 uk_books_isbn13 생성에 실패한 상태
+@SpringBootTest(properties = "book.seed.enabled=false")
+@ActiveProfiles("test")
+public class BookIsbnBackfillRunnerTest {
+
+    @Autowired
+    private BookIsbnBackfillRunner runner;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void dropIndex() {
+        jdbcTemplate.update("DELETE FROM books");
+        jdbcTemplate.execute("ALTER TABLE books DROP CONSTRAINT IF EXISTS " + BookIsbnBackfillRunner.INDEX_NAME);
+    }
+
+    @AfterEach
+    public void restoreIndex() {
+        jdbcTemplate.update("DELETE FROM books");
+        if (indexCount() == 0) {
+            jdbcTemplate.execute("ALTER TABLE books ADD CONSTRAINT " + BookIsbnBackfillRunner.INDEX_NAME + " UNIQUE (isbn13)");
+        }
+    }
+
+    @Test
+    public void testFillsIsbn13AndCreatesUniqueIndex() {
+        insertLegacy("978-0-306-40615-7");
+        insertLegacy("080442957X");
+
+        runner.run();
+
+        assertThat(jdbcTemplate.queryForList("SELECT isbn13 FROM books ORDER BY isbn13", Long.class))
+                .containsExactly(9780306406157L, 9780804429573L);
+        assertThat(indexCount()).isEqualTo(1);
+        assertThatThrownBy(() -> insert("9780306406157", 9780306406157L)).hasMessageContaining("UK_BOOKS_ISBN13");
+
+        // 채울 행이 없고 인덱스가 있으면 그대로 둠
+        runner.run();
+        assertThat(indexCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testFailsOnSameIsbnInDifferentFormats() {
+        insertLegacy("978-0-306-40615-7");
+        insertLegacy("9780306406157");
+
+        assertThatThrownBy(() -> runner.run())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("isbn13=9780306406157 (2 books");
+        assertThat(indexCount()).isZero();
+    }
+
+    @Test
+    public void testFailsOnInvalidIsbn() {
+        insertLegacy("not-an-isbn");
+
+        assertThatThrownBy(() -> runner.run())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("isbn='not-an-isbn'");
+    }
+
+    private void insertLegacy(String isbn) {
+        insert(isbn, 0);
+    }
+
+    private void insert(String isbn, long isbn13) {
+        jdbcTemplate.update("INSERT INTO books (book_id, title, author, isbn, isbn13, version) "
+                + "VALUES (NEXT VALUE FOR books_seq, '이전 도서', '홍길동', ?, ?, 0)", isbn, isbn13);
+    }
+
+    private int indexCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS WHERE CONSTRAINT_NAME = ?",
+                Integer.class, BookIsbnBackfillRunner.INDEX_NAME.toUpperCase());
+    }
+}
@@ -0,0 +1,63 @@
+package com.rookies3.myspringbootlab.runner;
+
+import com.rookies3.myspringbootlab.entity.Book;
+import com.rookies3.myspringbootlab.entity.BookDetail;
+import com.rookies3.myspringbootlab.repository.BookRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// IDENTITY 로 저장된 기존 행이 있는 DB 에 시퀀스가 새로 만들어진 상태
+@SpringBootTest(properties = "book.seed.enabled=false")
+@ActiveProfiles("test")
+public class BookSequenceRunnerTest {
+
+    private static final long LEGACY_BOOK_ID = 1_000_000L;
+    private static final long LEGACY_DETAIL_ID = 2_000_000L;
+
+    @Autowired
+    private BookSequenceRunner runner;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testMovesSequencesPastExistingIdsOnlyForward() {
+        jdbcTemplate.update("INSERT INTO books (book_id, title, author, isbn, isbn13, version) "
+                + "VALUES (?, '기존 도서', '홍길동', '9791188900003', 9791188900003, 0)", LEGACY_BOOK_ID);
+        jdbcTemplate.update("INSERT INTO book_details (book_detail_id, publisher, version, book_id) "
+                + "VALUES (?, '기존출판', 0, ?)", LEGACY_DETAIL_ID, LEGACY_BOOK_ID);
+        jdbcTemplate.execute("ALTER SEQUENCE books_seq RESTART WITH 1");
+        jdbcTemplate.execute("ALTER SEQUENCE book_details_seq RESTART WITH 1");
+
+        runner.run();
+        long bookSequence = currentValue("BOOKS_SEQ");
+        assertThat(bookSequence).isGreaterThanOrEqualTo(LEGACY_BOOK_ID);
+        assertThat(currentValue("BOOK_DETAILS_SEQ")).isGreaterThanOrEqualTo(LEGACY_DETAIL_ID);
+
+        // 이미 충분히 앞에 있으면 되돌리지 않음
+        jdbcTemplate.update("DELETE FROM book_details WHERE book_id = ?", LEGACY_BOOK_ID);
+        jdbcTemplate.update("DELETE FROM books WHERE book_id = ?", LEGACY_BOOK_ID);
+        runner.run();
+        assertThat(currentValue("BOOKS_SEQ")).isGreaterThanOrEqualTo(bookSequence);
+
+        Book book = Book.builder().title("새 도서").author("홍길동").isbn("9791188900010").build();
+        book.setBookDetail(BookDetail.builder().publisher("새출판").book(book).build());
+        Book saved = bookRepository.save(book);
+        assertThat(saved.getId()).isGreaterThan(LEGACY_BOOK_ID);
+        assertThat(saved.getBookDetail().getId()).isGreaterThan(LEGACY_DETAIL_ID);
+        bookRepository.delete(saved);
+    }
+
+    private long currentValue(String sequence) {
+        return jdbcTemplate.queryForObject(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?", Long.class, sequence);
+    }
+}
@@ -0,0 +1,129 @@
+package com.rookies3.myspringbootlab.search;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 패싯 집계는 등록/수정/삭제 이벤트로 유지되고, DB 로 다시 만든 집계와 같아야 합니다.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class BookFacetIndexTest {
+
+    private static final String PUBLISHER = "패싯테스트출판";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookFacetIndex bookFacetIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testCountsFollowChanges() throws Exception {
+        // 같은 컨텍스트의 다른 테스트가 이벤트 없이 저장한 도서를 먼저 반영
+        bookFacetIndex.reconcile();
+
+        long first = create("""
+                {"title":"패싯 알파","author":"홍길동","isbn":"9791199990029","price":15000,"publishDate":"2001-05-01",
+                 "detailRequest":{"language":"패싯어","publisher":"%s"}}
+                """.formatted(PUBLISHER));
+        create("""
+                {"title":"패싯 베타","author":"김철수","isbn":"9791199990036","price":5000,"publishDate":"2001-09-01",
+                 "detailRequest":{"language":"패싯어","publisher":"%s"}}
+                """.formatted(PUBLISHER));
+
+        mockMvc.perform(get("/api/books/facets").param("publisher", PUBLISHER))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.facets.language[0].value").value("패싯어"))
+                .andExpect(jsonPath("$.facets.language[0].count").value(2))
+                .andExpect(jsonPath("$.facets.price[*].value", contains("0-9999", "10000-19999")))
+                .andExpect(jsonPath("$.facets.year[0].value").value("2001"))
+                .andExpect(jsonPath("$.facets.year[0].count").value(2));
+
+        // 가격 구간과 출간 연도가 바뀌면 이전 값에서 빠짐
+        mockMvc.perform(put("/api/books/{id}", first)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title":"패싯 알파","author":"홍길동","isbn":"9791199990029","price":35000,"publishDate":"2003-05-01",
+                                 "detailRequest":{"language":"패싯어","publisher":"%s"}}
+                                """.formatted(PUBLISHER)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/books/facets").param("publisher", PUBLISHER))
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.facets.price[*].value", contains("0-9999", "30000-49999")))
+                .andExpect(jsonPath("$.facets.year[*].value", contains("2003", "2001")));
+
+        // 검색어와 선택한 값의 교집합 (각 패싯은 자기 패싯의 선택 값으로는 좁히지 않음)
+        mockMvc.perform(get("/api/books/facets").param("q", "알파").param("publisher", PUBLISHER))
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.facets.publisher[0].value").value(PUBLISHER))
+                .andExpect(jsonPath("$.facets.price[*].value", contains("30000-49999")));
+        mockMvc.perform(get("/api/books/facets").param("publisher", PUBLISHER).param("price", "0-9999"))
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.facets.price[*].value", contains("0-9999", "30000-49999")))
+                .andExpect(jsonPath("$.facets.year[*].value", contains("2001")));
+
+        mockMvc.perform(delete("/api/books/{id}", first)).andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/books/facets").param("q", "알파").param("publisher", PUBLISHER))
+                .andExpect(jsonPath("$.total").value(0))
+                .andExpect(jsonPath("$.facets.price", empty()));
+        mockMvc.perform(get("/api/books/facets").param("publisher", PUBLISHER))
+                .andExpect(jsonPath("$.total").value(1));
+
+        // 이벤트로 유지한 집계는 DB 로 다시 만든 집계와 같음
+        assertThat(bookFacetIndex.reconcile()).isZero();
+    }
+
+    // 이벤트 없이 저장된 도서는 reconcile 에서 반영되고, 캐시된 패싯 응답도 함께 무효화됨
+    @Test
+    public void testReconcileRefreshesCachedFacets() throws Exception {
+        String publisher = "패싯드리프트출판";
+        bookFacetIndex.reconcile();
+        mockMvc.perform(get("/api/books/facets").param("publisher", publisher))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(0));
+
+        // 다른 인스턴스 또는 DB 에서 직접 저장한 도서
+        jdbcTemplate.update("INSERT INTO books (book_id, title, author, isbn, isbn13, price, version) "
+                + "VALUES (NEXT VALUE FOR books_seq, '드리프트', '홍길동', '9791199990074', 9791199990074, 10000, 0)");
+        jdbcTemplate.update("INSERT INTO book_details (book_detail_id, publisher, version, book_id) "
+                + "SELECT NEXT VALUE FOR book_details_seq, ?, 0, book_id FROM books WHERE isbn13 = 9791199990074", publisher);
+        mockMvc.perform(get("/api/books/facets").param("publisher", publisher))
+                .andExpect(jsonPath("$.total").value(0));
+
+        assertThat(bookFacetIndex.reconcile()).isPositive();
+        mockMvc.perform(get("/api/books/facets").param("publisher", publisher))
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.facets.publisher[*].value", hasItem(publisher)));
+    }
+
+    private long create(String json) throws Exception {
+        String created = mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.parse(created).read("$.id", Long.class);
+    }
+}
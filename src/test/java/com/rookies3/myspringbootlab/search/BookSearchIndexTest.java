@@ -0,0 +1,179 @@
+package com.rookies3.myspringbootlab.search;
+
+import com.rookies3.myspringbootlab.event.BookChangedEvent;
+import com.rookies3.myspringbootlab.event.BookSnapshot;
+import com.rookies3.myspringbootlab.repository.BookRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BookSearchIndexTest {
+
+    private static final List<BookSnapshot> BOOKS = List.of(
+            book(1L, "Java 기초 완전정복", "김자바"),
+            book(2L, "Python Cookbook", "David Beazley"),
+            book(3L, "자바스크립트 완벽 가이드", "David Flanagan"),
+            book(4L, "abxbc", "홍길동"),
+            book(5L, "Effective Java", "Joshua Bloch"),
+            book(6L, "모던 자바 인 액션", "라울 게이브리얼 우르마"),
+            book(7L, "java", "Java"));
+
+    // gram 교집합 + 원문 확인의 결과는 LIKE '%x%' (소문자 비교) 와 같음
+    @Test
+    public void testMatchesLikeSearch() {
+        BookSearchIndex index = build(BOOKS);
+
+        for (String query : List.of("java", "자바", "자", "a", "완전", "ab", "abc", "bxb", "cookbook", "없는",
+                "David", "vid b", "  Java ", "자바 인")) {
+            assertThat(index.searchTitle(query)).as("title %s", query).isEqualTo(like(BOOKS, query, true));
+            assertThat(index.searchAuthor(query)).as("author %s", query).isEqualTo(like(BOOKS, query, false));
+        }
+        // "ab"+"bc" gram 은 모두 있지만 "abc" 는 포함되지 않음
+        assertThat(index.searchTitle("abc")).isEmpty();
+        assertThat(index.searchTitle("")).isEmpty();
+        assertThat(index.searchTitle(null)).isEmpty();
+    }
+
+    // 한 글자 검색어는 1-gram 으로 찾음
+    @Test
+    public void testSingleCharacterQuery() {
+        BookSearchIndex index = build(BOOKS);
+
+        assertThat(index.searchTitle("자")).containsExactly(3L, 6L);
+        assertThat(index.searchAuthor("자")).containsExactly(1L);
+        assertThat(index.searchTitle("J")).containsExactly(1L, 5L, 7L);
+        assertThat(index.searchAuthor("길")).containsExactly(4L);
+    }
+
+    // 전각 문자, 조합형 한글, 대소문자는 NFKC + 소문자로 정규화해서 비교
+    @Test
+    public void testNormalizesWidthCompositionAndCase() {
+        BookSearchIndex index = build(List.of(
+                book(1L, "ＪＡＶＡ Ｐｒｏｇｒａｍｍｉｎｇ", "ＫＩＭ"),
+                book(2L, "자바 입문", "이자바"),
+                book(3L, "İstanbul guide", "TITLE CASE")));
+
+        assertThat(index.searchTitle("java prog")).containsExactly(1L);
+        assertThat(index.searchTitle("Ｊava")).containsExactly(1L);
+        assertThat(index.searchAuthor("kim")).containsExactly(1L);
+        assertThat(index.searchTitle("자바")).containsExactly(2L);
+        // 첫가끝 자모(ᄌ+ᅡ+ᄇ+ᅡ)로 입력해도 완성형 "자바" 와 같음
+        assertThat(index.searchTitle("자바")).containsExactly(2L);
+        assertThat(index.searchAuthor("title case")).containsExactly(3L);
+        // 기본 Locale 과 관계없이 같은 결과 (tr 에서 "I".toLowerCase() 는 점 없는 i)
+        Locale defaultLocale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.forLanguageTag("tr"));
+            assertThat(index.searchAuthor("TITLE")).containsExactly(3L);
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    // 제목 3 / 저자 2, 값 전체 일치 4배, 단어 시작 2배, 검색어별 점수 합계, 동점은 id 오름차순
+    @Test
+    public void testRanksByWeightedScore() {
+        BookSearchIndex index = build(List.of(
+                book(1L, "Learning Java", "Someone"),   // 단어 시작 : 3 * 2 = 6
+                book(2L, "Javascript", "Someone"),      // 값의 시작 : 3 * 2 = 6
+                book(3L, "Java", "Someone"),            // 제목 전체 : 3 * 4 = 12
+                book(4L, "Ajava", "Someone"),           // 중간 포함 : 3
+                book(5L, "Something", "Java"),          // 저자 전체 : 2 * 4 = 8
+                book(6L, "Something", "Ajava"),         // 저자 중간 : 2
+                book(7L, "Java Spring", "Spring")));    // java 6 + spring (제목 6 + 저자 8) = 20
+
+        assertThat(index.search("java spring", 10)).containsExactly(7L, 3L, 5L, 1L, 2L, 4L, 6L);
+        assertThat(index.search("java", 10)).containsExactly(3L, 5L, 1L, 2L, 7L, 4L, 6L);
+        assertThat(index.search("java", 2)).containsExactly(3L, 5L);
+        // 같은 검색어가 반복되어도 한 번만 계산
+        assertThat(index.search("java java", 10)).isEqualTo(index.search("java", 10));
+        assertThat(index.search("   ", 10)).isEmpty();
+        assertThat(index.matchingIds("java spring")).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+    }
+
+    // 삭제되거나 제목이 바뀌면 이전 값으로는 찾을 수 없음
+    @Test
+    public void testAppliesDeleteAndTitleChange() {
+        BookSearchIndex index = build(BOOKS);
+
+        index.onBookChanged(new BookChangedEvent(BookChangedEvent.Type.UPDATED, 5L,
+                BOOKS.get(4), book(5L, "Effective Kotlin", "Joshua Bloch")));
+        index.onBookChanged(new BookChangedEvent(BookChangedEvent.Type.DELETED, 7L, BOOKS.get(6), null));
+        index.onBookChanged(BookChangedEvent.detailUpdated(1L));
+
+        assertThat(index.searchTitle("java")).containsExactly(1L);
+        assertThat(index.searchAuthor("java")).isEmpty();
+        assertThat(index.searchTitle("kotlin")).containsExactly(5L);
+        assertThat(index.searchAuthor("bloch")).containsExactly(5L);
+        assertThat(index.search("java", 10)).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(BOOKS.size() - 1);
+    }
+
+    // 구축 중에 커밋된 변경은 스냅샷을 모두 읽은 뒤 순서대로 적용
+    @Test
+    public void testReplaysChangesCommittedDuringBuild() {
+        BookRepository repository = mock(BookRepository.class);
+        BookSearchIndex index = new BookSearchIndex(repository);
+        BookSnapshot first = book(1L, "Java 기초", "김자바");
+        BookSnapshot second = book(2L, "Python Cookbook", "David Beazley");
+        Stream<BookSnapshot> snapshots = Stream.of(first, second).peek(snapshot -> {
+            if (snapshot.id() == 1L) {
+                // 아직 읽지 않은 2번 도서가 수정되고, 새 도서가 등록된 뒤 삭제됨
+                index.onBookChanged(new BookChangedEvent(BookChangedEvent.Type.UPDATED, 2L,
+                        second, book(2L, "Fluent Python", "Luciano Ramalho")));
+                index.onBookChanged(new BookChangedEvent(BookChangedEvent.Type.CREATED, 3L,
+                        null, book(3L, "Go 언어", "김고")));
+                index.onBookChanged(new BookChangedEvent(BookChangedEvent.Type.CREATED, 4L,
+                        null, book(4L, "Rust 입문", "박러스트")));
+                index.onBookChanged(new BookChangedEvent(BookChangedEvent.Type.DELETED, 4L,
+                        book(4L, "Rust 입문", "박러스트"), null));
+                assertThat(index.searchTitle("go")).isEmpty();
+            }
+        });
+        when(repository.streamAllSnapshots()).thenReturn(snapshots);
+
+        assertThat(index.isReady()).isFalse();
+        index.build();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.searchTitle("python")).containsExactly(2L);
+        assertThat(index.searchTitle("cookbook")).isEmpty();
+        assertThat(index.searchTitle("go")).containsExactly(3L);
+        assertThat(index.searchTitle("rust")).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+
+        // 구축이 끝난 뒤의 변경은 바로 적용
+        index.onBookChanged(new BookChangedEvent(BookChangedEvent.Type.DELETED, 3L, book(3L, "Go 언어", "김고"), null));
+        assertThat(index.searchTitle("go")).isEmpty();
+    }
+
+    private static BookSearchIndex build(List<BookSnapshot> books) {
+        BookRepository repository = mock(BookRepository.class);
+        when(repository.streamAllSnapshots()).thenReturn(books.stream());
+        BookSearchIndex index = new BookSearchIndex(repository);
+        index.build();
+        return index;
+    }
+
+    private static List<Long> like(List<BookSnapshot> books, String query, boolean title) {
+        String pattern = BookSearchIndex.normalize(query);
+        if (pattern.isEmpty()) {
+            return List.of();
+        }
+        return books.stream()
+                .filter(book -> BookSearchIndex.normalize(title ? book.title() : book.author()).contains(pattern))
+                .map(BookSnapshot::id)
+                .sorted()
+                .toList();
+    }
+
+    private static BookSnapshot book(Long id, String title, String author) {
+        return new BookSnapshot(id, title, author, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,107 @@
+package com.rookies3.myspringbootlab.seed;
+
+import com.rookies3.myspringbootlab.entity.Book;
+import com.rookies3.myspringbootlab.entity.BookDetail;
+import com.rookies3.myspringbootlab.property.BookSeedProperties;
+import com.rookies3.myspringbootlab.repository.BookRepository;
+import com.rookies3.myspringbootlab.validation.Isbn;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 시작 시 BookDataInsertRunner 가 book.seed.count 권을 생성한 상태에서 확인 (약 40초, -Pbenchmark 로 실행)
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:synthetic-seed",
+        "book.seed.count=3000",
+        "book.seed.seed=7",
+        "book.seed.producers=3",
+        "book.seed.batch-size=250",
+        "book.seed.detail-ratio=0.5"
+})
+@ActiveProfiles("test")
+public class SyntheticBookGeneratorTest {
+
+    @Autowired
+    private SyntheticBookGenerator generator;
+
+    @Autowired
+    private BookSeedProperties properties;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testGeneratesDeterministicRowsAndResumesMissingIndexes() {
+        SyntheticBooks expected = new SyntheticBooks(7L, 0.5, properties.getKoreanRatio(), properties.getIsbn10Ratio());
+        assertThat(bookRepository.count()).isEqualTo(3000);
+
+        // id 는 index + 1, 내용은 seed 와 index 로 결정
+        for (long index : new long[]{0, 1234, 2999}) {
+            SyntheticBooks.Row row = expected.row(index);
+            Book book = bookRepository.findById(index + 1).orElseThrow();
+            assertThat(book.getIsbn()).isEqualTo(row.isbn());
+            assertThat(book.getTitle()).isEqualTo(row.title());
+            assertThat(book.getUpdatedAt()).isEqualTo(row.updatedAt());
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM book_details WHERE book_id = ?",
+                    Integer.class, index + 1)).isEqualTo(row.detail() != null ? 1 : 0);
+        }
+
+        // 이미 충분하면 건너뜀
+        assertThat(generator.generate(3000).books()).isZero();
+
+        // 단위별 커밋 순서는 정해져 있지 않으므로 중간 단위(index 250~499)와 마지막 단위가 빠진 채 중단된 경우
+        deleteBooks(251, 500);
+        deleteBooks(2751, 3000);
+        SyntheticBookGenerator.Result resumed = generator.generate(3000);
+        assertThat(resumed.books()).isEqualTo(500);
+        assertThat(storedIsbns()).isEqualTo(expectedIsbns(expected, 3000));
+
+        // count 를 늘리면 없는 index 만 기존 최대 id 뒤에 생성
+        long maxId = jdbcTemplate.queryForObject("SELECT MAX(book_id) FROM books", Long.class);
+        SyntheticBookGenerator.Result result = generator.generate(3500);
+        assertThat(result.books()).isEqualTo(500);
+        assertThat(storedIsbns()).isEqualTo(expectedIsbns(expected, 3500));
+        assertThat(bookRepository.findById(maxId + 3500).orElseThrow().getIsbn()).isEqualTo(expected.row(3499).isbn());
+
+        // 이후 JPA 로 저장하는 도서/상세정보는 생성된 id 뒤의 id 를 사용
+        Long maxDetailId = jdbcTemplate.queryForObject("SELECT MAX(book_detail_id) FROM book_details", Long.class);
+        Book book = Book.builder()
+                .title("시퀀스 확인").author("김시퀀스").isbn("9790000000001").price(10000)
+                .publishDate(LocalDate.of(2024, 1, 1)).build();
+        BookDetail detail = BookDetail.builder().publisher("시퀀스출판").book(book).build();
+        book.setBookDetail(detail);
+        Book saved = bookRepository.save(book);
+        assertThat(saved.getId()).isGreaterThan(maxId + 3500);
+        assertThat(saved.getBookDetail().getId()).isGreaterThan(maxDetailId);
+    }
+
+    private void deleteBooks(long firstId, long lastId) {
+        jdbcTemplate.update("DELETE FROM book_details WHERE book_id BETWEEN ? AND ?", firstId, lastId);
+        jdbcTemplate.update("DELETE FROM books WHERE book_id BETWEEN ? AND ?", firstId, lastId);
+    }
+
+    private List<Long> storedIsbns() {
+        return jdbcTemplate.queryForList("SELECT isbn13 FROM books ORDER BY isbn13", Long.class);
+    }
+
+    private static List<Long> expectedIsbns(SyntheticBooks books, long count) {
+        Set<Long> isbns = new HashSet<>();
+        LongStream.range(0, count).forEach(index -> isbns.add(Isbn.normalize(books.row(index).isbn())));
+        return isbns.stream().sorted().toList();
+    }
+}
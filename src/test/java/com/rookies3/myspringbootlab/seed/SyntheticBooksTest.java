@@ -0,0 +1,88 @@
+package com.rookies3.myspringbootlab.seed;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 200,000 행을 만들어 확인하므로 -Pbenchmark 로 실행
+@Tag("benchmark")
+public class SyntheticBooksTest {
+
+    private static final int ROWS = 200_000;
+
+    @Test
+    public void testSameSeedProducesSameRows() {
+        SyntheticBooks first = new SyntheticBooks(42L, 0.7, 0.5, 0.2);
+        SyntheticBooks second = new SyntheticBooks(42L, 0.7, 0.5, 0.2);
+        SyntheticBooks otherSeed = new SyntheticBooks(43L, 0.7, 0.5, 0.2);
+
+        for (long index : new long[]{0, 1, 999, 123_456, SyntheticBooks.MAX_BOOKS - 1}) {
+            assertThat(first.row(index)).isEqualTo(second.row(index));
+        }
+        assertThat(first.row(7).isbn()).isNotEqualTo(otherSeed.row(7).isbn());
+    }
+
+    @Test
+    public void testIsbnsAreUniqueWithValidChecksums() {
+        SyntheticBooks books = new SyntheticBooks(42L, 0.7, 0.5, 0.2);
+        Set<String> isbns = new HashSet<>();
+        int isbn10 = 0;
+        int details = 0;
+        int korean = 0;
+
+        for (int index = 0; index < ROWS; index++) {
+            SyntheticBooks.Row row = books.row(index);
+            assertThat(isbns.add(row.isbn())).as("duplicate ISBN %s", row.isbn()).isTrue();
+            assertThat(isValidIsbn(row.isbn())).as("invalid ISBN %s", row.isbn()).isTrue();
+            if (row.isbn().length() == 10) {
+                isbn10++;
+            }
+            if (row.detail() != null) {
+                details++;
+                if (row.detail().language().equals("Korean")) {
+                    korean++;
+                }
+            }
+        }
+
+        assertThat(isbn10).isBetween((int) (ROWS * 0.19), (int) (ROWS * 0.21));
+        assertThat(details).isBetween((int) (ROWS * 0.69), (int) (ROWS * 0.71));
+        assertThat(korean).isBetween((int) (details * 0.49), (int) (details * 0.51));
+    }
+
+    @Test
+    public void testCheckDigits() {
+        assertThat(SyntheticBooks.isbn10("080442957")).isEqualTo("080442957X");
+        assertThat(SyntheticBooks.isbn10("030640615")).isEqualTo("0306406152");
+        assertThat(SyntheticBooks.isbn13("978030640615")).isEqualTo("9780306406157");
+    }
+
+    @Test
+    public void testIndexOutOfRange() {
+        SyntheticBooks books = new SyntheticBooks(42L, 0.7, 0.5, 0.2);
+        assertThatThrownBy(() -> books.row(SyntheticBooks.MAX_BOOKS)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // 생성기와 별도로 구현한 체크섬 검사
+    private static boolean isValidIsbn(String isbn) {
+        if (isbn.length() == 10) {
+            int sum = 0;
+            for (int i = 0; i < 10; i++) {
+                char c = isbn.charAt(i);
+                int digit = (i == 9 && c == 'X') ? 10 : c - '0';
+                sum += digit * (10 - i);
+            }
+            return sum % 11 == 0;
+        }
+        int sum = 0;
+        for (int i = 0; i < 13; i++) {
+            sum += (isbn.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return isbn.length() == 13 && sum % 10 == 0;
+    }
+}
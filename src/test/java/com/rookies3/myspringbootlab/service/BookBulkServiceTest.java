@@ -0,0 +1,122 @@
+package com.rookies3.myspringbootlab.service;
+
+import com.rookies3.myspringbootlab.controller.dto.BookDTO;
+import com.rookies3.myspringbootlab.exception.BusinessException;
+import com.rookies3.myspringbootlab.repository.BookRepository;
+import com.rookies3.myspringbootlab.seed.SyntheticBooks;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// BookControllerQueryCountTest 와 같은 설정이므로 컨텍스트를 함께 사용 (제목에 "측정" 을 쓰지 않음)
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "book.isbn-filter.enabled=true"
+})
+@ActiveProfiles("test")
+public class BookBulkServiceTest {
+
+    @Autowired
+    private BookBulkService bookBulkService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // 항목별 결과는 요청 순서대로, 실패한 항목이 있어도 나머지는 저장
+    @Test
+    public void testReportsResultPerItem() {
+        bookBulkService.createBooks(List.of(request("기존 도서", isbn(0))));
+
+        BookDTO.BulkResponse response = bookBulkService.createBooks(List.of(
+                request("새 도서", isbn(1)),
+                request(" ", isbn(2)),
+                request("잘못된 ISBN", "9791188000000"),
+                request("이미 있는 도서", isbn(0)),
+                request("요청 내 중복", hyphenated(isbn(1))),
+                request("새 도서 2", isbn(3))));
+
+        assertThat(response.getRequested()).isEqualTo(6);
+        assertThat(response.getCreated()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(4);
+        assertThat(response.getResults()).extracting(BookDTO.BulkItemResult::getIndex)
+                .containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(response.getResults()).extracting(BookDTO.BulkItemResult::getStatus).containsExactly(
+                BookDTO.BulkStatus.CREATED,
+                BookDTO.BulkStatus.INVALID,
+                BookDTO.BulkStatus.INVALID,
+                BookDTO.BulkStatus.DUPLICATE,
+                BookDTO.BulkStatus.DUPLICATE,
+                BookDTO.BulkStatus.CREATED);
+        assertThat(response.getResults().get(1).getMessage()).isEqualTo("title: Book title is required");
+        assertThat(response.getResults().get(3).getMessage()).isEqualTo("Book already exists with ISBN: " + isbn(0));
+        // 형식이 달라도 같은 ISBN 이면 요청 내 중복 (먼저 나온 항목이 저장됨)
+        assertThat(response.getResults().get(4).getMessage()).isEqualTo("ISBN is duplicated at index 0");
+
+        BookDTO.BulkItemResult created = response.getResults().get(0);
+        assertThat(created.getId()).isNotNull();
+        assertThat(bookRepository.findById(created.getId()).orElseThrow().getTitle()).isEqualTo("새 도서");
+        assertThat(bookRepository.findByIsbn(isbn(2))).isEmpty();
+        assertThat(bookRepository.findByIsbn(isbn(3))).isPresent();
+    }
+
+    // FLUSH_SIZE 건마다 flush 하고 남은 건은 마지막에 한 번 더 flush
+    @Test
+    public void testFlushesEveryFlushSize() {
+        int count = BookBulkService.FLUSH_SIZE * 2 + 20;
+        List<BookDTO.Request> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            requests.add(request("대량 도서 " + i, isbn(100 + i)));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BookDTO.BulkResponse response = bookBulkService.createBooks(requests);
+
+        assertThat(response.getCreated()).isEqualTo(count);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(count);
+        assertThat(statistics.getFlushCount()).isEqualTo(3);
+        assertThat(response.getResults()).extracting(BookDTO.BulkItemResult::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(bookRepository.findByIsbn(isbn(100 + count - 1))).isPresent();
+    }
+
+    @Test
+    public void testRejectsEmptyAndOversizedRequest() {
+        assertThatThrownBy(() -> bookBulkService.createBooks(List.of()))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Bulk request must contain at least one book");
+
+        List<BookDTO.Request> requests = new ArrayList<>();
+        for (int i = 0; i <= BookBulkService.MAX_BULK_SIZE; i++) {
+            requests.add(request("초과 도서", isbn(1000 + i)));
+        }
+        assertThatThrownBy(() -> bookBulkService.createBooks(requests))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Bulk request must not exceed " + BookBulkService.MAX_BULK_SIZE + " books");
+    }
+
+    private static BookDTO.Request request(String title, String isbn) {
+        return BookDTO.Request.builder().title(title).author("대량 저자").isbn(isbn).price(10000).build();
+    }
+
+    // i 번째 테스트 도서의 ISBN-13 (979 1188 + i 다섯 자리 + 체크 숫자)
+    private static String isbn(int i) {
+        return SyntheticBooks.isbn13(String.format("9791188%05d", i));
+    }
+
+    private static String hyphenated(String isbn13) {
+        return isbn13.substring(0, 3) + "-" + isbn13.substring(3, 12) + "-" + isbn13.substring(12);
+    }
+}
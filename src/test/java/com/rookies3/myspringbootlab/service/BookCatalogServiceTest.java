@@ -0,0 +1,66 @@
+package com.rookies3.myspringbootlab.service;
+
+import com.rookies3.myspringbootlab.controller.dto.BookDTO;
+import com.rookies3.myspringbootlab.event.BookChangedEvent;
+import com.rookies3.myspringbootlab.repository.projection.CatalogVersion;
+import com.rookies3.myspringbootlab.seed.SyntheticBooks;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "book.seed.enabled=false")
+@ActiveProfiles("test")
+public class BookCatalogServiceTest {
+
+    @Autowired
+    private BookCatalogService bookCatalogService;
+
+    @Autowired
+    private BookBulkService bookBulkService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // 한 트랜잭션에서 여러 도서를 써도 버전은 커밋할 때 한 번만 올라감
+    @Test
+    public void testBumpsOncePerCommittedTransaction() {
+        bookBulkService.createBooks(List.of(request(0)));
+        CatalogVersion before = bookCatalogService.getVersion();
+
+        bookBulkService.createBooks(List.of(request(1), request(2), request(3)));
+
+        CatalogVersion after = bookCatalogService.getVersion();
+        assertThat(after.version()).isEqualTo(before.version() + 1);
+        assertThat(after.lastModified()).isAfterOrEqualTo(before.lastModified());
+    }
+
+    // 롤백된 트랜잭션은 버전을 바꾸지 않음
+    @Test
+    public void testRolledBackTransactionKeepsVersion() {
+        bookBulkService.createBooks(List.of(request(10)));
+        CatalogVersion before = bookCatalogService.getVersion();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            eventPublisher.publishEvent(BookChangedEvent.detailUpdated(1L));
+            status.setRollbackOnly();
+        });
+
+        assertThat(bookCatalogService.getVersion()).isEqualTo(before);
+    }
+
+    private static BookDTO.Request request(int i) {
+        return BookDTO.Request.builder().title("카탈로그 도서 " + i).author("카탈로그 저자")
+                .isbn(SyntheticBooks.isbn13(String.format("9791177%05d", i))).price(10000).build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.rookies3.myspringbootlab.validation;
+
+import com.rookies3.myspringbootlab.controller.dto.BookDTO;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IsbnTest {
+
+    @Test
+    public void testIsbn13() {
+        assertThat(Isbn.parse("9780306406157")).isEqualTo(9780306406157L);
+        assertThat(Isbn.parse("978-0-306-40615-7")).isEqualTo(9780306406157L);
+        assertThat(Isbn.parse("979-8-6024-0545-3")).isEqualTo(9798602405453L);
+    }
+
+    @Test
+    public void testIsbn10IsConvertedToIsbn13() {
+        assertThat(Isbn.parse("0306406152")).isEqualTo(9780306406157L);
+        assertThat(Isbn.parse("0-306-40615-2")).isEqualTo(9780306406157L);
+        // 체크 숫자 X (10)
+        assertThat(Isbn.parse("080442957X")).isEqualTo(9780804429573L);
+        assertThat(Isbn.parse("0-8044-2957-x")).isEqualTo(9780804429573L);
+    }
+
+    @Test
+    public void testInvalid() {
+        assertThat(Isbn.parse(null)).isEqualTo(Isbn.INVALID);
+        assertThat(Isbn.parse("")).isEqualTo(Isbn.INVALID);
+        // 체크섬 불일치
+        assertThat(Isbn.parse("9780306406158")).isEqualTo(Isbn.INVALID);
+        assertThat(Isbn.parse("0306406153")).isEqualTo(Isbn.INVALID);
+        // 자릿수
+        assertThat(Isbn.parse("978030640615")).isEqualTo(Isbn.INVALID);
+        assertThat(Isbn.parse("97803064061570")).isEqualTo(Isbn.INVALID);
+        // 978/979 이외의 접두어, X 위치, 허용하지 않는 문자
+        assertThat(Isbn.parse("9770306406150")).isEqualTo(Isbn.INVALID);
+        assertThat(Isbn.parse("X306406152")).isEqualTo(Isbn.INVALID);
+        assertThat(Isbn.parse("080442957X1")).isEqualTo(Isbn.INVALID);
+        assertThat(Isbn.parse("978 0306406157")).isEqualTo(Isbn.INVALID);
+        assertThat(Isbn.parse("９７８0306406157")).isEqualTo(Isbn.INVALID);
+    }
+
+    @Test
+    public void testNormalizeIgnoresChecksum() {
+        assertThat(Isbn.normalize("978-8979148123")).isEqualTo(9788979148123L);
+        assertThat(Isbn.normalize("0306406153")).isEqualTo(9780306406157L);
+        assertThat(Isbn.normalize("97803064061")).isEqualTo(Isbn.INVALID);
+    }
+
+    @Test
+    public void testValidator() {
+        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+            Validator validator = factory.getValidator();
+            BookDTO.Request request = BookDTO.Request.builder()
+                    .title("스프링 부트 입문").author("홍길동").isbn("978-0-306-40615-7").price(30000).build();
+            assertThat(validator.validate(request)).isEmpty();
+
+            request.setIsbn("080442957X");
+            assertThat(validator.validate(request)).isEmpty();
+
+            request.setIsbn("9780306406158");
+            assertThat(validator.validate(request))
+                    .extracting(violation -> violation.getPropertyPath().toString())
+                    .containsExactly("isbn");
+        }
+    }
+}
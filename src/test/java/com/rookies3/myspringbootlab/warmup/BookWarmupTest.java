@@ -0,0 +1,101 @@
+package com.rookies3.myspringbootlab.warmup;
+
+import com.rookies3.myspringbootlab.cache.BookJsonCache;
+import com.rookies3.myspringbootlab.popularity.BookPopularity;
+import com.rookies3.myspringbootlab.repository.BookRepository;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 샘플 데이터(BookDataInsertRunner)가 들어간 뒤 ApplicationReadyEvent 에서 워밍업이 끝나 있어야 합니다.
+@SpringBootTest(properties = {
+        "book.warmup.enabled=true",
+        "book.warmup.timeout=20s",
+        "book.warmup.iterations-per-round=200",
+        "book.warmup.hot-books=3"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+// 두 번째 테스트는 조회수와 캐시를 바꾸므로 시작 시의 상태를 먼저 확인
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class BookWarmupTest {
+
+    @Autowired
+    private BookWarmup bookWarmup;
+
+    @Autowired
+    private BookJsonCache bookJsonCache;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookPopularity bookPopularity;
+
+    @Autowired
+    private ApplicationAvailability applicationAvailability;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @Order(1)
+    public void testWarmupFinishesBeforeAcceptingTraffic() throws Exception {
+        BookWarmup.Progress progress = bookWarmup.progress();
+        assertThat(progress.phase()).isIn(BookWarmup.Phase.DONE, BookWarmup.Phase.TIMED_OUT);
+        assertThat(progress.connectionsOpened()).isPositive();
+        assertThat(progress.booksPreloaded()).isPositive();
+        assertThat(progress.jitIterations()).isPositive();
+        assertThat(applicationAvailability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+
+        // 조회수 통계가 없으면 최근 변경된 도서가 이미 JSON 응답 캐시에 있음
+        List<Long> hot = bookRepository.findRecentlyUpdatedIds(PageRequest.of(0, 3));
+        assertThat(hot).allSatisfy(id -> assertThat(bookJsonCache.findById(id)).isNotNull());
+
+        mockMvc.perform(get("/actuator/warmup"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.phase").value(progress.phase().name()))
+                .andExpect(jsonPath("$.booksPreloaded", greaterThan(0)));
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+    }
+
+    // 조회수 통계가 있으면 많이 조회된 도서를 먼저 올리고 남은 자리는 최근 변경된 도서로 채움
+    @Test
+    @Order(2)
+    public void testWarmupPreloadsMostViewedBooksFirst() {
+        List<Long> recent = bookRepository.findRecentlyUpdatedIds(PageRequest.of(0, 100));
+        Long popular = recent.get(recent.size() - 1);
+        for (int i = 0; i < 5; i++) {
+            bookPopularity.record(popular);
+        }
+        bookPopularity.flush();
+        bookJsonCache.invalidateAll();
+        int preloaded = bookWarmup.progress().booksPreloaded();
+
+        bookWarmup.warmUp();
+
+        assertThat(bookWarmup.progress().booksPreloaded() - preloaded).isEqualTo(3);
+        assertThat(bookJsonCache.findById(popular)).isNotNull();
+        assertThat(recent.subList(0, 2)).allSatisfy(id -> assertThat(bookJsonCache.findById(id)).isNotNull());
+        assertThat(bookJsonCache.findById(recent.get(2))).isNull();
+    }
+}